@@ -1,10 +1,95 @@
 package br.com.fiap.gs.ConnectA.config;
 
+import br.com.fiap.gs.ConnectA.repository.UsuarioRepository;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+import java.util.function.Function;
 
 @Configuration
 @EnableCaching
+@Slf4j
 public class CacheConfig {
 
-}
\ No newline at end of file
+    public static final String USUARIOS = "usuarios";
+    public static final String USUARIOS_POR_EMAIL = "usuariosPorEmail";
+    public static final String USUARIOS_INEXISTENTES = "usuariosInexistentes";
+
+    private static final String PREFIXO = "connecta.cache.";
+
+    /**
+     * CacheManager Caffeine com caches nomeados, limitados e instrumentados.
+     * Evictions e puts feitos dentro de transação só valem após o commit.
+     */
+    @Bean
+    public CacheManager cacheManager(Environment environment, UsuarioRepository usuarioRepository) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCaffeine(builder(lerSpec(environment, "default")));
+
+        registrar(cacheManager, lerSpec(environment, USUARIOS),
+                id -> usuarioRepository.findById((Long) id).orElse(null));
+        registrar(cacheManager, lerSpec(environment, USUARIOS_POR_EMAIL),
+                email -> usuarioRepository.findByEmail((String) email).orElse(null));
+        registrar(cacheManager, lerSpec(environment, USUARIOS_INEXISTENTES), null);
+
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+
+    private void registrar(
+            CaffeineCacheManager cacheManager,
+            CacheSpec spec,
+            Function<Object, Object> recarga
+    ) {
+        log.info("Cache '{}' registrado: {}", spec.nome(), spec);
+        Caffeine<Object, Object> builder = builder(spec);
+        if (spec.refreshAfterWrite() == null || recarga == null) {
+            cacheManager.registerCustomCache(spec.nome(), builder.build());
+            return;
+        }
+
+        builder.refreshAfterWrite(spec.refreshAfterWrite());
+        cacheManager.registerCustomCache(spec.nome(), builder.build(new CacheLoader<Object, Object>() {
+            @Override
+            public Object load(Object key) {
+                // Misses seguem pelo método @Cacheable; o loader só atua no refresh-ahead
+                return null;
+            }
+
+            @Override
+            public Object reload(Object key, Object oldValue) {
+                return recarga.apply(key);
+            }
+        }));
+    }
+
+    private Caffeine<Object, Object> builder(CacheSpec spec) {
+        return Caffeine.newBuilder()
+                .maximumSize(spec.maxSize())
+                .expireAfterWrite(spec.expireAfterWrite())
+                .recordStats();
+    }
+
+    private CacheSpec lerSpec(Environment environment, String nome) {
+        return new CacheSpec(
+                nome,
+                environment.getProperty(PREFIXO + nome + ".max-size", Long.class, 1_000L),
+                environment.getProperty(PREFIXO + nome + ".expire-after-write", Duration.class, Duration.ofMinutes(10)),
+                environment.getProperty(PREFIXO + nome + ".refresh-after-write", Duration.class)
+        );
+    }
+
+    /**
+     * Especificação de um cache nomeado
+     */
+    record CacheSpec(String nome, long maxSize, Duration expireAfterWrite, Duration refreshAfterWrite) {
+    }
+}
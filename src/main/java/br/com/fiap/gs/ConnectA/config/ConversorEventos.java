@@ -0,0 +1,149 @@
+package br.com.fiap.gs.ConnectA.config;
+
+import br.com.fiap.gs.ConnectA.dto.evento.EventoJson;
+import br.com.fiap.gs.ConnectA.dto.evento.EventoVersionado;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.DefaultJackson2JavaTypeMapper;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.amqp.support.converter.SmartMessageConverter;
+import org.springframework.core.ParameterizedTypeReference;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Conversor das mensagens do connecta.exchange.
+ * Eventos versionados saem no formato configurado (JSON ou CBOR) com a versão
+ * do schema no header; na leitura o formato é escolhido pelo content-type,
+ * então consumidores decodificam os dois. Demais mensagens seguem em JSON.
+ */
+public class ConversorEventos implements SmartMessageConverter {
+
+    public static final String CONTENT_TYPE_CBOR = "application/cbor";
+
+    /**
+     * Formato de publicação dos eventos versionados
+     */
+    public enum Formato {
+        JSON,
+        CBOR
+    }
+
+    private final ObjectMapper jsonMapper;
+    private final ObjectMapper cborMapper;
+    private final Jackson2JsonMessageConverter json;
+    private final DefaultJackson2JavaTypeMapper mapeadorTipos;
+    private final Formato formato;
+
+    public ConversorEventos(ObjectMapper objectMapper, Formato formato) {
+        this.jsonMapper = objectMapper;
+        this.cborMapper = objectMapper.copyWith(new CBORFactory());
+        // Tipos do header __TypeId__ aceitos só do pacote de eventos
+        String pacoteEventos = EventoVersionado.class.getPackageName();
+        this.json = new Jackson2JsonMessageConverter(objectMapper, pacoteEventos);
+        this.mapeadorTipos = new DefaultJackson2JavaTypeMapper();
+        this.mapeadorTipos.setTrustedPackages(pacoteEventos);
+        this.formato = formato;
+    }
+
+    @Override
+    public Message toMessage(Object object, MessageProperties messageProperties) {
+        return toMessage(object, messageProperties, null);
+    }
+
+    @Override
+    public Message toMessage(Object object, MessageProperties messageProperties, Type genericType) {
+        if (!(object instanceof EventoVersionado evento)) {
+            return json.toMessage(object, messageProperties, genericType);
+        }
+        messageProperties.setHeader(RabbitMQConfig.HEADER_VERSAO_SCHEMA, evento.versaoSchema());
+        if (evento instanceof EventoJson serializado) {
+            return paraMensagem(serializado, messageProperties);
+        }
+        return formato == Formato.CBOR
+                ? paraCbor(object, messageProperties, genericType)
+                : json.toMessage(object, messageProperties, genericType);
+    }
+
+    @Override
+    public Object fromMessage(Message message) {
+        return fromMessage(message, null);
+    }
+
+    @Override
+    public Object fromMessage(Message message, Object conversionHint) {
+        String contentType = message.getMessageProperties().getContentType();
+        if (contentType == null || !contentType.startsWith(CONTENT_TYPE_CBOR)) {
+            // O conversor JSON só reconhece o tipo pedido como ParameterizedTypeReference
+            return conversionHint instanceof Type tipo
+                    ? json.fromMessage(message, ParameterizedTypeReference.forType(tipo))
+                    : json.fromMessage(message, conversionHint);
+        }
+        try {
+            return cborMapper.readValue(message.getBody(), tipoDestino(message, conversionHint));
+        } catch (IOException e) {
+            throw new MessageConversionException("Erro ao decodificar evento CBOR", e);
+        }
+    }
+
+    /**
+     * Versão do schema informada pelo produtor (1 quando ausente)
+     */
+    public static int versaoSchema(Message message) {
+        Object versao = message.getMessageProperties().getHeader(RabbitMQConfig.HEADER_VERSAO_SCHEMA);
+        return versao instanceof Number numero ? numero.intValue() : 1;
+    }
+
+    private Message paraCbor(Object object, MessageProperties messageProperties, Type genericType) {
+        try {
+            byte[] corpo = cborMapper.writeValueAsBytes(object);
+            mapeadorTipos.fromJavaType(cborMapper.constructType(genericType != null ? genericType : object.getClass()),
+                    messageProperties);
+            messageProperties.setContentType(CONTENT_TYPE_CBOR);
+            messageProperties.setContentLength(corpo.length);
+            return new Message(corpo, messageProperties);
+        } catch (IOException e) {
+            throw new MessageConversionException("Erro ao codificar evento em CBOR", e);
+        }
+    }
+
+    /**
+     * Tipo pedido pelo consumidor; sem ele, o do header __TypeId__ (ou o inferido do listener)
+     */
+    private JavaType tipoDestino(Message message, Object conversionHint) {
+        if (conversionHint instanceof ParameterizedTypeReference<?> referencia) {
+            return cborMapper.constructType(referencia.getType());
+        }
+        if (conversionHint instanceof Type tipo) {
+            return cborMapper.constructType(tipo);
+        }
+        return mapeadorTipos.toJavaType(message.getMessageProperties());
+    }
+
+    /**
+     * O JSON do outbox vai como está; em CBOR só é transcodificado pela árvore
+     */
+    private Message paraMensagem(EventoJson evento, MessageProperties messageProperties) {
+        byte[] corpo;
+        if (formato == Formato.CBOR) {
+            try {
+                corpo = cborMapper.writeValueAsBytes(jsonMapper.readTree(evento.json()));
+            } catch (IOException e) {
+                throw new MessageConversionException("Erro ao converter evento para CBOR", e);
+            }
+            messageProperties.setContentType(CONTENT_TYPE_CBOR);
+        } else {
+            corpo = evento.json().getBytes(StandardCharsets.UTF_8);
+            messageProperties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+            messageProperties.setContentEncoding(StandardCharsets.UTF_8.name());
+        }
+        messageProperties.setContentLength(corpo.length);
+        return new Message(corpo, messageProperties);
+    }
+}
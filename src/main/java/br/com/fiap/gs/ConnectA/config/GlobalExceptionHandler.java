@@ -3,9 +3,11 @@ package br.com.fiap.gs.ConnectA.config;
 import br.com.fiap.gs.ConnectA.dto.ErrorResponseDTO;
 import br.com.fiap.gs.ConnectA.exception.BusinessException;
 import br.com.fiap.gs.ConnectA.exception.ResourceNotFoundException;
+import br.com.fiap.gs.ConnectA.exception.ServicoIndisponivelException;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -88,6 +90,26 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
     }
 
+    /**
+     * Trata sobrecarga (ex.: pool de hash de senha saturado)
+     */
+    @ExceptionHandler(ServicoIndisponivelException.class)
+    public ResponseEntity<ErrorResponseDTO> handleServicoIndisponivel(
+            ServicoIndisponivelException ex,
+            HttpServletRequest request
+    ) {
+        ErrorResponseDTO error = new ErrorResponseDTO(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Service Unavailable",
+                messageSource.getMessage("error.service.unavailable", null, LocaleContextHolder.getLocale()),
+                request.getRequestURI()
+        );
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(error);
+    }
+
     /**
      * Trata erros de autenticação
      */
@@ -1,11 +1,56 @@
 package br.com.fiap.gs.ConnectA.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.classic.methods.HttpUriRequestBase;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.DefaultSchemePortResolver;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.io.ConnectionEndpoint;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.client5.http.routing.RoutingSupport;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.http.ProtocolException;
+import org.apache.hc.core5.http.URIScheme;
+import org.apache.hc.core5.http.io.SocketConfig;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
 @Configuration
+@Slf4j
 public class GroqConfig {
 
     @Value("${groq.api.key}")
@@ -17,9 +62,127 @@ public class GroqConfig {
     @Value("${groq.api.model}")
     private String model;
 
+    /**
+     * Pool de conexões keep-alive para a API do Groq, com limite total e por rota
+     */
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager groqConnectionManager(
+            MeterRegistry meterRegistry,
+            @Value("${groq.http.max-conexoes:50}") int maxConexoes,
+            @Value("${groq.http.max-conexoes-por-rota:20}") int maxPorRota,
+            @Value("${groq.http.connect-timeout:PT2S}") Duration connectTimeout,
+            @Value("${groq.http.read-timeout:PT30S}") Duration readTimeout,
+            @Value("${groq.http.tempo-vida-conexao:PT5M}") Duration tempoVida
+    ) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConexoes)
+                .setMaxConnPerRoute(maxPorRota)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(connectTimeout))
+                        .setSocketTimeout(Timeout.of(readTimeout))
+                        .setTimeToLive(TimeValue.of(tempoVida))
+                        // Descarta conexões que o servidor fechou enquanto estavam paradas no pool
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .setDefaultSocketConfig(SocketConfig.custom()
+                        .setSoKeepAlive(true)
+                        .setTcpNoDelay(true)
+                        .build())
+                .build();
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "groq").bindTo(meterRegistry);
+        return connectionManager;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient groqHttpClient(
+            PoolingHttpClientConnectionManager groqConnectionManager,
+            @Value("${groq.http.espera-conexao:PT1S}") Duration esperaConexao,
+            @Value("${groq.http.read-timeout:PT30S}") Duration readTimeout
+    ) {
+        return HttpClients.custom()
+                .setConnectionManager(groqConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        // Pool esgotado: falha rápido em vez de enfileirar a thread
+                        .setConnectionRequestTimeout(Timeout.of(esperaConexao))
+                        .setResponseTimeout(Timeout.of(readTimeout))
+                        .build())
+                .evictIdleConnections(TimeValue.ofSeconds(30))
+                .evictExpiredConnections()
+                .build();
+    }
+
+    /**
+     * RestTemplate das chamadas ao Groq: pool de conexões e prazo total por requisição
+     */
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(
+            CloseableHttpClient groqHttpClient,
+            @Value("${groq.http.prazo-total:PT60S}") Duration prazoTotal
+    ) {
+        return new RestTemplate(new PrazoTotalRequestFactory(groqHttpClient, prazoTotal));
+    }
+
+    /**
+     * Abre conexões (TCP + TLS) com o Groq na subida, para a primeira análise não pagar o handshake
+     */
+    @Bean
+    public ApplicationListener<ApplicationReadyEvent> groqPreAquecimento(
+            PoolingHttpClientConnectionManager groqConnectionManager,
+            @Value("${groq.http.pre-aquecer:2}") int conexoes,
+            @Value("${groq.http.connect-timeout:PT2S}") Duration connectTimeout
+    ) {
+        return evento -> {
+            if (conexoes <= 0) {
+                return;
+            }
+            CompletableFuture.runAsync(() -> preAquecer(groqConnectionManager, conexoes, connectTimeout));
+        };
+    }
+
+    private void preAquecer(PoolingHttpClientConnectionManager connectionManager, int conexoes, Duration connectTimeout) {
+        preAquecer(connectionManager, apiUrl, conexoes, connectTimeout);
+    }
+
+    /**
+     * Abre até {@code conexoes} conexões com o host da URL e as devolve ao pool
+     *
+     * @return quantas conexões ficaram abertas no pool
+     */
+    static int preAquecer(PoolingHttpClientConnectionManager connectionManager, String url, int conexoes,
+                          Duration connectTimeout) {
+        List<ConnectionEndpoint> abertas = new ArrayList<>(conexoes);
+        int conectadas = 0;
+        HttpRoute rota = null;
+        try {
+            rota = rota(url);
+            for (int i = 0; i < conexoes; i++) {
+                ConnectionEndpoint endpoint = connectionManager
+                        .lease("pre-aquecimento-" + i, rota, Timeout.of(connectTimeout), null)
+                        .get(Timeout.of(connectTimeout));
+                abertas.add(endpoint);
+                if (!endpoint.isConnected()) {
+                    connectionManager.connect(endpoint, TimeValue.of(connectTimeout), HttpClientContext.create());
+                }
+                conectadas++;
+            }
+            log.info("Pool do Groq pré-aquecido com {} conexões para {}", conectadas, rota.getTargetHost());
+        } catch (Exception e) {
+            log.warn("Pré-aquecimento do pool do Groq incompleto ({} de {}) para {}: {}",
+                    conectadas, conexoes, rota != null ? rota.getTargetHost() : url, e.toString());
+        } finally {
+            // Devolve ao pool como reutilizáveis
+            abertas.forEach(endpoint -> connectionManager.release(endpoint, null, TimeValue.NEG_ONE_MILLISECOND));
+        }
+        return conectadas;
+    }
+
+    /**
+     * Rota direta como o cliente a planeja: URL sem porta explícita recebe a porta padrão do esquema,
+     * senão o pool não reaproveitaria a conexão (e o HttpRoute recusa porta negativa)
+     */
+    static HttpRoute rota(String url) throws ProtocolException {
+        HttpHost host = RoutingSupport.normalize(HttpHost.create(URI.create(url)), DefaultSchemePortResolver.INSTANCE);
+        return new HttpRoute(host, null, URIScheme.HTTPS.same(host.getSchemeName()));
     }
 
     public String getApiKey() {
@@ -33,4 +196,154 @@ public class GroqConfig {
     public String getModel() {
         return model;
     }
-}
\ No newline at end of file
+
+    /**
+     * Limita a duração total da requisição (conexão + envio + leitura do corpo, inclusive em streaming).
+     * Connect e read timeouts não cobrem uma resposta que continua chegando devagar; ao estourar o prazo
+     * a requisição é cancelada e a conexão descartada. O cancelamento agendado sai da fila quando a
+     * resposta é fechada (ou a execução falha), para não segurar a requisição até o fim do prazo.
+     */
+    static class PrazoTotalRequestFactory extends HttpComponentsClientHttpRequestFactory {
+
+        private static final ScheduledThreadPoolExecutor CANCELAMENTOS = new ScheduledThreadPoolExecutor(1, tarefa -> {
+            Thread thread = new Thread(tarefa, "groq-prazo-total");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        static {
+            CANCELAMENTOS.setRemoveOnCancelPolicy(true);
+        }
+
+        /**
+         * Cancelamento agendado em postProcessHttpRequest, recolhido por createRequest na mesma chamada
+         */
+        private static final ThreadLocal<ScheduledFuture<?>> AGENDADO = new ThreadLocal<>();
+
+        private final long prazoTotalMillis;
+
+        PrazoTotalRequestFactory(CloseableHttpClient httpClient, Duration prazoTotal) {
+            super(httpClient);
+            this.prazoTotalMillis = prazoTotal.toMillis();
+        }
+
+        @Override
+        public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) throws IOException {
+            ClientHttpRequest request = null;
+            ScheduledFuture<?> cancelamento;
+            try {
+                request = super.createRequest(uri, httpMethod);
+            } finally {
+                cancelamento = AGENDADO.get();
+                AGENDADO.remove();
+                if (request == null && cancelamento != null) {
+                    cancelamento.cancel(false);
+                }
+            }
+            return cancelamento == null ? request : new RequisicaoComPrazo(request, cancelamento);
+        }
+
+        @Override
+        protected void postProcessHttpRequest(ClassicHttpRequest request) {
+            if (request instanceof HttpUriRequestBase cancelavel && prazoTotalMillis > 0) {
+                AGENDADO.set(CANCELAMENTOS.schedule(cancelavel::cancel, prazoTotalMillis, TimeUnit.MILLISECONDS));
+            }
+        }
+
+        /**
+         * Cancelamentos ainda na fila
+         */
+        static int cancelamentosPendentes() {
+            return CANCELAMENTOS.getQueue().size();
+        }
+    }
+
+    /**
+     * Requisição cujo cancelamento por prazo é desfeito ao fechar a resposta
+     */
+    private static final class RequisicaoComPrazo implements ClientHttpRequest, StreamingHttpOutputMessage {
+
+        private final ClientHttpRequest delegate;
+        private final ScheduledFuture<?> cancelamento;
+
+        RequisicaoComPrazo(ClientHttpRequest delegate, ScheduledFuture<?> cancelamento) {
+            this.delegate = delegate;
+            this.cancelamento = cancelamento;
+        }
+
+        @Override
+        public ClientHttpResponse execute() throws IOException {
+            ClientHttpResponse resposta;
+            try {
+                resposta = delegate.execute();
+            } catch (IOException | RuntimeException e) {
+                cancelamento.cancel(false);
+                throw e;
+            }
+            return new RespostaComPrazo(resposta, cancelamento);
+        }
+
+        @Override
+        public void setBody(Body body) {
+            if (delegate instanceof StreamingHttpOutputMessage streaming) {
+                streaming.setBody(body);
+                return;
+            }
+            try {
+                body.writeTo(delegate.getBody());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public OutputStream getBody() throws IOException {
+            return delegate.getBody();
+        }
+
+        @Override
+        public HttpMethod getMethod() {
+            return delegate.getMethod();
+        }
+
+        @Override
+        public URI getURI() {
+            return delegate.getURI();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+    }
+
+    private record RespostaComPrazo(ClientHttpResponse delegate, ScheduledFuture<?> cancelamento)
+            implements ClientHttpResponse {
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            return delegate.getBody();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public void close() {
+            cancelamento.cancel(false);
+            delegate.close();
+        }
+    }
+}
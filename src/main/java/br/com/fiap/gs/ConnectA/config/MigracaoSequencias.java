@@ -0,0 +1,88 @@
+package br.com.fiap.gs.ConnectA.config;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+
+/**
+ * Alinha o INCREMENT BY das sequences existentes ao allocationSize das entidades.
+ * O ddl-auto=update cria sequences novas com o incremento certo, mas não altera as
+ * que já existem, e o Hibernate recusa a diferença na inicialização. Com o optimizer
+ * pooled o próximo valor vira o topo do bloco, então ids já emitidos não se repetem.
+ */
+@Slf4j
+public class MigracaoSequencias {
+
+    /**
+     * Incremento atual e, onde o ALTER não salta sozinho, o próximo valor (por nome do produto JDBC).
+     * No Oracle o nextval seguinte ao ALTER já é último + novo incremento; no H2 seria último + 1,
+     * então a sequence é reiniciada no topo do primeiro bloco livre.
+     */
+    private static final Map<String, String> CONSULTA_INCREMENTO = Map.of(
+            "Oracle", "SELECT INCREMENT_BY, NULL FROM USER_SEQUENCES WHERE SEQUENCE_NAME = ?",
+            "H2", "SELECT INCREMENT, BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = ?"
+    );
+
+    private final DataSource dataSource;
+
+    public MigracaoSequencias(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Executa ALTER SEQUENCE nas sequences existentes com incremento diferente do esperado
+     *
+     * @return quantas sequences foram alteradas
+     */
+    public int migrar(Map<String, Integer> incrementos) throws SQLException {
+        try (Connection conexao = dataSource.getConnection()) {
+            String produto = conexao.getMetaData().getDatabaseProductName();
+            String consulta = CONSULTA_INCREMENTO.entrySet().stream()
+                    .filter(entrada -> produto.startsWith(entrada.getKey()))
+                    .map(Map.Entry::getValue)
+                    .findFirst()
+                    .orElse(null);
+            if (consulta == null) {
+                log.debug("Migração de sequences não suportada em {}", produto);
+                return 0;
+            }
+
+            int alteradas = 0;
+            for (Map.Entry<String, Integer> entrada : incrementos.entrySet()) {
+                long[] atual = estadoAtual(conexao, consulta, entrada.getKey());
+                int incremento = entrada.getValue();
+                if (atual == null || atual[0] == incremento) {
+                    continue;
+                }
+                // Nomes vêm das constantes das entidades, nunca de entrada externa
+                String alter = "ALTER SEQUENCE " + entrada.getKey()
+                        + (atual[1] > 0 ? " RESTART WITH " + (atual[1] + incremento - 1) : "")
+                        + " INCREMENT BY " + incremento;
+                try (Statement statement = conexao.createStatement()) {
+                    statement.execute(alter);
+                }
+                log.info("Sequence {}: INCREMENT BY {} -> {}", entrada.getKey(), atual[0], incremento);
+                alteradas++;
+            }
+            return alteradas;
+        }
+    }
+
+    /**
+     * Incremento e próximo valor (0 quando o banco não precisa dele), ou null se a sequence não existe
+     */
+    private static long[] estadoAtual(Connection conexao, String consulta, String sequence) throws SQLException {
+        try (PreparedStatement statement = conexao.prepareStatement(consulta)) {
+            statement.setString(1, sequence);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() ? new long[]{rs.getLong(1), rs.getLong(2)} : null;
+            }
+        }
+    }
+}
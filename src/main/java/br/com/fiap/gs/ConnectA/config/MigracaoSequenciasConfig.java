@@ -0,0 +1,29 @@
+package br.com.fiap.gs.ConnectA.config;
+
+import br.com.fiap.gs.ConnectA.model.Usuario;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * Roda a migração das sequences antes do EntityManagerFactory
+ */
+@Configuration
+public class MigracaoSequenciasConfig {
+
+    @Bean
+    public MigracaoSequencias migracaoSequencias(DataSource dataSource) throws SQLException {
+        MigracaoSequencias migracao = new MigracaoSequencias(dataSource);
+        migracao.migrar(Map.of(Usuario.SEQUENCE, Usuario.ALOCACAO_IDS));
+        return migracao;
+    }
+
+    @Bean
+    static EntityManagerFactoryDependsOnPostProcessor entityManagerFactoryAposMigracaoSequencias() {
+        return new EntityManagerFactoryDependsOnPostProcessor("migracaoSequencias");
+    }
+}
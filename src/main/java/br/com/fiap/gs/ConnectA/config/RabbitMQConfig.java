@@ -2,10 +2,11 @@ package br.com.fiap.gs.ConnectA.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.amqp.core.*;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
-import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -15,6 +16,9 @@ public class RabbitMQConfig {
     public static final String EXCHANGE = "connecta.exchange";
     public static final String QUEUE_NOVO_USUARIO = "connecta.usuario.novo";
     public static final String ROUTING_KEY_NOVO_USUARIO = "usuario.novo";
+    public static final String ROUTING_KEY_INVALIDACAO_CACHE = "cache.usuario.invalidacao";
+    public static final String ROUTING_KEY_REVOGACAO_TOKEN = "token.revogacao";
+    public static final String HEADER_VERSAO_SCHEMA = "x-schema-version";
 
     /**
      * Exchange do tipo Topic para roteamento flexível
@@ -46,23 +50,132 @@ public class RabbitMQConfig {
     }
 
     /**
-     * Conversor de mensagens para JSON
+     * Fila exclusiva e auto-delete de cada réplica para invalidação de cache
      */
     @Bean
-    public MessageConverter jsonMessageConverter(ObjectMapper objectMapper) {
-        return new Jackson2JsonMessageConverter(objectMapper);
+    public Queue queueInvalidacaoCache() {
+        return new AnonymousQueue();
     }
 
     /**
-     * Template do RabbitMQ configurado com conversor JSON
+     * Binding da fila de invalidação de cache desta réplica
+     */
+    @Bean
+    public Binding bindingInvalidacaoCache(Queue queueInvalidacaoCache, TopicExchange exchange) {
+        return BindingBuilder
+                .bind(queueInvalidacaoCache)
+                .to(exchange)
+                .with(ROUTING_KEY_INVALIDACAO_CACHE);
+    }
+
+    /**
+     * Fila exclusiva e auto-delete de cada réplica para revogação de tokens (logout)
+     */
+    @Bean
+    public Queue queueRevogacaoToken() {
+        return new AnonymousQueue();
+    }
+
+    /**
+     * Binding da fila de revogação de tokens desta réplica
+     */
+    @Bean
+    public Binding bindingRevogacaoToken(Queue queueRevogacaoToken, TopicExchange exchange) {
+        return BindingBuilder
+                .bind(queueRevogacaoToken)
+                .to(exchange)
+                .with(ROUTING_KEY_REVOGACAO_TOKEN);
+    }
+
+    /**
+     * Fila exclusiva de cada réplica com os eventos de novo usuário, para aquecer os caches locais.
+     * A fila durável connecta.usuario.novo continua só para os outros microserviços.
+     */
+    @Bean
+    public Queue queueAquecimentoCache() {
+        return new AnonymousQueue();
+    }
+
+    /**
+     * Binding da fila de aquecimento desta réplica
+     */
+    @Bean
+    public Binding bindingAquecimentoCache(Queue queueAquecimentoCache, TopicExchange exchange) {
+        return BindingBuilder
+                .bind(queueAquecimentoCache)
+                .to(exchange)
+                .with(ROUTING_KEY_NOVO_USUARIO);
+    }
+
+    /**
+     * Container em lotes do aquecimento: ack do lote inteiro depois do processamento
+     * e sem reenfileirar em caso de erro (o cache se preenche no primeiro acesso)
+     */
+    @Bean
+    public SimpleRabbitListenerContainerFactory aquecimentoListenerContainerFactory(
+            ConnectionFactory connectionFactory,
+            MessageConverter messageConverter,
+            @Value("${connecta.cache.aquecimento.concorrencia:1}") int concorrencia,
+            @Value("${connecta.cache.aquecimento.prefetch:250}") int prefetch,
+            @Value("${connecta.cache.aquecimento.batch-size:100}") int batchSize,
+            @Value("${connecta.cache.aquecimento.receive-timeout:200}") long receiveTimeout
+    ) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        factory.setConnectionFactory(connectionFactory);
+        factory.setMessageConverter(messageConverter);
+        factory.setConcurrentConsumers(concorrencia);
+        factory.setPrefetchCount(Math.max(prefetch, batchSize));
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batchSize);
+        factory.setReceiveTimeout(receiveTimeout);
+        factory.setAcknowledgeMode(AcknowledgeMode.AUTO);
+        factory.setDefaultRequeueRejected(false);
+        return factory;
+    }
+
+    /**
+     * Container que entrega as invalidações de cache em lotes
+     */
+    @Bean
+    public SimpleRabbitListenerContainerFactory invalidacaoListenerContainerFactory(
+            ConnectionFactory connectionFactory,
+            @Value("${connecta.cache.invalidacao.batch-size:100}") int batchSize,
+            @Value("${connecta.cache.invalidacao.receive-timeout:200}") long receiveTimeout
+    ) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        factory.setConnectionFactory(connectionFactory);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batchSize);
+        factory.setPrefetchCount(batchSize);
+        factory.setReceiveTimeout(receiveTimeout);
+        return factory;
+    }
+
+    /**
+     * Conversor de mensagens: eventos versionados em JSON ou CBOR, demais em JSON
+     */
+    @Bean
+    public ConversorEventos messageConverter(
+            ObjectMapper objectMapper,
+            @Value("${connecta.mensageria.formato:JSON}") ConversorEventos.Formato formato
+    ) {
+        return new ConversorEventos(objectMapper, formato);
+    }
+
+    /**
+     * Template do RabbitMQ configurado com o conversor de eventos
      */
     @Bean
     public RabbitTemplate rabbitTemplate(
             ConnectionFactory connectionFactory,
-            MessageConverter jsonMessageConverter
+            MessageConverter messageConverter
     ) {
         RabbitTemplate rabbitTemplate = new RabbitTemplate(connectionFactory);
-        rabbitTemplate.setMessageConverter(jsonMessageConverter);
+        rabbitTemplate.setMessageConverter(messageConverter);
+        // Mensagem sem fila de destino volta no CorrelationData em vez de sumir
+        rabbitTemplate.setMandatory(true);
         return rabbitTemplate;
     }
 
@@ -1,9 +1,17 @@
 package br.com.fiap.gs.ConnectA.config;
 
+import br.com.fiap.gs.ConnectA.config.security.BoundedPasswordEncoder;
+import br.com.fiap.gs.ConnectA.config.security.CachingDaoAuthenticationProvider;
+import br.com.fiap.gs.ConnectA.config.security.CredencialVerificadaCache;
 import br.com.fiap.gs.ConnectA.config.security.JwtAuthenticationFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
@@ -18,6 +26,8 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.time.Duration;
+
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity
@@ -34,14 +44,45 @@ public class SecurityConfig {
         this.userDetailsService = userDetailsService;
     }
 
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    /**
+     * BCrypt isolado num pool dedicado (ver BoundedPasswordEncoder)
+     */
+    @Bean(destroyMethod = "encerrar")
+    @Primary
+    public BoundedPasswordEncoder passwordEncoder(
+            MeterRegistry meterRegistry,
+            @Value("${connecta.senha.hash.threads:0}") int threads,
+            @Value("${connecta.senha.hash.fila:64}") int capacidadeFila,
+            @Value("${connecta.senha.hash.espera-maxima:PT0.5S}") Duration esperaMaxima
+    ) {
+        int tamanhoPool = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(
+                "login", new BCryptPasswordEncoder(), tamanhoPool, capacidadeFila, esperaMaxima, meterRegistry);
+    }
+
+    /**
+     * Pool próprio da importação em lote: um lote inteiro enfileira seus hashes sem
+     * tomar as vagas de login e cadastro
+     */
+    @Bean(destroyMethod = "encerrar")
+    public BoundedPasswordEncoder importacaoPasswordEncoder(
+            MeterRegistry meterRegistry,
+            @Value("${connecta.importacao.hash.threads:0}") int threads,
+            @Value("${connecta.importacao.lote:500}") int tamanhoLote,
+            @Value("${connecta.importacao.hash.espera-maxima:PT30S}") Duration esperaMaxima
+    ) {
+        int tamanhoPool = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(
+                "importacao", new BCryptPasswordEncoder(), tamanhoPool, Math.max(1, tamanhoLote),
+                esperaMaxima, meterRegistry);
     }
 
     @Bean
-    public AuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
-        DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
+    public AuthenticationProvider authenticationProvider(
+            PasswordEncoder passwordEncoder,
+            CredencialVerificadaCache credencialVerificadaCache
+    ) {
+        DaoAuthenticationProvider authProvider = new CachingDaoAuthenticationProvider(credencialVerificadaCache);
         authProvider.setUserDetailsService(userDetailsService);
         authProvider.setPasswordEncoder(passwordEncoder);
         return authProvider;
@@ -61,6 +102,11 @@ public class SecurityConfig {
         http
                 .csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(auth -> auth
+                        // Conclusão de respostas assíncronas (SSE); a requisição original já foi autorizada
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                        // Antes do permitAll de /api/v1/usuarios/**: exportam e criam usuários em massa
+                        .requestMatchers(HttpMethod.GET, "/api/v1/usuarios/exportar").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.POST, "/api/v1/usuarios/importar").hasRole("ADMIN")
                         .requestMatchers(
                                 "/api/v1/auth/**",
                                 "/api-docs/**",
@@ -0,0 +1,167 @@
+package br.com.fiap.gs.ConnectA.config.security;
+
+import br.com.fiap.gs.ConnectA.exception.ServicoIndisponivelException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Executa encode/matches do BCrypt num pool dedicado do tamanho do número de
+ * núcleos, com fila limitada. Picos de login/cadastro ficam restritos a esse
+ * pool em vez de ocupar todas as CPUs pelas threads do Tomcat; quem não
+ * consegue vaga na fila dentro do prazo recebe 503. Cada instância tem o seu
+ * pool (login/cadastro e importação em lote não disputam as mesmas vagas);
+ * as métricas levam a tag "pool" com o nome da instância.
+ */
+@Slf4j
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final String nome;
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final Semaphore vagas;
+    private final long esperaMaximaNanos;
+
+    private final Timer esperaNaFila;
+    private final Timer tempoEncode;
+    private final Timer tempoMatches;
+    private final Counter rejeitados;
+
+    public BoundedPasswordEncoder(
+            String nome,
+            PasswordEncoder delegate,
+            int threads,
+            int capacidadeFila,
+            Duration esperaMaxima,
+            MeterRegistry meterRegistry
+    ) {
+        this.nome = nome;
+        this.delegate = delegate;
+        this.esperaMaximaNanos = esperaMaxima.toNanos();
+        // Em execução + na fila; o semáforo garante que a fila do executor nunca enche
+        this.vagas = new Semaphore(threads + capacidadeFila);
+
+        AtomicInteger contador = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(capacidadeFila),
+                tarefa -> {
+                    Thread thread = new Thread(tarefa, "senha-hash-" + nome + "-" + contador.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+        );
+
+        Gauge.builder("senha.hash.fila", executor, pool -> pool.getQueue().size())
+                .description("Operações de hash aguardando uma thread do pool")
+                .tag("pool", nome)
+                .register(meterRegistry);
+        this.esperaNaFila = Timer.builder("senha.hash.espera")
+                .description("Tempo entre a submissão e o início do hash")
+                .publishPercentiles(0.5, 0.99)
+                .tag("pool", nome)
+                .register(meterRegistry);
+        this.tempoEncode = Timer.builder("senha.hash.execucao")
+                .description("Tempo de CPU gasto no hash")
+                .tag("operacao", "encode")
+                .tag("pool", nome)
+                .register(meterRegistry);
+        this.tempoMatches = Timer.builder("senha.hash.execucao")
+                .description("Tempo de CPU gasto no hash")
+                .tag("operacao", "matches")
+                .tag("pool", nome)
+                .register(meterRegistry);
+        this.rejeitados = Counter.builder("senha.hash.rejeitados")
+                .description("Operações recusadas por falta de vaga na fila")
+                .tag("pool", nome)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return aguardar(submeter(() -> delegate.encode(rawPassword), tempoEncode));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return aguardar(submeter(() -> delegate.matches(rawPassword, encodedPassword), tempoMatches));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * Versão assíncrona do encode, para quem gera vários hashes de uma vez
+     */
+    public CompletableFuture<String> encodeAsync(CharSequence rawPassword) {
+        return submeter(() -> delegate.encode(rawPassword), tempoEncode);
+    }
+
+    public void encerrar() {
+        executor.shutdown();
+    }
+
+    private <T> CompletableFuture<T> submeter(Supplier<T> operacao, Timer tempoExecucao) {
+        try {
+            if (!vagas.tryAcquire(esperaMaximaNanos, TimeUnit.NANOSECONDS)) {
+                rejeitados.increment();
+                log.warn("Pool de hash de senha {} saturado - {} na fila", nome, executor.getQueue().size());
+                throw new ServicoIndisponivelException("Pool de hash de senha saturado");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServicoIndisponivelException("Interrompido aguardando o pool de hash de senha");
+        }
+
+        long submetidoEm = System.nanoTime();
+        CompletableFuture<T> resultado = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                esperaNaFila.record(System.nanoTime() - submetidoEm, TimeUnit.NANOSECONDS);
+                try {
+                    resultado.complete(tempoExecucao.record(operacao));
+                } catch (RuntimeException e) {
+                    resultado.completeExceptionally(e);
+                } finally {
+                    vagas.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Só acontece durante o shutdown
+            vagas.release();
+            throw new ServicoIndisponivelException("Pool de hash de senha encerrado");
+        }
+        return resultado;
+    }
+
+    private static <T> T aguardar(CompletableFuture<T> resultado) {
+        try {
+            return resultado.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServicoIndisponivelException("Interrompido aguardando o hash de senha");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new CompletionException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package br.com.fiap.gs.ConnectA.config.security;
+
+import br.com.fiap.gs.ConnectA.exception.ServicoIndisponivelException;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UserDetails;
+
+/**
+ * DaoAuthenticationProvider que pula o BCrypt quando a mesma senha já foi
+ * verificada recentemente contra o hash atual (ver CredencialVerificadaCache)
+ */
+public class CachingDaoAuthenticationProvider extends DaoAuthenticationProvider {
+
+    private final CredencialVerificadaCache credencialVerificadaCache;
+
+    public CachingDaoAuthenticationProvider(CredencialVerificadaCache credencialVerificadaCache) {
+        this.credencialVerificadaCache = credencialVerificadaCache;
+    }
+
+    /**
+     * Usuário inexistente também passa pelo encoder (hash falso contra timing attack) e o
+     * DaoAuthenticationProvider embrulha qualquer falha em InternalAuthenticationServiceException.
+     * Pool de hash saturado sai como ServicoIndisponivelException (503), igual ao usuário existente.
+     */
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        try {
+            return super.authenticate(authentication);
+        } catch (InternalAuthenticationServiceException e) {
+            if (e.getCause() instanceof ServicoIndisponivelException indisponivel) {
+                throw indisponivel;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    protected void additionalAuthenticationChecks(
+            UserDetails userDetails,
+            UsernamePasswordAuthenticationToken authentication
+    ) throws AuthenticationException {
+        String email = userDetails.getUsername();
+        String senha = authentication.getCredentials() == null ? null : authentication.getCredentials().toString();
+
+        if (credencialVerificadaCache.foiVerificada(email, senha, userDetails.getPassword())) {
+            return;
+        }
+        super.additionalAuthenticationChecks(userDetails, authentication);
+        credencialVerificadaCache.registrar(email, senha, userDetails.getPassword());
+    }
+}
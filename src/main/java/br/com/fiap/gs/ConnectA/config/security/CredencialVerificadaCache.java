@@ -0,0 +1,93 @@
+package br.com.fiap.gs.ConnectA.config.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Cache em memória (opt-in) de logins já verificados pelo BCrypt.
+ * A chave é um HMAC de email + senha com segredo aleatório gerado na subida,
+ * então nada reversível fica guardado. O valor é o hash da senha no momento da
+ * verificação: se a senha mudar (inclusive em outra réplica) a entrada deixa de valer.
+ */
+@Component
+public class CredencialVerificadaCache {
+
+    private static final String ALGORITMO = "HmacSHA256";
+
+    private final boolean habilitado;
+    private final SecretKeySpec segredo;
+    private final Cache<String, Verificacao> verificadas;
+
+    public CredencialVerificadaCache(
+            @Value("${connecta.login.cache-credenciais.habilitado:false}") boolean habilitado,
+            @Value("${connecta.login.cache-credenciais.ttl:PT5M}") Duration ttl,
+            @Value("${connecta.login.cache-credenciais.max-size:10000}") long maxSize
+    ) {
+        this.habilitado = habilitado;
+        byte[] chave = new byte[32];
+        new SecureRandom().nextBytes(chave);
+        this.segredo = new SecretKeySpec(chave, ALGORITMO);
+        this.verificadas = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    /**
+     * Indica se esta senha já foi verificada contra o hash atual do usuário
+     */
+    public boolean foiVerificada(String email, String senha, String hashAtual) {
+        if (!habilitado || senha == null || hashAtual == null) {
+            return false;
+        }
+        Verificacao verificacao = verificadas.getIfPresent(chave(email, senha));
+        return verificacao != null && MessageDigest.isEqual(
+                verificacao.hash().getBytes(StandardCharsets.UTF_8),
+                hashAtual.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public void registrar(String email, String senha, String hash) {
+        if (habilitado && senha != null && hash != null) {
+            verificadas.put(chave(email, senha), new Verificacao(email, hash));
+        }
+    }
+
+    /**
+     * Descarta as verificações do usuário (troca de senha)
+     */
+    public void invalidar(String email) {
+        if (habilitado) {
+            verificadas.asMap().values().removeIf(verificacao -> verificacao.email().equals(email));
+        }
+    }
+
+    private String chave(String email, String senha) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITMO);
+            mac.init(segredo);
+            mac.update(email.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            return Base64.getEncoder().encodeToString(mac.doFinal(senha.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 indisponível", e);
+        }
+    }
+
+    private record Verificacao(String email, String hash) {
+    }
+}
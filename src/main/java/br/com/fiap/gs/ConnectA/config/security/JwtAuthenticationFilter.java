@@ -1,10 +1,13 @@
 package br.com.fiap.gs.ConnectA.config.security;
 
+import br.com.fiap.gs.ConnectA.model.Usuario;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -23,13 +26,22 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final TokenVersionService tokenVersionService;
+    private final TokenRevocationService tokenRevocationService;
+    private final boolean statelessPrincipal;
 
     public JwtAuthenticationFilter(
             JwtService jwtService,
-            @Lazy UserDetailsService userDetailsService
+            @Lazy UserDetailsService userDetailsService,
+            TokenVersionService tokenVersionService,
+            TokenRevocationService tokenRevocationService,
+            @Value("${jwt.stateless-principal:false}") boolean statelessPrincipal
     ) {
         this.jwtService = jwtService;
         this.userDetailsService = userDetailsService;
+        this.tokenVersionService = tokenVersionService;
+        this.tokenRevocationService = tokenRevocationService;
+        this.statelessPrincipal = statelessPrincipal;
     }
 
     @Override
@@ -48,19 +60,22 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         try {
             final String jwt = authHeader.substring(7);
-            final String userEmail = jwtService.extractUsername(jwt);
+            final Claims claims = jwtService.extractAllClaims(jwt);
+            final String userEmail = claims.getSubject();
 
-            if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+            final boolean revogado = tokenRevocationService.isRevoked(claims.getId());
 
-                if (jwtService.isTokenValid(jwt, userDetails)) {
-                    UsernamePasswordAuthenticationToken authToken =
-                            new UsernamePasswordAuthenticationToken(
-                                    userDetails,
-                                    null,
-                                    userDetails.getAuthorities()
-                            );
+            if (revogado) {
+                log.debug("Token revogado recebido: {}", claims.getId());
+            }
+
+            if (!revogado && userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+                UsernamePasswordAuthenticationToken authToken = statelessPrincipal
+                        && claims.get(JwtService.CLAIM_USUARIO_ID) != null
+                        ? autenticarPorClaims(claims)
+                        : autenticarPorUsuario(claims, userEmail);
 
+                if (authToken != null) {
                     authToken.setDetails(
                             new WebAuthenticationDetailsSource().buildDetails(request)
                     );
@@ -74,4 +89,49 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    /**
+     * Modo padrão: carrega o usuário do banco a cada requisição
+     */
+    private UsernamePasswordAuthenticationToken autenticarPorUsuario(Claims claims, String userEmail) {
+        UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+
+        if (!jwtService.isTokenValid(claims, userDetails)) {
+            return null;
+        }
+        if (userDetails instanceof Usuario usuario
+                && !jwtService.isVersionValid(claims, usuario.getTokenVersao() == null ? 0 : usuario.getTokenVersao())) {
+            return null;
+        }
+
+        return new UsernamePasswordAuthenticationToken(
+                userDetails,
+                null,
+                userDetails.getAuthorities()
+        );
+    }
+
+    /**
+     * Modo stateless: monta o principal só com as claims, validando a versão em memória
+     */
+    private UsernamePasswordAuthenticationToken autenticarPorClaims(Claims claims) {
+        Long usuarioId = claims.get(JwtService.CLAIM_USUARIO_ID, Long.class);
+
+        if (!jwtService.isVersionValid(claims, tokenVersionService.versaoAtual(usuarioId))) {
+            log.debug("Token com versão desatualizada para o usuário {}", usuarioId);
+            return null;
+        }
+
+        UsuarioPrincipal principal = new UsuarioPrincipal(
+                usuarioId,
+                claims.getSubject(),
+                Usuario.TipoPerfil.valueOf(claims.get(JwtService.CLAIM_TIPO_PERFIL, String.class))
+        );
+
+        return new UsernamePasswordAuthenticationToken(
+                principal,
+                null,
+                principal.getAuthorities()
+        );
+    }
+}
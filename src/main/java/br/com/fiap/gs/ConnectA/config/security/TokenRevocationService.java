@@ -0,0 +1,309 @@
+package br.com.fiap.gs.ConnectA.config.security;
+
+import br.com.fiap.gs.ConnectA.config.RabbitMQConfig;
+import br.com.fiap.gs.ConnectA.dto.evento.RevogacaoTokenEvento;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lista de tokens revogados (denylist) por "jti".
+ * Um Bloom filter responde a quase todas as consultas; o conjunto exato
+ * só é consultado quando o filtro indica possível revogação.
+ * Cada revogação é propagada às demais réplicas pelo exchange do RabbitMQ.
+ */
+@Service
+@Slf4j
+public class TokenRevocationService {
+
+    private final RabbitTemplate rabbitTemplate;
+    private final ObjectMapper objectMapper;
+    private final Path snapshotFile;
+    private final int expectedInsertions;
+    private final double falsePositiveRate;
+
+    /**
+     * jti -> instante de expiração do token (epoch millis)
+     */
+    private final Map<String, Long> revogados = new ConcurrentHashMap<>();
+
+    private volatile BloomFilter bloomFilter;
+
+    /**
+     * Inserções e reconstruções do filtro não se intercalam (a consulta continua sem lock)
+     */
+    private final Object lockFiltro = new Object();
+
+    /**
+     * Identifica esta réplica para ignorar os próprios eventos
+     */
+    private final String origem = UUID.randomUUID().toString();
+
+    public TokenRevocationService(
+            RabbitTemplate rabbitTemplate,
+            ObjectMapper objectMapper,
+            @Value("${jwt.revocation.snapshot-file:./data/revoked-tokens.snapshot}") String snapshotFile,
+            @Value("${jwt.revocation.expected-insertions:100000}") int expectedInsertions,
+            @Value("${jwt.revocation.false-positive-rate:0.001}") double falsePositiveRate
+    ) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.objectMapper = objectMapper;
+        this.snapshotFile = Path.of(snapshotFile);
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.bloomFilter = new BloomFilter(expectedInsertions, falsePositiveRate);
+    }
+
+    /**
+     * Restaura as revogações ainda válidas gravadas no snapshot
+     */
+    @PostConstruct
+    void carregarSnapshot() {
+        if (!Files.exists(snapshotFile)) {
+            return;
+        }
+        long agora = System.currentTimeMillis();
+        try {
+            List<String> linhas = Files.readAllLines(snapshotFile, StandardCharsets.UTF_8);
+            for (String linha : linhas) {
+                int separador = linha.lastIndexOf(';');
+                if (separador <= 0) {
+                    continue;
+                }
+                long expiracao = Long.parseLong(linha.substring(separador + 1).trim());
+                if (expiracao > agora) {
+                    revogados.put(linha.substring(0, separador), expiracao);
+                }
+            }
+            reconstruirFiltro();
+            log.info("{} tokens revogados restaurados de {}", revogados.size(), snapshotFile);
+        } catch (IOException | NumberFormatException e) {
+            log.error("Erro ao carregar snapshot de tokens revogados: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Revoga o token até o seu "exp" nesta réplica e nas demais
+     *
+     * @return false quando o token não tem jti ou exp (emitido antes do logout existir) e não pode ser revogado
+     */
+    public boolean revogar(String jti, Date expiracao) {
+        if (jti == null || expiracao == null) {
+            return false;
+        }
+        if (expiracao.getTime() <= System.currentTimeMillis()) {
+            return true;
+        }
+        if (registrar(jti, expiracao.getTime())) {
+            log.info("Token {} revogado até {}", jti, expiracao);
+            publicar(new RevogacaoTokenEvento(origem, jti, expiracao.getTime()));
+        }
+        return true;
+    }
+
+    /**
+     * Recebe em lote as revogações feitas nas outras réplicas
+     */
+    @RabbitListener(
+            queues = "#{queueRevogacaoToken.name}",
+            containerFactory = "invalidacaoListenerContainerFactory"
+    )
+    public void receber(List<Message> mensagens) {
+        long agora = System.currentTimeMillis();
+        for (Message mensagem : mensagens) {
+            try {
+                RevogacaoTokenEvento evento = objectMapper.readValue(mensagem.getBody(), RevogacaoTokenEvento.class);
+                if (origem.equals(evento.getOrigem()) || evento.getJti() == null
+                        || evento.getExpiracao() == null || evento.getExpiracao() <= agora) {
+                    continue;
+                }
+                registrar(evento.getJti(), evento.getExpiracao());
+            } catch (Exception e) {
+                log.error("Evento de revogação de token inválido descartado: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Consulta sem lock e sem alocação; o conjunto exato só é lido em caso de acerto no filtro
+     */
+    public boolean isRevoked(String jti) {
+        if (jti == null || !bloomFilter.mightContain(jti)) {
+            return false;
+        }
+        return revogados.containsKey(jti);
+    }
+
+    /**
+     * Remove revogações de tokens já expirados e compacta o snapshot
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.cleanup-interval:PT5M}")
+    public void limparExpirados() {
+        long agora = System.currentTimeMillis();
+        boolean removeu;
+        synchronized (lockFiltro) {
+            removeu = revogados.values().removeIf(expiracao -> expiracao <= agora);
+            if (removeu) {
+                reconstruirFiltro();
+            }
+        }
+        if (removeu) {
+            gravarSnapshot();
+        }
+    }
+
+    @PreDestroy
+    void encerrar() {
+        gravarSnapshot();
+    }
+
+    /**
+     * Insere no conjunto e no filtro; false quando o token já estava revogado
+     */
+    private boolean registrar(String jti, long expiracao) {
+        synchronized (lockFiltro) {
+            if (revogados.putIfAbsent(jti, expiracao) != null) {
+                return false;
+            }
+            bloomFilter.put(jti);
+        }
+        anexarAoSnapshot(jti, expiracao);
+        return true;
+    }
+
+    void reconstruirFiltro() {
+        synchronized (lockFiltro) {
+            BloomFilter novo = new BloomFilter(Math.max(expectedInsertions, revogados.size() * 2), falsePositiveRate);
+            revogados.keySet().forEach(novo::put);
+            this.bloomFilter = novo;
+        }
+    }
+
+    private void publicar(RevogacaoTokenEvento evento) {
+        try {
+            rabbitTemplate.convertAndSend(RabbitMQConfig.EXCHANGE, RabbitMQConfig.ROUTING_KEY_REVOGACAO_TOKEN, evento);
+        } catch (Exception e) {
+            // Não propaga: o logout vale nesta réplica; nas demais o token segue válido até o "exp"
+            log.error("Erro ao publicar revogação de token no RabbitMQ", e);
+        }
+    }
+
+    private synchronized void anexarAoSnapshot(String jti, long expiracao) {
+        try {
+            criarDiretorio();
+            try (BufferedWriter writer = Files.newBufferedWriter(snapshotFile, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                writer.write(jti + ";" + expiracao);
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            log.error("Erro ao gravar revogação no snapshot: {}", e.getMessage());
+        }
+    }
+
+    private synchronized void gravarSnapshot() {
+        try {
+            criarDiretorio();
+            Path temporario = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(temporario, StandardCharsets.UTF_8)) {
+                for (Map.Entry<String, Long> entry : revogados.entrySet()) {
+                    writer.write(entry.getKey() + ";" + entry.getValue());
+                    writer.newLine();
+                }
+            }
+            Files.move(temporario, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.error("Erro ao compactar snapshot de tokens revogados: {}", e.getMessage());
+        }
+    }
+
+    private void criarDiretorio() throws IOException {
+        Path diretorio = snapshotFile.toAbsolutePath().getParent();
+        if (diretorio != null) {
+            Files.createDirectories(diretorio);
+        }
+    }
+
+    /**
+     * Bloom filter com bits em AtomicLongArray: inserção e consulta sem locks
+     */
+    static final class BloomFilter {
+
+        private final AtomicLongArray bits;
+        private final long numBits;
+        private final int numHashes;
+
+        BloomFilter(int expectedInsertions, double falsePositiveRate) {
+            long m = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            int palavras = (int) Math.max(1, (m + 63) / 64);
+            this.bits = new AtomicLongArray(palavras);
+            this.numBits = palavras * 64L;
+            this.numHashes = Math.max(1, (int) Math.round((double) numBits / expectedInsertions * Math.log(2)));
+        }
+
+        void put(String valor) {
+            long h1 = hash(valor, 0x9E3779B97F4A7C15L);
+            long h2 = hash(valor, 0xC2B2AE3D27D4EB4FL) | 1L;
+            for (int i = 0; i < numHashes; i++) {
+                long bit = Long.remainderUnsigned(h1 + i * h2, numBits);
+                int palavra = (int) (bit >>> 6);
+                long mascara = 1L << bit;
+                long atual;
+                do {
+                    atual = bits.get(palavra);
+                } while ((atual & mascara) == 0 && !bits.compareAndSet(palavra, atual, atual | mascara));
+            }
+        }
+
+        boolean mightContain(String valor) {
+            long h1 = hash(valor, 0x9E3779B97F4A7C15L);
+            long h2 = hash(valor, 0xC2B2AE3D27D4EB4FL) | 1L;
+            for (int i = 0; i < numHashes; i++) {
+                long bit = Long.remainderUnsigned(h1 + i * h2, numBits);
+                if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Hash de 64 bits percorrendo os chars diretamente (sem alocar arrays)
+         */
+        private static long hash(String valor, long seed) {
+            long h = seed ^ valor.length();
+            for (int i = 0; i < valor.length(); i++) {
+                h ^= valor.charAt(i);
+                h *= 0x100000001B3L;
+                h ^= h >>> 29;
+            }
+            h ^= h >>> 33;
+            h *= 0xFF51AFD7ED558CCDL;
+            h ^= h >>> 33;
+            h *= 0xC4CEB9FE1A85EC53L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package br.com.fiap.gs.ConnectA.config.security;
+
+import br.com.fiap.gs.ConnectA.model.Usuario;
+import br.com.fiap.gs.ConnectA.repository.UsuarioRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * Mantém em memória a versão dos tokens de cada usuário.
+ * Tokens emitidos com uma versão anterior deixam de ser aceitos.
+ */
+@Service
+@Slf4j
+public class TokenVersionService {
+
+    /**
+     * Versão devolvida para usuários inexistentes ou inativos
+     */
+    public static final int VERSAO_INVALIDA = -1;
+
+    private final UsuarioRepository usuarioRepository;
+    private final LoadingCache<Long, Integer> versoes;
+
+    public TokenVersionService(
+            UsuarioRepository usuarioRepository,
+            @Value("${jwt.token-version.max-size:50000}") long maxSize,
+            @Value("${jwt.token-version.ttl:5m}") Duration ttl
+    ) {
+        this.usuarioRepository = usuarioRepository;
+        this.versoes = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build(this::carregarVersao);
+    }
+
+    /**
+     * Versão vigente dos tokens do usuário (consulta o banco apenas na primeira vez)
+     */
+    public int versaoAtual(Long usuarioId) {
+        return versoes.get(usuarioId);
+    }
+
+    /**
+     * Incrementa a versão do usuário, invalidando todos os tokens já emitidos.
+     * Dentro de uma transação a versão em memória só muda após o commit: um rollback
+     * não deixa tokens válidos recusados por uma versão que nunca foi gravada.
+     */
+    public void incrementar(Usuario usuario) {
+        int nova = (usuario.getTokenVersao() == null ? 0 : usuario.getTokenVersao()) + 1;
+        usuario.setTokenVersao(nova);
+        Long usuarioId = usuario.getId();
+        int vigente = usuario.isEnabled() ? nova : VERSAO_INVALIDA;
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    versoes.put(usuarioId, vigente);
+                }
+            });
+        } else {
+            versoes.put(usuarioId, vigente);
+        }
+        log.debug("Versão de token do usuário {} incrementada para {}", usuarioId, nova);
+    }
+
+    /**
+     * Descarta a versão conhecida, forçando nova leitura no próximo acesso
+     */
+    public void invalidar(Long usuarioId) {
+        versoes.invalidate(usuarioId);
+    }
+
+    private Integer carregarVersao(Long usuarioId) {
+        return usuarioRepository.buscarTokenVersao(usuarioId).orElse(VERSAO_INVALIDA);
+    }
+}
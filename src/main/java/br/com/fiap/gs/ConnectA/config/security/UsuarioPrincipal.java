@@ -0,0 +1,22 @@
+package br.com.fiap.gs.ConnectA.config.security;
+
+import br.com.fiap.gs.ConnectA.model.Usuario;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
+/**
+ * Principal montado apenas a partir das claims do JWT (modo stateless)
+ */
+public record UsuarioPrincipal(Long id, String email, Usuario.TipoPerfil tipoPerfil) {
+
+    public List<GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + tipoPerfil.name()));
+    }
+
+    @Override
+    public String toString() {
+        return email;
+    }
+}
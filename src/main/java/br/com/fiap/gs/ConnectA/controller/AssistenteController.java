@@ -1,8 +1,13 @@
 package br.com.fiap.gs.ConnectA.controller;
 
+import br.com.fiap.gs.ConnectA.dto.AnaliseJobDTO;
+import br.com.fiap.gs.ConnectA.dto.AnaliseLoteDTO;
 import br.com.fiap.gs.ConnectA.dto.PerfilAssistenteDTO;
 import br.com.fiap.gs.ConnectA.dto.SkillsSugeridasDTO;
+import br.com.fiap.gs.ConnectA.exception.ServicoIndisponivelException;
 import br.com.fiap.gs.ConnectA.service.AssistentePerfilService;
+import br.com.fiap.gs.ConnectA.service.assistente.AnaliseCurriculo;
+import br.com.fiap.gs.ConnectA.service.assistente.AnaliseCurriculoJobService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -13,10 +18,19 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/v1/assistente")
@@ -27,8 +41,12 @@ import java.util.List;
 public class AssistenteController {
 
     private final AssistentePerfilService assistenteService;
+    private final AnaliseCurriculoJobService analiseCurriculoJobService;
     private final MessageSource messageSource;
 
+    private static final long SSE_TIMEOUT_MS = 5 * 60 * 1000L;
+    private static final long SSE_LOTE_TIMEOUT_MS = 60 * 60 * 1000L;
+
     /**
      * Analisa currículo e sugere skills usando Spring AI
      */
@@ -40,7 +58,8 @@ public class AssistenteController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Análise concluída com sucesso"),
             @ApiResponse(responseCode = "400", description = "Dados inválidos"),
-            @ApiResponse(responseCode = "500", description = "Erro ao processar com IA")
+            @ApiResponse(responseCode = "500", description = "Erro ao processar com IA"),
+            @ApiResponse(responseCode = "503", description = "Limite de taxa do Groq atingido")
     })
     public ResponseEntity<SkillsSugeridasDTO> analisarCurriculo(
             @Valid @RequestBody PerfilAssistenteDTO dto
@@ -48,21 +67,23 @@ public class AssistenteController {
         log.info("Requisição para análise de currículo - Idioma: {}", dto.getIdioma());
 
         try {
-            // Service retorna List<String> de skills
-            List<String> skills = assistenteService.analisarCurriculo(
+            // Service retorna as skills; degradada quando o Groq está indisponível
+            AnaliseCurriculo analise = assistenteService.analisarCurriculo(
                     dto.getCurriculo(),
                     dto.getIdioma()
             );
+            List<String> skills = analise.skills();
 
             // Cria mensagem de sucesso baseada no idioma
+            String chaveMensagem = analise.degradada() ? "assistente.analise.degradada" : "assistente.analise.sucesso";
             String mensagem = dto.getIdioma().equals("es-ES")
                     ? messageSource.getMessage(
-                    "assistente.analise.sucesso",
+                    chaveMensagem,
                     null,
                     java.util.Locale.forLanguageTag("es-ES")
             )
                     : messageSource.getMessage(
-                    "assistente.analise.sucesso",
+                    chaveMensagem,
                     null,
                     java.util.Locale.forLanguageTag("pt-BR")
             );
@@ -73,6 +94,9 @@ public class AssistenteController {
             log.info("Análise de currículo concluída - {} skills identificadas", skills.size());
             return ResponseEntity.ok(response);
 
+        } catch (ServicoIndisponivelException e) {
+            // Limite de taxa do Groq: 503 para o cliente tentar de novo, não 500
+            throw e;
         } catch (Exception e) {
             log.error("Erro ao analisar currículo", e);
 
@@ -92,4 +116,172 @@ public class AssistenteController {
             return ResponseEntity.status(500).body(errorResponse);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Análise em streaming: um evento 'skill' por skill assim que o modelo a gera,
+     * depois 'concluida' com o resultado completo (ou 'erro')
+     */
+    @PostMapping(value = "/analisar-curriculo/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+            summary = "Analisar currículo com IA em streaming",
+            description = "Envia cada skill como server-sent event assim que é identificada"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stream de eventos da análise"),
+            @ApiResponse(responseCode = "400", description = "Dados inválidos"),
+            @ApiResponse(responseCode = "503", description = "Análises demais pendentes")
+    })
+    public SseEmitter analisarCurriculoStream(@Valid @RequestBody PerfilAssistenteDTO dto) {
+        log.info("Requisição para análise de currículo em streaming - Idioma: {}", dto.getIdioma());
+        SseEmitter emitter = new SseEmitter(SSE_TIMEOUT_MS);
+        analiseCurriculoJobService
+                .transmitir(dto.getCurriculo(), dto.getIdioma(), skill -> enviarEvento(emitter, "skill", skill))
+                .whenComplete((resultado, erro) -> {
+                    try {
+                        if (erro != null) {
+                            log.error("Erro na análise de currículo em streaming", erro);
+                            String mensagemErro = messageSource.getMessage("assistente.analise.erro", null,
+                                    Locale.forLanguageTag("es-ES".equals(dto.getIdioma()) ? "es-ES" : "pt-BR"));
+                            enviarEvento(emitter, "erro", new SkillsSugeridasDTO(List.of(), mensagemErro));
+                        } else {
+                            enviarEvento(emitter, "concluida", resultado);
+                        }
+                        emitter.complete();
+                    } catch (UncheckedIOException e) {
+                        emitter.completeWithError(e);
+                    }
+                });
+        return emitter;
+    }
+
+    /**
+     * Análise em lote: um evento 'resultado' por currículo assim que fica pronto (com o índice
+     * no lote), depois 'concluida' com o total. As chamadas ao Groq seguem o limite de taxa.
+     */
+    @PostMapping(value = "/analisar-curriculo/lote", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+            summary = "Analisar currículos em lote",
+            description = "Agenda as análises dentro do limite de taxa do Groq e envia cada resultado como server-sent event"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stream de resultados do lote"),
+            @ApiResponse(responseCode = "400", description = "Dados inválidos"),
+            @ApiResponse(responseCode = "503", description = "Análises demais pendentes")
+    })
+    public SseEmitter analisarLote(@Valid @RequestBody AnaliseLoteDTO dto) {
+        int total = dto.getCurriculos().size();
+        log.info("Requisição para análise de currículos em lote - {} currículos", total);
+        SseEmitter emitter = new SseEmitter(SSE_LOTE_TIMEOUT_MS);
+        CompletableFuture<Void> lote = analiseCurriculoJobService.analisarLote(dto.getCurriculos(),
+                resultado -> enviarEvento(emitter, "resultado", resultado));
+        // Cliente foi embora: os itens que ainda não começaram são descartados
+        emitter.onTimeout(() -> lote.cancel(false));
+        emitter.onError(erro -> lote.cancel(false));
+        lote.whenComplete((nada, erro) -> {
+            try {
+                if (erro != null) {
+                    emitter.completeWithError(erro);
+                    return;
+                }
+                enviarEvento(emitter, "concluida", total);
+                emitter.complete();
+            } catch (UncheckedIOException e) {
+                emitter.completeWithError(e);
+            }
+        });
+        log.info("Lote de {} currículos agendado", total);
+        return emitter;
+    }
+
+    /**
+     * Falha de envio (cliente desconectou) interrompe a leitura do stream do Groq
+     */
+    private void enviarEvento(SseEmitter emitter, String nome, Object dados) {
+        try {
+            emitter.send(SseEmitter.event().name(nome).data(dados));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Envia o currículo para análise assíncrona e devolve o id do job na hora
+     */
+    @PostMapping("/analises")
+    @Operation(
+            summary = "Enviar currículo para análise assíncrona",
+            description = "Agenda a análise e responde 202 com o id do job; acompanhe por polling ou SSE"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Análise agendada"),
+            @ApiResponse(responseCode = "400", description = "Dados inválidos"),
+            @ApiResponse(responseCode = "503", description = "Análises demais pendentes")
+    })
+    public ResponseEntity<AnaliseJobDTO> enviarAnalise(
+            @Valid @RequestBody PerfilAssistenteDTO dto,
+            Authentication authentication
+    ) {
+        AnaliseJobDTO job = analiseCurriculoJobService.enviar(dto.getCurriculo(), dto.getIdioma(), authentication.getName());
+        log.info("Análise de currículo agendada - job {}", job.getId());
+        return ResponseEntity
+                .accepted()
+                .location(ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}").buildAndExpand(job.getId()).toUri())
+                .body(job);
+    }
+
+    /**
+     * Estado do job (polling)
+     */
+    @GetMapping("/analises/{id}")
+    @Operation(summary = "Consultar análise", description = "Retorna o estado do job e o resultado quando concluído")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Estado do job"),
+            @ApiResponse(responseCode = "404", description = "Job não encontrado ou expirado")
+    })
+    public ResponseEntity<AnaliseJobDTO> consultarAnalise(@PathVariable String id, Authentication authentication) {
+        return ResponseEntity.ok(analiseCurriculoJobService.consultar(id, authentication.getName()));
+    }
+
+    /**
+     * Resultado do job: 200 quando concluído, 202 enquanto pendente, 500 se falhou
+     */
+    @GetMapping("/analises/{id}/resultado")
+    @Operation(summary = "Resultado da análise", description = "Retorna as skills quando o job termina")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Análise concluída com sucesso"),
+            @ApiResponse(responseCode = "202", description = "Análise ainda em andamento"),
+            @ApiResponse(responseCode = "404", description = "Job não encontrado ou expirado"),
+            @ApiResponse(responseCode = "500", description = "Erro ao processar com IA")
+    })
+    public ResponseEntity<SkillsSugeridasDTO> resultadoAnalise(@PathVariable String id, Authentication authentication) {
+        AnaliseJobDTO job = analiseCurriculoJobService.consultar(id, authentication.getName());
+        return switch (AnaliseCurriculoJobService.Status.valueOf(job.getStatus())) {
+            case PENDENTE -> ResponseEntity.status(HttpStatus.ACCEPTED).build();
+            case CONCLUIDA -> ResponseEntity.ok(job.getResultado());
+            case FALHOU -> ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(job.getResultado());
+        };
+    }
+
+    /**
+     * Server-sent event com o estado final do job, sem precisar de polling
+     */
+    @GetMapping(value = "/analises/{id}/eventos", produces = "text/event-stream")
+    @Operation(summary = "Acompanhar análise por SSE", description = "Emite um evento 'concluida' quando o job termina")
+    public SseEmitter eventosAnalise(@PathVariable String id, Authentication authentication) {
+        SseEmitter emitter = new SseEmitter(SSE_TIMEOUT_MS);
+        analiseCurriculoJobService.conclusao(id, authentication.getName()).whenComplete((job, erro) -> {
+            try {
+                if (erro != null) {
+                    emitter.completeWithError(erro);
+                    return;
+                }
+                emitter.send(SseEmitter.event().name("concluida").id(job.getId()).data(job));
+                emitter.complete();
+            } catch (IOException e) {
+                // Cliente desconectou; o resultado continua disponível por polling
+                emitter.completeWithError(e);
+            }
+        });
+        return emitter;
+    }
+}
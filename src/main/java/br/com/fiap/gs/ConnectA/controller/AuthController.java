@@ -4,6 +4,7 @@ import br.com.fiap.gs.ConnectA.dto.JwtResponseDTO;
 import br.com.fiap.gs.ConnectA.dto.UsuarioLoginDTO;
 import br.com.fiap.gs.ConnectA.dto.UsuarioRegistroDTO;
 import br.com.fiap.gs.ConnectA.dto.UsuarioResponseDTO;
+import br.com.fiap.gs.ConnectA.exception.BusinessException;
 import br.com.fiap.gs.ConnectA.model.Usuario;
 import br.com.fiap.gs.ConnectA.service.AuthService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -94,6 +95,37 @@ public class AuthController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Logout: revoga o token enviado no header Authorization
+     */
+    @PostMapping("/logout")
+    @Operation(summary = "Encerrar sessão", description = "Revoga o token JWT informado até a sua expiração")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Logout realizado com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Token ausente, inválido ou emitido sem suporte a revogação")
+    })
+    public ResponseEntity<Map<String, String>> logout(
+            @RequestHeader(value = "Authorization", required = false) String authHeader
+    ) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            throw new BusinessException(messageSource.getMessage(
+                    "auth.logout.invalid",
+                    null,
+                    LocaleContextHolder.getLocale()
+            ));
+        }
+
+        authService.logout(authHeader.substring(7));
+
+        Map<String, String> response = new HashMap<>();
+        response.put("message", messageSource.getMessage(
+                "auth.logout.success",
+                null,
+                LocaleContextHolder.getLocale()
+        ));
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Endpoint de teste de autenticação
      */
@@ -1,8 +1,15 @@
 package br.com.fiap.gs.ConnectA.controller;
 
+import br.com.fiap.gs.ConnectA.dto.ContagemUsuariosDTO;
+import br.com.fiap.gs.ConnectA.dto.ImportacaoResultadoDTO;
+import br.com.fiap.gs.ConnectA.dto.PaginaCursorDTO;
 import br.com.fiap.gs.ConnectA.dto.UsuarioAtualizacaoDTO;
+import br.com.fiap.gs.ConnectA.dto.UsuarioRegistroDTO;
 import br.com.fiap.gs.ConnectA.dto.UsuarioResponseDTO;
 import br.com.fiap.gs.ConnectA.model.Usuario;
+import br.com.fiap.gs.ConnectA.service.ContagemUsuariosService;
+import br.com.fiap.gs.ConnectA.service.ExportacaoUsuariosService;
+import br.com.fiap.gs.ConnectA.service.ImportacaoUsuariosService;
 import br.com.fiap.gs.ConnectA.service.UsuarioService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -10,20 +17,27 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -34,7 +48,12 @@ import java.util.Map;
 @Tag(name = "Usuários", description = "Endpoints para gerenciamento de usuários")
 public class UsuarioController {
 
+    private static final String NDJSON = "application/x-ndjson";
+
     private final UsuarioService usuarioService;
+    private final ContagemUsuariosService contagemUsuariosService;
+    private final ExportacaoUsuariosService exportacaoUsuariosService;
+    private final ImportacaoUsuariosService importacaoUsuariosService;
     private final MessageSource messageSource;
 
     /**
@@ -43,19 +62,107 @@ public class UsuarioController {
     @GetMapping
     @Operation(summary = "Listar todos os usuários", description = "Retorna lista paginada de usuários ativos")
     @ApiResponse(responseCode = "200", description = "Lista retornada com sucesso")
-    public ResponseEntity<Page<UsuarioResponseDTO>> listarTodos(
-            @PageableDefault(size = 10, sort = "nome", direction = Sort.Direction.ASC) Pageable pageable
+    public ResponseEntity<Slice<UsuarioResponseDTO>> listarTodos(
+            @PageableDefault(size = 10, sort = "nome", direction = Sort.Direction.ASC) Pageable pageable,
+            @Parameter(description = "false devolve só hasNext, sem o COUNT do total") @RequestParam(defaultValue = "true") boolean total
     ) {
         log.info("Requisição para listar todos os usuários - Página: {}", pageable.getPageNumber());
 
-        Page<Usuario> usuarios = usuarioService.listarTodos(pageable);
+        // Já vem projetado para DTO pelo repositório
+        Slice<UsuarioResponseDTO> response = total
+                ? usuarioService.listarTodos(pageable)
+                : usuarioService.listarTodosSemTotal(pageable);
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Lista usuários ativos paginando por cursor
+     */
+    @GetMapping("/cursor")
+    @Operation(summary = "Listar usuários por cursor",
+            description = "Paginação por cursor (ordem de nome); envie o proximoCursor da resposta anterior")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lista retornada com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Cursor inválido")
+    })
+    public ResponseEntity<PaginaCursorDTO<UsuarioResponseDTO>> listarTodosPorCursor(
+            @Parameter(description = "Cursor da página anterior (vazio na primeira)") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamanho da página (máx. 100)") @RequestParam(defaultValue = "10") int tamanho
+    ) {
+        log.info("Requisição para listar usuários por cursor");
 
-        // Converte Page<Usuario> para Page<UsuarioResponseDTO>
-        Page<UsuarioResponseDTO> response = usuarios.map(UsuarioResponseDTO::fromEntity);
+        PaginaCursorDTO<UsuarioResponseDTO> response = usuarioService.listarTodos(cursor, tamanho);
 
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Totais aproximados de usuários ativos por tipo de perfil
+     */
+    @GetMapping("/contagem")
+    @Operation(summary = "Contagem de usuários",
+            description = "Totais aproximados por tipo de perfil, recalculados periodicamente")
+    @ApiResponse(responseCode = "200", description = "Contagem retornada com sucesso")
+    public ResponseEntity<ContagemUsuariosDTO> contagem() {
+        log.info("Requisição para contagem de usuários");
+        return ResponseEntity.ok(contagemUsuariosService.contagem());
+    }
+
+    /**
+     * Exporta todos os usuários ativos em NDJSON, em streaming (somente ADMIN)
+     */
+    @GetMapping(value = "/exportar", produces = NDJSON)
+    @Operation(summary = "Exportar usuários",
+            description = "Exporta os usuários ativos em NDJSON (um por linha), com filtros opcionais. Requer perfil ADMIN")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Exportação gerada com sucesso"),
+            @ApiResponse(responseCode = "403", description = "Usuário sem perfil ADMIN")
+    })
+    public void exportar(
+            @Parameter(description = "Tipo de perfil (MENTOR ou MENTORADO)") @RequestParam(required = false) String tipoPerfil,
+            @Parameter(description = "Somente alterados a partir de (ISO-8601, ex.: 2024-01-31T00:00:00)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime alteradosDesde,
+            HttpServletResponse response
+    ) throws IOException {
+        log.info("Requisição para exportar usuários - perfil: {}, alterados desde: {}", tipoPerfil, alteradosDesde);
+
+        Usuario.TipoPerfil tipo = tipoPerfil == null ? null : Usuario.TipoPerfil.valueOf(tipoPerfil.toUpperCase());
+        response.setContentType(NDJSON);
+        response.setCharacterEncoding("UTF-8");
+        exportacaoUsuariosService.exportar(tipo, alteradosDesde, response.getOutputStream());
+    }
+
+    /**
+     * Importação em lote de usuários (lista JSON, somente ADMIN)
+     */
+    @PostMapping(value = "/importar", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Importar usuários",
+            description = "Cadastra uma lista de usuários; linhas inválidas ou com email já cadastrado são rejeitadas. Requer perfil ADMIN")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Importação processada"),
+            @ApiResponse(responseCode = "403", description = "Usuário sem perfil ADMIN")
+    })
+    public ResponseEntity<ImportacaoResultadoDTO> importar(@RequestBody List<UsuarioRegistroDTO> usuarios) {
+        log.info("Requisição de importação recebida - {} usuários", usuarios.size());
+        return ResponseEntity.ok(importacaoUsuariosService.importar(usuarios));
+    }
+
+    /**
+     * Importação em lote de usuários a partir de um arquivo NDJSON, lido em streaming (somente ADMIN)
+     */
+    @PostMapping(value = "/importar", consumes = NDJSON)
+    @Operation(summary = "Importar arquivo de usuários",
+            description = "Cadastra os usuários de um arquivo NDJSON (um usuário por linha). Requer perfil ADMIN")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Importação processada"),
+            @ApiResponse(responseCode = "403", description = "Usuário sem perfil ADMIN")
+    })
+    public ResponseEntity<ImportacaoResultadoDTO> importarArquivo(HttpServletRequest request) throws IOException {
+        log.info("Requisição de importação de arquivo recebida");
+        return ResponseEntity.ok(importacaoUsuariosService.importar(request.getInputStream()));
+    }
+
     /**
      * Busca usuário por ID
      */
@@ -82,16 +189,39 @@ public class UsuarioController {
     @GetMapping("/perfil/{tipoPerfil}")
     @Operation(summary = "Buscar por tipo de perfil", description = "Lista usuários por tipo (MENTOR ou MENTORADO)")
     @ApiResponse(responseCode = "200", description = "Lista retornada com sucesso")
-    public ResponseEntity<Page<UsuarioResponseDTO>> buscarPorTipoPerfil(
+    public ResponseEntity<Slice<UsuarioResponseDTO>> buscarPorTipoPerfil(
             @Parameter(description = "Tipo de perfil (MENTOR ou MENTORADO)") @PathVariable String tipoPerfil,
-            @PageableDefault(size = 10, sort = "nome") Pageable pageable
+            @PageableDefault(size = 10, sort = "nome") Pageable pageable,
+            @Parameter(description = "false devolve só hasNext, sem o COUNT do total") @RequestParam(defaultValue = "true") boolean total
     ) {
         log.info("Requisição para buscar usuários do tipo: {}", tipoPerfil);
 
         Usuario.TipoPerfil tipo = Usuario.TipoPerfil.valueOf(tipoPerfil.toUpperCase());
-        Page<Usuario> usuarios = usuarioService.buscarPorTipoPerfil(tipo, pageable);
+        Slice<UsuarioResponseDTO> response = total
+                ? usuarioService.buscarPorTipoPerfil(tipo, pageable)
+                : usuarioService.buscarPorTipoPerfilSemTotal(tipo, pageable);
+
+        return ResponseEntity.ok(response);
+    }
 
-        Page<UsuarioResponseDTO> response = usuarios.map(UsuarioResponseDTO::fromEntity);
+    /**
+     * Busca usuários por tipo de perfil paginando por cursor
+     */
+    @GetMapping("/perfil/{tipoPerfil}/cursor")
+    @Operation(summary = "Buscar por tipo de perfil (cursor)", description = "Lista usuários por tipo com paginação por cursor")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lista retornada com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Cursor inválido")
+    })
+    public ResponseEntity<PaginaCursorDTO<UsuarioResponseDTO>> buscarPorTipoPerfilPorCursor(
+            @Parameter(description = "Tipo de perfil (MENTOR ou MENTORADO)") @PathVariable String tipoPerfil,
+            @Parameter(description = "Cursor da página anterior (vazio na primeira)") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamanho da página (máx. 100)") @RequestParam(defaultValue = "10") int tamanho
+    ) {
+        log.info("Requisição para buscar usuários do tipo {} por cursor", tipoPerfil);
+
+        Usuario.TipoPerfil tipo = Usuario.TipoPerfil.valueOf(tipoPerfil.toUpperCase());
+        PaginaCursorDTO<UsuarioResponseDTO> response = usuarioService.buscarPorTipoPerfil(tipo, cursor, tamanho);
 
         return ResponseEntity.ok(response);
     }
@@ -102,14 +232,37 @@ public class UsuarioController {
     @GetMapping("/buscar")
     @Operation(summary = "Buscar por nome", description = "Busca usuários por nome (busca parcial)")
     @ApiResponse(responseCode = "200", description = "Lista retornada com sucesso")
-    public ResponseEntity<Page<UsuarioResponseDTO>> buscarPorNome(
+    public ResponseEntity<Slice<UsuarioResponseDTO>> buscarPorNome(
             @Parameter(description = "Nome ou parte do nome") @RequestParam String nome,
-            @PageableDefault(size = 10, sort = "nome") Pageable pageable
+            @PageableDefault(size = 10, sort = "nome") Pageable pageable,
+            @Parameter(description = "false devolve só hasNext, sem o COUNT do total") @RequestParam(defaultValue = "true") boolean total
     ) {
         log.info("Requisição para buscar usuários por nome: {}", nome);
 
-        Page<Usuario> usuarios = usuarioService.buscarPorNome(nome, pageable);
-        Page<UsuarioResponseDTO> response = usuarios.map(UsuarioResponseDTO::fromEntity);
+        Slice<UsuarioResponseDTO> response = total
+                ? usuarioService.buscarPorNome(nome, pageable)
+                : usuarioService.buscarPorNomeSemTotal(nome, pageable);
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Busca usuários por nome paginando por cursor
+     */
+    @GetMapping("/buscar/cursor")
+    @Operation(summary = "Buscar por nome (cursor)", description = "Busca parcial por nome com paginação por cursor")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lista retornada com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Cursor inválido")
+    })
+    public ResponseEntity<PaginaCursorDTO<UsuarioResponseDTO>> buscarPorNomePorCursor(
+            @Parameter(description = "Nome ou parte do nome") @RequestParam String nome,
+            @Parameter(description = "Cursor da página anterior (vazio na primeira)") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamanho da página (máx. 100)") @RequestParam(defaultValue = "10") int tamanho
+    ) {
+        log.info("Requisição para buscar usuários por nome com cursor: {}", nome);
+
+        PaginaCursorDTO<UsuarioResponseDTO> response = usuarioService.buscarPorNome(nome, cursor, tamanho);
 
         return ResponseEntity.ok(response);
     }
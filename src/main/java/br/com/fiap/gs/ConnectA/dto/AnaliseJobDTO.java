@@ -0,0 +1,16 @@
+package br.com.fiap.gs.ConnectA.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class AnaliseJobDTO {
+    private String id;
+    private String status; // PENDENTE, CONCLUIDA ou FALHOU
+    private LocalDateTime criadoEm;
+    private LocalDateTime concluidoEm;
+    private SkillsSugeridasDTO resultado; // Preenchido ao terminar
+}
@@ -0,0 +1,20 @@
+package br.com.fiap.gs.ConnectA.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnaliseLoteDTO {
+
+    @NotEmpty(message = "{assistente.lote.notempty}")
+    @Size(max = 500, message = "{assistente.lote.size}")
+    private List<@Valid PerfilAssistenteDTO> curriculos;
+}
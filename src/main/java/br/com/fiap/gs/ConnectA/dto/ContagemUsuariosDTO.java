@@ -0,0 +1,17 @@
+package br.com.fiap.gs.ConnectA.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContagemUsuariosDTO {
+    private Map<String, Long> porTipoPerfil;
+    private Long total;
+    private LocalDateTime atualizadoEm;
+}
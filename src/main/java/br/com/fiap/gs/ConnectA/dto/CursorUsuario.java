@@ -0,0 +1,34 @@
+package br.com.fiap.gs.ConnectA.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Posição da paginação por cursor: último (nome, id) entregue ao cliente.
+ * Trafega como base64 url-safe, opaco para quem consome a API.
+ */
+public record CursorUsuario(String nome, Long id) {
+
+    private static final char SEPARADOR = ':';
+
+    public static CursorUsuario de(UsuarioResponseDTO usuario) {
+        return new CursorUsuario(usuario.getNome(), usuario.getId());
+    }
+
+    public String codificar() {
+        String bruto = id + String.valueOf(SEPARADOR) + nome;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bruto.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException quando o cursor não foi gerado por esta API
+     */
+    public static CursorUsuario decodificar(String cursor) {
+        String bruto = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        int separador = bruto.indexOf(SEPARADOR);
+        if (separador <= 0) {
+            throw new IllegalArgumentException("Cursor sem separador");
+        }
+        return new CursorUsuario(bruto.substring(separador + 1), Long.parseLong(bruto.substring(0, separador)));
+    }
+}
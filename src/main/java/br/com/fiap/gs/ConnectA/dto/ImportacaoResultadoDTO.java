@@ -0,0 +1,17 @@
+package br.com.fiap.gs.ConnectA.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportacaoResultadoDTO {
+    private int recebidos;
+    private int importados;
+    private List<String> rejeitados = new ArrayList<>(); // "linha N: motivo"
+}
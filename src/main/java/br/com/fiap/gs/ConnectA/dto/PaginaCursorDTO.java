@@ -0,0 +1,16 @@
+package br.com.fiap.gs.ConnectA.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaCursorDTO<T> {
+    private List<T> conteudo;
+    private String proximoCursor;
+    private boolean temProximo;
+}
@@ -0,0 +1,15 @@
+package br.com.fiap.gs.ConnectA.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class ResultadoLoteDTO {
+    private int indice; // Posição do currículo no lote enviado
+    private String status; // CONCLUIDA ou FALHOU
+    private List<String> skills;
+    private String mensagem;
+}
@@ -0,0 +1,17 @@
+package br.com.fiap.gs.ConnectA.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Projeção mínima usada pelo índice de busca por nome
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UsuarioNomeDTO {
+    private Long id;
+    private String nome;
+    private Boolean ativo;
+}
@@ -30,5 +30,6 @@ public class UsuarioRegistroDTO {
     private String senha;
 
     @NotBlank(message = "{usuario.tipoPerfil.notblank}")
+    @Pattern(regexp = "(?i)^(MENTOR|MENTORADO)$", message = "{usuario.tipoPerfil.invalid}")
     private String tipoPerfil; // MENTOR ou MENTORADO
 }
\ No newline at end of file
@@ -16,6 +16,14 @@ public class UsuarioResponseDTO {
     private String tipoPerfil;
     private Boolean ativo;
 
+    /**
+     * Usado pelas projeções (SELECT new ...) do UsuarioRepository
+     */
+    public UsuarioResponseDTO(Long id, String nome, String email, String telefone,
+                              Usuario.TipoPerfil tipoPerfil, Boolean ativo) {
+        this(id, nome, email, telefone, tipoPerfil.name(), ativo);
+    }
+
     public static UsuarioResponseDTO fromEntity(Usuario usuario) {
         return new UsuarioResponseDTO(
                 usuario.getId(),
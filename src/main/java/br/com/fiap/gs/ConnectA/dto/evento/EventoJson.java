@@ -0,0 +1,8 @@
+package br.com.fiap.gs.ConnectA.dto.evento;
+
+/**
+ * Evento já serializado em JSON (como fica gravado no outbox).
+ * Vai para o broker sem ser codificado de novo como string.
+ */
+public record EventoJson(String json, int versaoSchema) implements EventoVersionado {
+}
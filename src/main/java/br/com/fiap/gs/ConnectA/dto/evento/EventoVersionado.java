@@ -0,0 +1,12 @@
+package br.com.fiap.gs.ConnectA.dto.evento;
+
+/**
+ * Evento publicado no connecta.exchange com versão de schema no header
+ */
+public interface EventoVersionado {
+
+    /**
+     * Versão do schema do payload; muda quando um campo é removido ou muda de significado
+     */
+    int versaoSchema();
+}
@@ -0,0 +1,19 @@
+package br.com.fiap.gs.ConnectA.dto.evento;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Evento de invalidação de cache trocado entre as réplicas
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InvalidacaoCacheEvento {
+    private String origem; // Identificador da réplica que publicou
+    private List<Long> ids;
+    private List<String> emails;
+}
@@ -0,0 +1,32 @@
+package br.com.fiap.gs.ConnectA.dto.evento;
+
+import br.com.fiap.gs.ConnectA.model.Usuario;
+
+/**
+ * Evento de usuário cadastrado (routing key usuario.novo)
+ */
+public record NovoUsuarioEvento(
+        Long id,
+        String nome,
+        String email,
+        String tipoPerfil,
+        long timestamp
+) implements EventoVersionado {
+
+    public static final int VERSAO = 1;
+
+    public static NovoUsuarioEvento de(Usuario usuario) {
+        return new NovoUsuarioEvento(
+                usuario.getId(),
+                usuario.getNome(),
+                usuario.getEmail(),
+                usuario.getTipoPerfil().name(),
+                System.currentTimeMillis()
+        );
+    }
+
+    @Override
+    public int versaoSchema() {
+        return VERSAO;
+    }
+}
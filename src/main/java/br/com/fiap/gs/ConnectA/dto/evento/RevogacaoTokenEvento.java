@@ -0,0 +1,17 @@
+package br.com.fiap.gs.ConnectA.dto.evento;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Revogação de token (logout) propagada entre as réplicas
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevogacaoTokenEvento {
+    private String origem; // Identificador da réplica que publicou
+    private String jti;
+    private Long expiracao; // epoch millis
+}
@@ -0,0 +1,10 @@
+package br.com.fiap.gs.ConnectA.dto.evento;
+
+import java.util.Collection;
+
+/**
+ * Evento interno (Spring) disparado após o commit de alterações em usuários,
+ * nesta réplica ou recebidas de outra
+ */
+public record UsuariosAlteradosEvento(Collection<Long> ids) {
+}
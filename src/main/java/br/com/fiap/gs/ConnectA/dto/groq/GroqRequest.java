@@ -1,5 +1,6 @@
 package br.com.fiap.gs.ConnectA.dto.groq;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -18,6 +19,9 @@ public class GroqRequest {
     @JsonProperty("max_tokens")
     private Integer maxTokens;
 
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean stream; // true: resposta em SSE, token a token
+
     @Data
     @AllArgsConstructor
     @NoArgsConstructor
@@ -0,0 +1,31 @@
+package br.com.fiap.gs.ConnectA.dto.groq;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Fragmento da resposta em streaming (linha "data:" do SSE, formato OpenAI)
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class GroqStreamChunk {
+    private List<Choice> choices;
+
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Choice {
+        private Delta delta;
+
+        @JsonProperty("finish_reason")
+        private String finishReason;
+
+        @Data
+        @JsonIgnoreProperties(ignoreUnknown = true)
+        public static class Delta {
+            private String content;
+        }
+    }
+}
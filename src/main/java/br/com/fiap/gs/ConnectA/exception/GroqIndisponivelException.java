@@ -0,0 +1,10 @@
+package br.com.fiap.gs.ConnectA.exception;
+
+/**
+ * Chamada ao Groq recusada sem tentar: circuito aberto ou limite de chamadas simultâneas atingido
+ */
+public class GroqIndisponivelException extends ServicoIndisponivelException {
+    public GroqIndisponivelException(String message) {
+        super(message);
+    }
+}
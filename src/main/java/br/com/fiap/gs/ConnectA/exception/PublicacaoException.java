@@ -0,0 +1,11 @@
+package br.com.fiap.gs.ConnectA.exception;
+
+public class PublicacaoException extends RuntimeException {
+    public PublicacaoException(String message) {
+        super(message);
+    }
+
+    public PublicacaoException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,7 @@
+package br.com.fiap.gs.ConnectA.exception;
+
+public class ServicoIndisponivelException extends RuntimeException {
+    public ServicoIndisponivelException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,71 @@
+package br.com.fiap.gs.ConnectA.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Evento gravado na mesma transação da alteração de negócio e publicado
+ * depois no RabbitMQ pelo relay do outbox (removido após o confirm do broker)
+ */
+@Entity
+@Table(name = "TB_EVENTO_OUTBOX", indexes = {
+        @Index(name = "IDX_OUTBOX_AGREGADO", columnList = "AGREGADO_TIPO, AGREGADO_ID, ID_EVENTO")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventoOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "evento_outbox_seq")
+    @SequenceGenerator(name = "evento_outbox_seq", sequenceName = "SEQ_EVENTO_OUTBOX", allocationSize = 50)
+    @Column(name = "ID_EVENTO")
+    private Long id;
+
+    @Column(name = "AGREGADO_TIPO", nullable = false, length = 50)
+    private String agregadoTipo;
+
+    @Column(name = "AGREGADO_ID", nullable = false)
+    private Long agregadoId;
+
+    @Column(name = "ROUTING_KEY", nullable = false, length = 100)
+    private String routingKey;
+
+    @Lob
+    @Column(name = "PAYLOAD", nullable = false)
+    private String payload; // JSON do evento tipado
+
+    @Column(name = "VERSAO_SCHEMA", nullable = false)
+    private Integer versaoSchema;
+
+    @Column(name = "TENTATIVAS", nullable = false)
+    private Integer tentativas = 0;
+
+    @Column(name = "PROXIMA_TENTATIVA", nullable = false)
+    private LocalDateTime proximaTentativa;
+
+    @Column(name = "DATA_CRIACAO", nullable = false, updatable = false)
+    private LocalDateTime dataCriacao;
+
+    @PrePersist
+    protected void onCreate() {
+        dataCriacao = LocalDateTime.now();
+        if (proximaTentativa == null) {
+            proximaTentativa = dataCriacao;
+        }
+        if (tentativas == null) {
+            tentativas = 0;
+        }
+    }
+
+    /**
+     * Chave de ordenação: eventos do mesmo agregado saem na ordem de gravação
+     */
+    public String chaveAgregado() {
+        return agregadoTipo + ":" + agregadoId;
+    }
+}
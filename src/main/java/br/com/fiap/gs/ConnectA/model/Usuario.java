@@ -17,15 +17,27 @@ import java.util.Collection;
 import java.util.List;
 
 @Entity
-@Table(name = "TB_USUARIO")
+@Table(name = "TB_USUARIO", indexes = {
+        // Paginação por cursor: (nome, id) na ordem do índice, filtrado por ativo/perfil
+        @Index(name = "IDX_USUARIO_ATIVO_NOME", columnList = "ATIVO, NOME, ID_USUARIO"),
+        @Index(name = "IDX_USUARIO_ATIVO_PERFIL_NOME", columnList = "ATIVO, TIPO_PERFIL, NOME, ID_USUARIO")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Usuario implements UserDetails {
 
+    public static final String SEQUENCE = "SEQ_USUARIO";
+
+    /**
+     * Ids reservados por ida à sequence (optimizer pooled); o INCREMENT BY da sequence
+     * precisa ser igual (ver MigracaoSequencias)
+     */
+    public static final int ALOCACAO_IDS = 50;
+
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "usuario_seq")
-    @SequenceGenerator(name = "usuario_seq", sequenceName = "SEQ_USUARIO", allocationSize = 1)
+    @SequenceGenerator(name = "usuario_seq", sequenceName = SEQUENCE, allocationSize = ALOCACAO_IDS)
     @Column(name = "ID_USUARIO")
     private Long id;
 
@@ -56,6 +68,9 @@ public class Usuario implements UserDetails {
     @Column(name = "ATIVO", nullable = false)
     private Boolean ativo = true;
 
+    @Column(name = "TOKEN_VERSAO")
+    private Integer tokenVersao = 0;
+
     @Column(name = "DATA_CRIACAO", nullable = false, updatable = false)
     private LocalDateTime dataCriacao;
 
@@ -68,6 +83,9 @@ public class Usuario implements UserDetails {
         if (ativo == null) {
             ativo = true;
         }
+        if (tokenVersao == null) {
+            tokenVersao = 0;
+        }
     }
 
     @PreUpdate
@@ -113,6 +131,10 @@ public class Usuario implements UserDetails {
 
     public enum TipoPerfil {
         MENTOR,
-        MENTORADO
+        MENTORADO,
+        /**
+         * Operação da plataforma (exportação e importação em lote); não pode ser escolhido no cadastro
+         */
+        ADMIN
     }
 }
\ No newline at end of file
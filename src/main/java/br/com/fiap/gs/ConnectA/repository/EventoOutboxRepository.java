@@ -0,0 +1,44 @@
+package br.com.fiap.gs.ConnectA.repository;
+
+import br.com.fiap.gs.ConnectA.model.EventoOutbox;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EventoOutboxRepository extends JpaRepository<EventoOutbox, Long> {
+
+    /**
+     * Ids dos eventos prontos para envio: vencidos e os mais antigos do seu agregado.
+     * Um evento em backoff (ou em voo) segura os seguintes do mesmo agregado, sem
+     * impedir os demais agregados de andar.
+     */
+    @Query("""
+            SELECT e.id FROM EventoOutbox e
+            WHERE e.proximaTentativa <= :agora
+              AND NOT EXISTS (SELECT 1 FROM EventoOutbox a
+                              WHERE a.agregadoTipo = e.agregadoTipo
+                                AND a.agregadoId = e.agregadoId
+                                AND a.id < e.id)
+            ORDER BY e.id""")
+    List<Long> buscarIdsPendentes(@Param("agora") LocalDateTime agora, Pageable limite);
+
+    /**
+     * Trava os eventos ainda vencidos para esta réplica; os já travados por outra
+     * são pulados (SKIP LOCKED) e os já reservados por outra não voltam
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM EventoOutbox e WHERE e.id IN :ids AND e.proximaTentativa <= :agora ORDER BY e.id")
+    List<EventoOutbox> travarPorIds(@Param("ids") Collection<Long> ids, @Param("agora") LocalDateTime agora);
+}
@@ -1,18 +1,34 @@
 package br.com.fiap.gs.ConnectA.repository;
 
+import br.com.fiap.gs.ConnectA.dto.UsuarioNomeDTO;
+import br.com.fiap.gs.ConnectA.dto.UsuarioResponseDTO;
 import br.com.fiap.gs.ConnectA.model.Usuario;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
 
+    /**
+     * Projeção das listagens: só as colunas do UsuarioResponseDTO, sem hidratar a entidade
+     */
+    String SELECT_RESUMO = "SELECT new br.com.fiap.gs.ConnectA.dto.UsuarioResponseDTO(" +
+            "u.id, u.nome, u.email, u.telefone, u.tipoPerfil, u.ativo) FROM Usuario u ";
+
     /**
      * Busca usuário por email
      */
@@ -23,6 +39,12 @@ public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
      */
     boolean existsByEmail(String email);
 
+    /**
+     * Emails da lista que já estão cadastrados (uma consulta por lote de importação)
+     */
+    @Query("SELECT u.email FROM Usuario u WHERE u.email IN :emails")
+    List<String> buscarEmailsExistentes(@Param("emails") Collection<String> emails);
+
     /**
      * Busca usuários ativos por tipo de perfil com paginação
      */
@@ -41,4 +63,126 @@ public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
      */
     @Query("SELECT u FROM Usuario u WHERE LOWER(u.nome) LIKE LOWER(CONCAT('%', :nome, '%')) AND u.ativo = true")
     Page<Usuario> buscarPorNome(@Param("nome") String nome, Pageable pageable);
+
+    /**
+     * Listagem paginada de usuários ativos já projetada para DTO
+     */
+    @Query(value = SELECT_RESUMO + "WHERE u.ativo = true",
+            countQuery = "SELECT COUNT(u) FROM Usuario u WHERE u.ativo = true")
+    Page<UsuarioResponseDTO> listarResumosAtivos(Pageable pageable);
+
+    @Query(value = SELECT_RESUMO + "WHERE u.ativo = true AND u.tipoPerfil = :tipoPerfil",
+            countQuery = "SELECT COUNT(u) FROM Usuario u WHERE u.ativo = true AND u.tipoPerfil = :tipoPerfil")
+    Page<UsuarioResponseDTO> buscarResumosPorTipoPerfil(
+            @Param("tipoPerfil") Usuario.TipoPerfil tipoPerfil,
+            Pageable pageable
+    );
+
+    @Query(value = SELECT_RESUMO + "WHERE LOWER(u.nome) LIKE LOWER(CONCAT('%', :nome, '%')) AND u.ativo = true",
+            countQuery = "SELECT COUNT(u) FROM Usuario u " +
+                    "WHERE LOWER(u.nome) LIKE LOWER(CONCAT('%', :nome, '%')) AND u.ativo = true")
+    Page<UsuarioResponseDTO> buscarResumosPorNome(@Param("nome") String nome, Pageable pageable);
+
+    /**
+     * Resumos dos usuários informados (páginas do índice de nomes)
+     */
+    @Query(SELECT_RESUMO + "WHERE u.id IN :ids")
+    List<UsuarioResponseDTO> buscarResumosPorIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Usuários ativos sem a consulta de COUNT (Slice)
+     */
+    @Query(SELECT_RESUMO + "WHERE u.ativo = true")
+    Slice<UsuarioResponseDTO> listarAtivosSemTotal(Pageable pageable);
+
+    @Query(SELECT_RESUMO + "WHERE u.ativo = true AND u.tipoPerfil = :tipoPerfil")
+    Slice<UsuarioResponseDTO> buscarPorTipoPerfilSemTotal(@Param("tipoPerfil") Usuario.TipoPerfil tipoPerfil, Pageable pageable);
+
+    @Query(SELECT_RESUMO + "WHERE LOWER(u.nome) LIKE LOWER(CONCAT('%', :nome, '%')) AND u.ativo = true")
+    Slice<UsuarioResponseDTO> buscarPorNomeSemTotal(@Param("nome") String nome, Pageable pageable);
+
+    /**
+     * Total de usuários ativos por tipo de perfil: linhas (tipoPerfil, quantidade)
+     */
+    @Query("SELECT u.tipoPerfil, COUNT(u) FROM Usuario u WHERE u.ativo = true GROUP BY u.tipoPerfil")
+    List<Object[]> contarAtivosPorTipoPerfil();
+
+    /**
+     * Primeira página por cursor dos usuários ativos, em ordem de (nome, id)
+     */
+    @Query(SELECT_RESUMO + "WHERE u.ativo = true ORDER BY u.nome, u.id")
+    List<UsuarioResponseDTO> buscarAtivosInicio(Pageable limite);
+
+    /**
+     * Páginas seguintes por cursor: busca a partir do último (nome, id) entregue,
+     * sem descartar linhas como no OFFSET
+     */
+    @Query(SELECT_RESUMO + "WHERE u.ativo = true " +
+            "AND (u.nome > :nome OR (u.nome = :nome AND u.id > :id)) ORDER BY u.nome, u.id")
+    List<UsuarioResponseDTO> buscarAtivosApos(@Param("nome") String nome, @Param("id") Long id, Pageable limite);
+
+    @Query(SELECT_RESUMO + "WHERE u.ativo = true AND u.tipoPerfil = :tipoPerfil ORDER BY u.nome, u.id")
+    List<UsuarioResponseDTO> buscarPorTipoPerfilInicio(@Param("tipoPerfil") Usuario.TipoPerfil tipoPerfil, Pageable limite);
+
+    @Query(SELECT_RESUMO + "WHERE u.ativo = true AND u.tipoPerfil = :tipoPerfil " +
+            "AND (u.nome > :nome OR (u.nome = :nome AND u.id > :id)) ORDER BY u.nome, u.id")
+    List<UsuarioResponseDTO> buscarPorTipoPerfilApos(
+            @Param("tipoPerfil") Usuario.TipoPerfil tipoPerfil,
+            @Param("nome") String nome,
+            @Param("id") Long id,
+            Pageable limite
+    );
+
+    @Query(SELECT_RESUMO + "WHERE u.ativo = true " +
+            "AND LOWER(u.nome) LIKE LOWER(CONCAT('%', :termo, '%')) ORDER BY u.nome, u.id")
+    List<UsuarioResponseDTO> buscarPorNomeInicio(@Param("termo") String termo, Pageable limite);
+
+    @Query(SELECT_RESUMO + "WHERE u.ativo = true " +
+            "AND LOWER(u.nome) LIKE LOWER(CONCAT('%', :termo, '%')) " +
+            "AND (u.nome > :nome OR (u.nome = :nome AND u.id > :id)) ORDER BY u.nome, u.id")
+    List<UsuarioResponseDTO> buscarPorNomeApos(
+            @Param("termo") String termo,
+            @Param("nome") String nome,
+            @Param("id") Long id,
+            Pageable limite
+    );
+
+    /**
+     * Exportação em streaming dos usuários ativos, com filtros opcionais
+     * de perfil e de data de alteração (marca d'água)
+     */
+    @Query(SELECT_RESUMO + "WHERE u.ativo = true " +
+            "AND (:tipoPerfil IS NULL OR u.tipoPerfil = :tipoPerfil) " +
+            "AND (:desde IS NULL OR COALESCE(u.dataAtualizacao, u.dataCriacao) >= :desde) " +
+            "ORDER BY u.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "2000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<UsuarioResponseDTO> streamParaExportacao(
+            @Param("tipoPerfil") Usuario.TipoPerfil tipoPerfil,
+            @Param("desde") LocalDateTime desde
+    );
+
+    /**
+     * Carrega id e nome de todos os usuários ativos em streaming (índice de busca)
+     */
+    @Query("SELECT new br.com.fiap.gs.ConnectA.dto.UsuarioNomeDTO(u.id, u.nome, u.ativo) FROM Usuario u WHERE u.ativo = true")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<UsuarioNomeDTO> streamNomesAtivos();
+
+    /**
+     * Id, nome e situação dos usuários informados (atualização do índice de busca)
+     */
+    @Query("SELECT new br.com.fiap.gs.ConnectA.dto.UsuarioNomeDTO(u.id, u.nome, u.ativo) FROM Usuario u WHERE u.id IN :ids")
+    List<UsuarioNomeDTO> buscarNomesPorIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Versão atual dos tokens de um usuário ativo
+     */
+    @Query("SELECT COALESCE(u.tokenVersao, 0) FROM Usuario u WHERE u.id = :id AND u.ativo = true")
+    Optional<Integer> buscarTokenVersao(@Param("id") Long id);
 }
\ No newline at end of file
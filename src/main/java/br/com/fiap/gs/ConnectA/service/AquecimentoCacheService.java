@@ -0,0 +1,92 @@
+package br.com.fiap.gs.ConnectA.service;
+
+import br.com.fiap.gs.ConnectA.config.CacheConfig;
+import br.com.fiap.gs.ConnectA.config.ConversorEventos;
+import br.com.fiap.gs.ConnectA.dto.evento.NovoUsuarioEvento;
+import br.com.fiap.gs.ConnectA.model.Usuario;
+import br.com.fiap.gs.ConnectA.repository.UsuarioRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Aquece os caches desta réplica com os usuários recém-cadastrados.
+ * Consome em lotes a fila exclusiva ligada a usuario.novo e carrega o lote
+ * inteiro com uma única consulta, para que o primeiro acesso já saia do cache.
+ * O índice de nomes já é atualizado pelo UsuariosAlteradosEvento da invalidação.
+ */
+@Service
+@Slf4j
+public class AquecimentoCacheService {
+
+    private final UsuarioRepository usuarioRepository;
+    private final CacheManager cacheManager;
+    private final UsuarioNaoEncontradoCache usuarioNaoEncontradoCache;
+    private final ConversorEventos conversorEventos;
+    private final Counter aquecidos;
+
+    public AquecimentoCacheService(
+            UsuarioRepository usuarioRepository,
+            CacheManager cacheManager,
+            UsuarioNaoEncontradoCache usuarioNaoEncontradoCache,
+            ConversorEventos conversorEventos,
+            MeterRegistry meterRegistry
+    ) {
+        this.usuarioRepository = usuarioRepository;
+        this.cacheManager = cacheManager;
+        this.usuarioNaoEncontradoCache = usuarioNaoEncontradoCache;
+        this.conversorEventos = conversorEventos;
+        this.aquecidos = Counter.builder("cache.aquecimento.usuarios")
+                .description("Usuários novos carregados no cache antes do primeiro acesso")
+                .register(meterRegistry);
+    }
+
+    @RabbitListener(
+            queues = "#{queueAquecimentoCache.name}",
+            containerFactory = "aquecimentoListenerContainerFactory"
+    )
+    public void receber(List<Message> mensagens) {
+        Set<Long> ids = new LinkedHashSet<>();
+        for (Message mensagem : mensagens) {
+            try {
+                NovoUsuarioEvento evento = (NovoUsuarioEvento) conversorEventos.fromMessage(mensagem, NovoUsuarioEvento.class);
+                if (evento.id() != null) {
+                    ids.add(evento.id());
+                }
+            } catch (Exception e) {
+                log.warn("Evento de novo usuário ignorado no aquecimento: {}", e.getMessage());
+            }
+        }
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        List<Usuario> usuarios = usuarioRepository.findAllById(ids);
+        Cache porId = cacheManager.getCache(CacheConfig.USUARIOS);
+        Cache porEmail = cacheManager.getCache(CacheConfig.USUARIOS_POR_EMAIL);
+        for (Usuario usuario : usuarios) {
+            // Não sobrescreve o que um acesso já colocou no cache
+            if (porId != null) {
+                porId.putIfAbsent(usuario.getId(), usuario);
+            }
+            if (porEmail != null) {
+                porEmail.putIfAbsent(usuario.getEmail(), usuario);
+            }
+        }
+        usuarioNaoEncontradoCache.invalidar(
+                usuarios.stream().map(Usuario::getId).toList(),
+                usuarios.stream().map(Usuario::getEmail).toList()
+        );
+        aquecidos.increment(usuarios.size());
+        log.debug("Cache aquecido - {} mensagens, {} usuários", mensagens.size(), usuarios.size());
+    }
+}
@@ -3,19 +3,38 @@ package br.com.fiap.gs.ConnectA.service;
 import br.com.fiap.gs.ConnectA.config.GroqConfig;
 import br.com.fiap.gs.ConnectA.dto.groq.GroqRequest;
 import br.com.fiap.gs.ConnectA.dto.groq.GroqResponse;
+import br.com.fiap.gs.ConnectA.dto.groq.GroqStreamChunk;
+import br.com.fiap.gs.ConnectA.exception.GroqIndisponivelException;
+import br.com.fiap.gs.ConnectA.exception.ServicoIndisponivelException;
+import br.com.fiap.gs.ConnectA.service.assistente.AnaliseCurriculo;
+import br.com.fiap.gs.ConnectA.service.assistente.AnalisesEmAndamento;
+import br.com.fiap.gs.ConnectA.service.assistente.CacheAnaliseCurriculo;
+import br.com.fiap.gs.ConnectA.service.assistente.ExtratorSkills;
+import br.com.fiap.gs.ConnectA.service.assistente.LimitadorTaxaGroq;
+import br.com.fiap.gs.ConnectA.service.assistente.ResilienciaGroq;
+import br.com.fiap.gs.ConnectA.service.assistente.SkillsConhecidas;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,6 +44,10 @@ public class AssistentePerfilService {
 
     private final RestTemplate restTemplate;
     private final GroqConfig groqConfig;
+    private final CacheAnaliseCurriculo cacheAnaliseCurriculo;
+    private final AnalisesEmAndamento analisesEmAndamento;
+    private final LimitadorTaxaGroq limitadorTaxaGroq;
+    private final ResilienciaGroq resilienciaGroq;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     private static final String PROMPT_PT = """
@@ -89,21 +112,64 @@ public class AssistentePerfilService {
         - Usa los nombres exactos de las tecnologías como aparecen en el currículum
         """;
 
-    public List<String> analisarCurriculo(String curriculo, String idioma) {
+    /**
+     * Análise do currículo; repetições do mesmo texto saem do cache sem chamar o Groq
+     * e chamadas idênticas simultâneas compartilham uma única consulta.
+     * Com o Groq indisponível (circuito aberto ou sem vaga) devolve na hora a análise degradada.
+     */
+    public AnaliseCurriculo analisarCurriculo(String curriculo, String idioma) {
+        return analisarCurriculo(curriculo, idioma, limitadorTaxaGroq.getEsperaMaxima());
+    }
+
+    /**
+     * Análise aguardando até {@code esperaMaxima} por vaga no limite de taxa do Groq (lotes esperam mais)
+     *
+     * @throws ServicoIndisponivelException quando o limite de taxa não libera a chamada a tempo
+     */
+    public AnaliseCurriculo analisarCurriculo(String curriculo, String idioma, Duration esperaMaxima) {
+        String promptTemplate = idioma.equals("es-ES") ? PROMPT_ES : PROMPT_PT;
+        String chave = CacheAnaliseCurriculo.chave(curriculo, idioma, promptTemplate, groqConfig.getModel());
+        try {
+            return new AnaliseCurriculo(analisesEmAndamento.executar(chave, () -> cacheAnaliseCurriculo.obter(curriculo,
+                    idioma, promptTemplate, groqConfig.getModel(),
+                    () -> consultarGroq(curriculo, idioma, promptTemplate, esperaMaxima))), false);
+        } catch (GroqIndisponivelException e) {
+            // Fora do cache de propósito: a análise completa substitui esta quando o Groq voltar
+            log.warn("Groq indisponível ({}); respondendo com análise degradada", e.getMessage());
+            return new AnaliseCurriculo(SkillsConhecidas.encontrar(curriculo), true);
+        }
+    }
+
+    /**
+     * Análise em streaming: cada skill é entregue assim que o modelo termina de gerá-la.
+     * Em acerto de cache ou com o Groq indisponível (análise degradada) todas são entregues de imediato.
+     */
+    public AnaliseCurriculo analisarCurriculoStream(String curriculo, String idioma, Consumer<String> aoEncontrarSkill) {
+        String promptTemplate = idioma.equals("es-ES") ? PROMPT_ES : PROMPT_PT;
+        AtomicBoolean consultou = new AtomicBoolean();
+        AnaliseCurriculo analise;
+        try {
+            analise = new AnaliseCurriculo(cacheAnaliseCurriculo.obter(curriculo, idioma, promptTemplate, groqConfig.getModel(), () -> {
+                consultou.set(true);
+                return consultarGroqStream(curriculo, idioma, promptTemplate, aoEncontrarSkill);
+            }), false);
+        } catch (GroqIndisponivelException e) {
+            log.warn("Groq indisponível ({}); respondendo com análise degradada", e.getMessage());
+            analise = new AnaliseCurriculo(SkillsConhecidas.encontrar(curriculo), true);
+            consultou.set(false);
+        }
+        if (!consultou.get()) {
+            analise.skills().forEach(aoEncontrarSkill);
+        }
+        return analise;
+    }
+
+    private List<String> consultarGroq(String curriculo, String idioma, String promptTemplate, Duration esperaMaxima) {
         log.info("Iniciando análise de currículo com Groq - Idioma: {}", idioma);
         log.debug("Currículo recebido: {}", curriculo.substring(0, Math.min(100, curriculo.length())) + "...");
 
         try {
-            String promptTemplate = idioma.equals("es-ES") ? PROMPT_ES : PROMPT_PT;
-            String promptText = String.format(promptTemplate, curriculo);
-
-            GroqRequest request = new GroqRequest();
-            request.setModel(groqConfig.getModel());
-            request.setTemperature(0.3);
-            request.setMaxTokens(500);
-            request.setMessages(List.of(
-                    new GroqRequest.Message("user", promptText)
-            ));
+            GroqRequest request = montarRequisicao(curriculo, promptTemplate);
 
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.APPLICATION_JSON);
@@ -112,11 +178,16 @@ public class AssistentePerfilService {
             HttpEntity<GroqRequest> entity = new HttpEntity<>(request, headers);
 
             log.debug("Chamando Groq API: {}", groqConfig.getApiUrl());
-            GroqResponse response = restTemplate.postForObject(
-                    groqConfig.getApiUrl(),
-                    entity,
-                    GroqResponse.class
-            );
+            int tokens = estimarTokens(request);
+            // Circuito aberto recusa antes de esperar por cota no limite de taxa
+            GroqResponse response = limitadorTaxaGroq.executar(tokens, esperaMaxima, resilienciaGroq::verificarCircuito,
+                    () -> resilienciaGroq.executar(
+                            () -> restTemplate.postForObject(
+                                    groqConfig.getApiUrl(),
+                                    entity,
+                                    GroqResponse.class
+                            ),
+                            () -> limitadorTaxaGroq.tentarAdquirir(tokens)));
 
             if (response == null || response.getChoices() == null || response.getChoices().isEmpty()) {
                 log.error("Resposta vazia da API Groq");
@@ -136,12 +207,107 @@ public class AssistentePerfilService {
             log.info("Análise concluída - {} skills identificadas: {}", skills.size(), skills);
             return skills;
 
+        } catch (ServicoIndisponivelException e) {
+            log.warn("Análise de currículo não coube no limite de taxa do Groq: {}", e.getMessage());
+            throw e;
         } catch (Exception e) {
             log.error("Erro ao analisar currículo com Groq", e);
             throw new RuntimeException("Erro ao processar análise: " + e.getMessage(), e);
         }
     }
 
+    private List<String> consultarGroqStream(String curriculo, String idioma, String promptTemplate,
+                                             Consumer<String> aoEncontrarSkill) {
+        log.info("Iniciando análise de currículo em streaming com Groq - Idioma: {}", idioma);
+
+        try {
+            GroqRequest request = montarRequisicao(curriculo, promptTemplate);
+            request.setStream(true);
+            byte[] corpo = objectMapper.writeValueAsBytes(request);
+            ExtratorSkills extrator = new ExtratorSkills(aoEncontrarSkill);
+
+            // 429 e 5xx chegam antes do corpo, então repetir não duplica skills já entregues
+            // Sem hedge: a cópia entregaria as mesmas skills ao consumidor de novo
+            limitadorTaxaGroq.executar(estimarTokens(request), limitadorTaxaGroq.getEsperaMaxima(),
+                    resilienciaGroq::verificarCircuito,
+                    () -> resilienciaGroq.executar(() -> restTemplate.execute(
+                            groqConfig.getApiUrl(),
+                            HttpMethod.POST,
+                            requisicao -> {
+                                requisicao.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+                                requisicao.getHeaders().setAccept(List.of(MediaType.TEXT_EVENT_STREAM));
+                                requisicao.getHeaders().setBearerAuth(groqConfig.getApiKey());
+                                requisicao.getBody().write(corpo);
+                            },
+                            resposta -> {
+                                lerEventos(resposta.getBody(), extrator);
+                                return null;
+                            }
+                    )));
+
+            List<String> skills = extrator.getSkills();
+            if (skills.isEmpty()) {
+                log.warn("Resposta em streaming sem JSON de skills, tentando parsing por vírgula");
+                skills = parseRespostaCsv(extrator.getTexto());
+                skills.forEach(aoEncontrarSkill);
+            }
+
+            log.info("Análise em streaming concluída - {} skills identificadas", skills.size());
+            return skills;
+
+        } catch (ServicoIndisponivelException e) {
+            log.warn("Análise em streaming não coube no limite de taxa do Groq: {}", e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            log.error("Erro ao analisar currículo em streaming com Groq", e);
+            throw new RuntimeException("Erro ao processar análise: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Lê as linhas "data:" do SSE até o [DONE], repassando o conteúdo de cada delta ao extrator
+     */
+    private void lerEventos(InputStream corpo, ExtratorSkills extrator) throws IOException {
+        BufferedReader leitor = new BufferedReader(new InputStreamReader(corpo, StandardCharsets.UTF_8));
+        String linha;
+        while ((linha = leitor.readLine()) != null) {
+            if (!linha.startsWith("data:")) {
+                continue;
+            }
+            String dados = linha.substring(5).trim();
+            if ("[DONE]".equals(dados)) {
+                return;
+            }
+            GroqStreamChunk chunk = objectMapper.readValue(dados, GroqStreamChunk.class);
+            if (chunk.getChoices() == null || chunk.getChoices().isEmpty()) {
+                continue;
+            }
+            GroqStreamChunk.Choice.Delta delta = chunk.getChoices().get(0).getDelta();
+            if (delta != null && delta.getContent() != null) {
+                extrator.alimentar(delta.getContent());
+            }
+        }
+    }
+
+    /**
+     * Estimativa do que o Groq desconta do limite de tokens: prompt (~4 caracteres por token) + max_tokens
+     */
+    private static int estimarTokens(GroqRequest request) {
+        int caracteres = request.getMessages().stream().mapToInt(mensagem -> mensagem.getContent().length()).sum();
+        return caracteres / 4 + request.getMaxTokens();
+    }
+
+    private GroqRequest montarRequisicao(String curriculo, String promptTemplate) {
+        GroqRequest request = new GroqRequest();
+        request.setModel(groqConfig.getModel());
+        request.setTemperature(0.3);
+        request.setMaxTokens(500);
+        request.setMessages(List.of(
+                new GroqRequest.Message("user", String.format(promptTemplate, curriculo))
+        ));
+        return request;
+    }
+
     private List<String> parseRespostaJSON(String resposta) {
         try {
             String jsonLimpo = resposta.trim()
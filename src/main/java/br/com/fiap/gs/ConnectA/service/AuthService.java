@@ -1,15 +1,20 @@
 package br.com.fiap.gs.ConnectA.service;
 
 import br.com.fiap.gs.ConnectA.config.security.JwtService;
+import br.com.fiap.gs.ConnectA.config.security.TokenRevocationService;
 import br.com.fiap.gs.ConnectA.exception.BusinessException;
+import br.com.fiap.gs.ConnectA.exception.ServicoIndisponivelException;
 import br.com.fiap.gs.ConnectA.model.Usuario;
 import br.com.fiap.gs.ConnectA.repository.UsuarioRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -22,9 +27,11 @@ public class AuthService {
     private final UsuarioRepository usuarioRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
+    private final TokenRevocationService tokenRevocationService;
     private final AuthenticationManager authenticationManager;
     private final MessageSource messageSource;
     private final MensageriaService mensageriaService;
+    private final CacheInvalidacaoService cacheInvalidacaoService;
 
     /**
      * Registra um novo usuário no sistema
@@ -64,7 +71,10 @@ public class AuthService {
         Usuario usuarioSalvo = usuarioRepository.save(usuario);
         log.info("Usuário registrado com sucesso: {}", usuarioSalvo.getEmail());
 
-        // Publica mensagem no RabbitMQ para notificar outros microserviços
+        // Remove entradas do cache negativo em todas as réplicas
+        cacheInvalidacaoService.invalidar(usuarioSalvo);
+
+        // Grava o evento no outbox, na mesma transação; o relay publica no RabbitMQ
         mensageriaService.publicarNovoUsuario(usuarioSalvo);
 
         return usuarioSalvo;
@@ -77,17 +87,53 @@ public class AuthService {
         return jwtService.generateToken(usuario);
     }
 
+    /**
+     * Revoga o token informado (logout)
+     *
+     * @throws BusinessException quando o token é inválido ou não pode ser revogado (sem jti)
+     */
+    public void logout(String token) {
+        try {
+            Claims claims = jwtService.extractAllClaims(token);
+            if (!tokenRevocationService.revogar(claims.getId(), claims.getExpiration())) {
+                log.info("Logout de token sem jti recusado: {}", claims.getSubject());
+                throw new BusinessException(
+                        messageSource.getMessage(
+                                "auth.logout.irrevogavel",
+                                null,
+                                LocaleContextHolder.getLocale()
+                        )
+                );
+            }
+            log.info("Logout realizado: {}", claims.getSubject());
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Logout com token inválido: {}", e.getMessage());
+            throw new BusinessException(
+                    messageSource.getMessage(
+                            "auth.logout.invalid",
+                            null,
+                            LocaleContextHolder.getLocale()
+                    )
+            );
+        }
+    }
+
     /**
      * Autentica usuário e retorna o usuário autenticado
+     * O principal devolvido pelo provider já é o Usuario carregado: uma única consulta
      */
     public Usuario autenticar(String email, String senha) {
         log.debug("Autenticando usuário: {}", email);
 
+        Authentication autenticacao;
         try {
             // Autentica com Spring Security
-            authenticationManager.authenticate(
+            autenticacao = authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(email, senha)
             );
+        } catch (ServicoIndisponivelException e) {
+            // Sobrecarga não é credencial inválida: devolve 503, não 400
+            throw e;
         } catch (Exception e) {
             log.error("Erro na autenticação do usuário: {}", email, e);
             throw new BusinessException(
@@ -99,17 +145,9 @@ public class AuthService {
             );
         }
 
-        // Busca usuário
-        Usuario usuario = usuarioRepository.findByEmail(email)
-                .orElseThrow(() -> new BusinessException(
-                        messageSource.getMessage(
-                                "auth.login.error",
-                                null,
-                                LocaleContextHolder.getLocale()
-                        )
-                ));
+        Usuario usuario = (Usuario) autenticacao.getPrincipal();
 
         log.info("Usuário autenticado com sucesso: {}", usuario.getEmail());
         return usuario;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,138 @@
+package br.com.fiap.gs.ConnectA.service;
+
+import br.com.fiap.gs.ConnectA.config.CacheConfig;
+import br.com.fiap.gs.ConnectA.config.RabbitMQConfig;
+import br.com.fiap.gs.ConnectA.config.security.TokenVersionService;
+import br.com.fiap.gs.ConnectA.dto.evento.InvalidacaoCacheEvento;
+import br.com.fiap.gs.ConnectA.dto.evento.UsuariosAlteradosEvento;
+import br.com.fiap.gs.ConnectA.model.Usuario;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Invalida os caches de usuário nesta réplica e propaga a invalidação
+ * para as demais pelo exchange do RabbitMQ. Também avisa os componentes
+ * locais (ex.: índice de nomes) com um UsuariosAlteradosEvento.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CacheInvalidacaoService {
+
+    private final RabbitTemplate rabbitTemplate;
+    private final CacheManager cacheManager;
+    private final TokenVersionService tokenVersionService;
+    private final ObjectMapper objectMapper;
+    private final UsuarioNaoEncontradoCache usuarioNaoEncontradoCache;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Identifica esta réplica para ignorar os próprios eventos
+     */
+    private final String origem = UUID.randomUUID().toString();
+
+    public void invalidar(Usuario usuario) {
+        invalidar(List.of(usuario.getId()), List.of(usuario.getEmail()));
+    }
+
+    /**
+     * Invalida localmente e publica o evento após o commit da transação corrente
+     */
+    public void invalidar(Collection<Long> ids, Collection<String> emails) {
+        evictLocal(ids, emails);
+
+        InvalidacaoCacheEvento evento = new InvalidacaoCacheEvento(origem, List.copyOf(ids), List.copyOf(emails));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publicar(evento);
+                    eventPublisher.publishEvent(new UsuariosAlteradosEvento(evento.getIds()));
+                }
+            });
+        } else {
+            publicar(evento);
+            eventPublisher.publishEvent(new UsuariosAlteradosEvento(evento.getIds()));
+        }
+    }
+
+    /**
+     * Recebe em lote as invalidações das outras réplicas e aplica uma única vez por chave
+     */
+    @RabbitListener(
+            queues = "#{queueInvalidacaoCache.name}",
+            containerFactory = "invalidacaoListenerContainerFactory"
+    )
+    public void receber(List<Message> mensagens) {
+        Set<Long> ids = new LinkedHashSet<>();
+        Set<String> emails = new LinkedHashSet<>();
+
+        for (Message mensagem : mensagens) {
+            try {
+                InvalidacaoCacheEvento evento = objectMapper.readValue(mensagem.getBody(), InvalidacaoCacheEvento.class);
+                if (origem.equals(evento.getOrigem())) {
+                    continue;
+                }
+                if (evento.getIds() != null) {
+                    ids.addAll(evento.getIds());
+                }
+                if (evento.getEmails() != null) {
+                    emails.addAll(evento.getEmails());
+                }
+            } catch (Exception e) {
+                log.error("Evento de invalidação de cache inválido descartado: {}", e.getMessage());
+            }
+        }
+
+        if (ids.isEmpty() && emails.isEmpty()) {
+            return;
+        }
+
+        evictLocal(ids, emails);
+        // A versão de token mudou em outra réplica: relê do banco no próximo acesso
+        ids.forEach(tokenVersionService::invalidar);
+        eventPublisher.publishEvent(new UsuariosAlteradosEvento(ids));
+        log.debug("Invalidação remota aplicada - {} mensagens, {} ids, {} emails", mensagens.size(), ids.size(), emails.size());
+    }
+
+    private void evictLocal(Collection<Long> ids, Collection<String> emails) {
+        Cache porId = cacheManager.getCache(CacheConfig.USUARIOS);
+        Cache porEmail = cacheManager.getCache(CacheConfig.USUARIOS_POR_EMAIL);
+        if (porId != null) {
+            ids.forEach(porId::evict);
+        }
+        if (porEmail != null) {
+            emails.forEach(porEmail::evict);
+        }
+        usuarioNaoEncontradoCache.invalidar(ids, emails);
+    }
+
+    private void publicar(InvalidacaoCacheEvento evento) {
+        try {
+            rabbitTemplate.convertAndSend(
+                    RabbitMQConfig.EXCHANGE,
+                    RabbitMQConfig.ROUTING_KEY_INVALIDACAO_CACHE,
+                    evento
+            );
+        } catch (Exception e) {
+            log.error("Erro ao publicar invalidação de cache no RabbitMQ", e);
+            // Não propaga: as demais réplicas convergem pelo TTL dos caches
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package br.com.fiap.gs.ConnectA.service;
+
+import br.com.fiap.gs.ConnectA.dto.ContagemUsuariosDTO;
+import br.com.fiap.gs.ConnectA.model.Usuario;
+import br.com.fiap.gs.ConnectA.repository.UsuarioRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Totais aproximados de usuários ativos por tipo de perfil.
+ * Recalculados periodicamente com um único GROUP BY, em vez de um COUNT por listagem.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ContagemUsuariosService {
+
+    private final UsuarioRepository usuarioRepository;
+
+    private volatile ContagemUsuariosDTO ultimaContagem;
+
+    @Scheduled(fixedDelayString = "${connecta.contagem.intervalo:PT1M}")
+    public void atualizar() {
+        try {
+            ultimaContagem = calcular();
+            log.debug("Contagem de usuários atualizada: {}", ultimaContagem.getPorTipoPerfil());
+        } catch (Exception e) {
+            // Mantém a última contagem conhecida
+            log.error("Erro ao atualizar a contagem de usuários", e);
+        }
+    }
+
+    /**
+     * Última contagem calculada; se ainda não houver nenhuma, calcula na hora
+     */
+    public ContagemUsuariosDTO contagem() {
+        ContagemUsuariosDTO contagem = ultimaContagem;
+        if (contagem == null) {
+            contagem = calcular();
+            ultimaContagem = contagem;
+        }
+        return contagem;
+    }
+
+    private ContagemUsuariosDTO calcular() {
+        Map<Usuario.TipoPerfil, Long> porTipo = new EnumMap<>(Usuario.TipoPerfil.class);
+        for (Usuario.TipoPerfil tipo : Usuario.TipoPerfil.values()) {
+            porTipo.put(tipo, 0L);
+        }
+        for (Object[] linha : usuarioRepository.contarAtivosPorTipoPerfil()) {
+            porTipo.put((Usuario.TipoPerfil) linha[0], (Long) linha[1]);
+        }
+
+        Map<String, Long> porTipoPerfil = new LinkedHashMap<>();
+        porTipo.forEach((tipo, quantidade) -> porTipoPerfil.put(tipo.name(), quantidade));
+        long total = porTipo.values().stream().mapToLong(Long::longValue).sum();
+
+        return new ContagemUsuariosDTO(porTipoPerfil, total, LocalDateTime.now());
+    }
+}
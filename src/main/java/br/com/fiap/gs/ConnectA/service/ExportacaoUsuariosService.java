@@ -0,0 +1,58 @@
+package br.com.fiap.gs.ConnectA.service;
+
+import br.com.fiap.gs.ConnectA.dto.UsuarioResponseDTO;
+import br.com.fiap.gs.ConnectA.model.Usuario;
+import br.com.fiap.gs.ConnectA.repository.UsuarioRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Exporta o diretório de usuários ativos em NDJSON (um JSON por linha).
+ * As linhas são lidas do cursor JDBC e escritas direto na saída, então a
+ * memória usada não depende da quantidade de usuários.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExportacaoUsuariosService {
+
+    private static final int TAMANHO_BUFFER = 64 * 1024;
+
+    private final UsuarioRepository usuarioRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * @return quantidade de usuários exportados
+     */
+    @Transactional(readOnly = true)
+    public long exportar(Usuario.TipoPerfil tipoPerfil, LocalDateTime alteradosDesde, OutputStream saida) throws IOException {
+        log.debug("Exportando usuários - perfil: {}, alterados desde: {}", tipoPerfil, alteradosDesde);
+        ObjectWriter writer = objectMapper.writerFor(UsuarioResponseDTO.class);
+        OutputStream buffer = new BufferedOutputStream(saida, TAMANHO_BUFFER);
+
+        long exportados = 0;
+        try (Stream<UsuarioResponseDTO> usuarios = usuarioRepository.streamParaExportacao(tipoPerfil, alteradosDesde)) {
+            Iterator<UsuarioResponseDTO> iterator = usuarios.iterator();
+            while (iterator.hasNext()) {
+                buffer.write(writer.writeValueAsBytes(iterator.next()));
+                buffer.write('\n');
+                exportados++;
+            }
+        }
+        buffer.flush();
+
+        log.info("Exportação concluída - {} usuários", exportados);
+        return exportados;
+    }
+}
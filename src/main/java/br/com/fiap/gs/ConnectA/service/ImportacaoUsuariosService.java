@@ -0,0 +1,297 @@
+package br.com.fiap.gs.ConnectA.service;
+
+import br.com.fiap.gs.ConnectA.config.security.BoundedPasswordEncoder;
+import br.com.fiap.gs.ConnectA.dto.ImportacaoResultadoDTO;
+import br.com.fiap.gs.ConnectA.dto.UsuarioRegistroDTO;
+import br.com.fiap.gs.ConnectA.model.Usuario;
+import br.com.fiap.gs.ConnectA.repository.UsuarioRepository;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.MessageSource;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Importação em lote de usuários (cohortes de parceiros).
+ * Cada lote faz uma única consulta de emails já cadastrados, gera os hashes
+ * em paralelo no pool de hash próprio da importação e insere com batching JDBC
+ * em uma transação. Um email gravado por outra requisição entre a consulta e o
+ * insert rejeita só as linhas daquele lote; os lotes já gravados permanecem.
+ */
+@Service
+@Slf4j
+public class ImportacaoUsuariosService {
+
+    /**
+     * Limite de itens por cláusula IN no Oracle
+     */
+    private static final int LOTE_MAXIMO = 1000;
+
+    private final UsuarioRepository usuarioRepository;
+    private final BoundedPasswordEncoder passwordEncoder;
+    private final MensageriaService mensageriaService;
+    private final CacheInvalidacaoService cacheInvalidacaoService;
+    private final MessageSource messageSource;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int tamanhoLote;
+
+    public ImportacaoUsuariosService(
+            UsuarioRepository usuarioRepository,
+            @Qualifier("importacaoPasswordEncoder") BoundedPasswordEncoder passwordEncoder,
+            MensageriaService mensageriaService,
+            CacheInvalidacaoService cacheInvalidacaoService,
+            MessageSource messageSource,
+            Validator validator,
+            ObjectMapper objectMapper,
+            EntityManager entityManager,
+            PlatformTransactionManager transactionManager,
+            @Value("${connecta.importacao.lote:500}") int tamanhoLote
+    ) {
+        this.usuarioRepository = usuarioRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.mensageriaService = mensageriaService;
+        this.cacheInvalidacaoService = cacheInvalidacaoService;
+        this.messageSource = messageSource;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tamanhoLote = Math.max(1, Math.min(tamanhoLote, LOTE_MAXIMO));
+    }
+
+    /**
+     * Importa uma lista de usuários já carregada
+     */
+    public ImportacaoResultadoDTO importar(List<UsuarioRegistroDTO> usuarios) {
+        ImportacaoResultadoDTO resultado = new ImportacaoResultadoDTO();
+        for (int inicio = 0; inicio < usuarios.size(); inicio += tamanhoLote) {
+            List<UsuarioRegistroDTO> lote = usuarios.subList(inicio, Math.min(usuarios.size(), inicio + tamanhoLote));
+            processarLote(lote, inicio + 1, resultado);
+        }
+        return resultado;
+    }
+
+    /**
+     * Importa um arquivo NDJSON (um usuário por linha) lendo-o em streaming
+     */
+    public ImportacaoResultadoDTO importar(InputStream ndjson) throws IOException {
+        ImportacaoResultadoDTO resultado = new ImportacaoResultadoDTO();
+        List<UsuarioRegistroDTO> lote = new ArrayList<>(tamanhoLote);
+        int primeiraLinhaDoLote = 1;
+        int linha = 0;
+
+        try (MappingIterator<UsuarioRegistroDTO> leitor = objectMapper
+                .readerFor(UsuarioRegistroDTO.class)
+                .readValues(ndjson)) {
+            while (true) {
+                UsuarioRegistroDTO dto;
+                try {
+                    if (!leitor.hasNextValue()) {
+                        break;
+                    }
+                    dto = leitor.nextValue();
+                } catch (IOException | RuntimeException e) {
+                    // JSON malformado: importa o que foi lido antes e interrompe a leitura
+                    log.warn("Importação interrompida na linha {}: {}", linha + 1, e.getMessage());
+                    resultado.getRejeitados().add("linha " + (linha + 1) + ": JSON inválido");
+                    break;
+                }
+
+                linha++;
+                lote.add(dto);
+                if (lote.size() == tamanhoLote) {
+                    processarLote(lote, primeiraLinhaDoLote, resultado);
+                    lote.clear();
+                    primeiraLinhaDoLote = linha + 1;
+                }
+            }
+        }
+        processarLote(lote, primeiraLinhaDoLote, resultado);
+        return resultado;
+    }
+
+    private void processarLote(List<UsuarioRegistroDTO> lote, int primeiraLinha, ImportacaoResultadoDTO resultado) {
+        if (lote.isEmpty()) {
+            return;
+        }
+        resultado.setRecebidos(resultado.getRecebidos() + lote.size());
+
+        // Validação e emails repetidos dentro do próprio lote
+        List<UsuarioRegistroDTO> validos = new ArrayList<>(lote.size());
+        List<Integer> linhas = new ArrayList<>(lote.size());
+        Set<String> emailsDoLote = new HashSet<>();
+        for (int i = 0; i < lote.size(); i++) {
+            UsuarioRegistroDTO dto = lote.get(i);
+            int linha = primeiraLinha + i;
+            String erro = validar(dto);
+            if (erro == null && !emailsDoLote.add(dto.getEmail())) {
+                erro = mensagem("auth.register.email.exists");
+            }
+            if (erro != null) {
+                resultado.getRejeitados().add("linha " + linha + ": " + erro);
+                continue;
+            }
+            validos.add(dto);
+            linhas.add(linha);
+        }
+
+        // Uma única consulta para todos os emails do lote
+        Set<String> existentes = emailsDoLote.isEmpty()
+                ? Set.of()
+                : new HashSet<>(usuarioRepository.buscarEmailsExistentes(emailsDoLote));
+
+        List<UsuarioRegistroDTO> novos = new ArrayList<>(validos.size());
+        List<Integer> linhasNovas = new ArrayList<>(validos.size());
+        List<CompletableFuture<String>> hashes = new ArrayList<>(validos.size());
+        for (int i = 0; i < validos.size(); i++) {
+            UsuarioRegistroDTO dto = validos.get(i);
+            if (existentes.contains(dto.getEmail())) {
+                resultado.getRejeitados().add("linha " + linhas.get(i) + ": " + mensagem("auth.register.email.exists"));
+                continue;
+            }
+            novos.add(dto);
+            linhasNovas.add(linhas.get(i));
+            hashes.add(passwordEncoder.encodeAsync(dto.getSenha()));
+        }
+        if (novos.isEmpty()) {
+            return;
+        }
+        List<String> senhas = new ArrayList<>(hashes.size());
+        hashes.forEach(hash -> senhas.add(aguardar(hash)));
+
+        try {
+            inserir(novos, senhas);
+        } catch (DataIntegrityViolationException e) {
+            // Email cadastrado por outra requisição depois da consulta: rejeita esses e tenta o resto uma vez
+            log.warn("Lote com email já cadastrado concorrentemente - refazendo sem as linhas conflitantes");
+            entityManager.clear();
+            Set<String> cadastrados = new HashSet<>(usuarioRepository.buscarEmailsExistentes(
+                    novos.stream().map(UsuarioRegistroDTO::getEmail).toList()));
+            List<UsuarioRegistroDTO> restantes = new ArrayList<>(novos.size());
+            List<String> senhasRestantes = new ArrayList<>(novos.size());
+            List<Integer> linhasRestantes = new ArrayList<>(novos.size());
+            for (int i = 0; i < novos.size(); i++) {
+                if (cadastrados.contains(novos.get(i).getEmail())) {
+                    resultado.getRejeitados().add("linha " + linhasNovas.get(i) + ": " + mensagem("auth.register.email.exists"));
+                } else {
+                    restantes.add(novos.get(i));
+                    senhasRestantes.add(senhas.get(i));
+                    linhasRestantes.add(linhasNovas.get(i));
+                }
+            }
+            novos = restantes;
+            if (!novos.isEmpty()) {
+                try {
+                    inserir(novos, senhasRestantes);
+                } catch (DataIntegrityViolationException ex) {
+                    log.warn("Lote rejeitado por violação de restrição: {}", ex.getMostSpecificCause().getMessage());
+                    entityManager.clear();
+                    linhasRestantes.forEach(linha ->
+                            resultado.getRejeitados().add("linha " + linha + ": " + mensagem("usuario.importacao.rejeitado")));
+                    return;
+                }
+            }
+        }
+
+        resultado.setImportados(resultado.getImportados() + novos.size());
+        log.info("Lote importado - {} usuários", novos.size());
+    }
+
+    /**
+     * Grava o lote em uma transação; entidades novas a cada tentativa (um rollback deixa ids já atribuídos)
+     */
+    private void inserir(List<UsuarioRegistroDTO> dtos, List<String> senhas) {
+        if (dtos.isEmpty()) {
+            return;
+        }
+        List<Usuario> novos = new ArrayList<>(dtos.size());
+        for (int i = 0; i < dtos.size(); i++) {
+            Usuario usuario = paraEntidade(dtos.get(i));
+            usuario.setSenha(senhas.get(i));
+            novos.add(usuario);
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            usuarioRepository.saveAll(novos);
+            usuarioRepository.flush();
+            // Tira os usuários do cache negativo e atualiza o índice de nomes após o commit
+            cacheInvalidacaoService.invalidar(
+                    novos.stream().map(Usuario::getId).toList(),
+                    novos.stream().map(Usuario::getEmail).toList()
+            );
+            // Eventos de novo usuário no outbox, na mesma transação
+            mensageriaService.publicarNovosUsuarios(novos);
+        });
+        // Com open-in-view o contexto de persistência sobrevive à transação
+        entityManager.clear();
+    }
+
+    /**
+     * Resultado do hash sem o CompletionException do join: pool saturado continua sendo 503
+     */
+    private static String aguardar(CompletableFuture<String> hash) {
+        try {
+            return hash.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+
+    private String validar(UsuarioRegistroDTO dto) {
+        if (dto == null) {
+            return mensagem("usuario.importacao.vazio");
+        }
+        Set<ConstraintViolation<UsuarioRegistroDTO>> violacoes = validator.validate(dto);
+        if (!violacoes.isEmpty()) {
+            // Perfil em branco viola @NotBlank e @Pattern: a mensagem é a de obrigatório
+            if (dto.getTipoPerfil() == null || dto.getTipoPerfil().isBlank()) {
+                return mensagem("usuario.tipoPerfil.notblank");
+            }
+            return violacoes.iterator().next().getMessage();
+        }
+        try {
+            Usuario.TipoPerfil.valueOf(dto.getTipoPerfil().toUpperCase());
+            return null;
+        } catch (IllegalArgumentException e) {
+            return mensagem("usuario.tipoPerfil.invalid");
+        }
+    }
+
+    private Usuario paraEntidade(UsuarioRegistroDTO dto) {
+        Usuario usuario = new Usuario();
+        usuario.setNome(dto.getNome());
+        usuario.setEmail(dto.getEmail());
+        usuario.setTelefone(dto.getTelefone());
+        usuario.setTipoPerfil(Usuario.TipoPerfil.valueOf(dto.getTipoPerfil().toUpperCase()));
+        usuario.setAtivo(true);
+        return usuario;
+    }
+
+    private String mensagem(String chave) {
+        return messageSource.getMessage(chave, null, LocaleContextHolder.getLocale());
+    }
+}
@@ -1,52 +1,77 @@
 package br.com.fiap.gs.ConnectA.service;
 
+import br.com.fiap.gs.ConnectA.config.RabbitMQConfig;
+import br.com.fiap.gs.ConnectA.dto.evento.NovoUsuarioEvento;
+import br.com.fiap.gs.ConnectA.model.EventoOutbox;
 import br.com.fiap.gs.ConnectA.model.Usuario;
+import br.com.fiap.gs.ConnectA.service.outbox.OutboxService;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.stereotype.Service;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.List;
 
+/**
+ * Eventos de usuário para outros microserviços. As mensagens são gravadas no
+ * outbox na transação de quem chama e publicadas no RabbitMQ pelo OutboxRelay.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class MensageriaService {
 
-    private final RabbitTemplate rabbitTemplate;
-    private final ObjectMapper objectMapper;
+    private static final String AGREGADO_USUARIO = "USUARIO";
 
-    private static final String EXCHANGE = "connecta.exchange";
-    private static final String ROUTING_KEY_NOVO_USUARIO = "usuario.novo";
+    private final OutboxService outboxService;
+    private final ObjectMapper objectMapper;
 
     /**
-     * Publica mensagem quando um novo usuário é criado
-     * Outros microserviços podem consumir esta mensagem
+     * Registra a mensagem de novo usuário no outbox
+     * Deve ser chamado dentro da transação que criou o usuário
      */
     public void publicarNovoUsuario(Usuario usuario) {
+        outboxService.registrar(
+                AGREGADO_USUARIO,
+                usuario.getId(),
+                RabbitMQConfig.ROUTING_KEY_NOVO_USUARIO,
+                montarMensagem(usuario),
+                NovoUsuarioEvento.VERSAO
+        );
+        log.debug("Mensagem de novo usuário registrada no outbox: {}", usuario.getEmail());
+    }
+
+    /**
+     * Registra as mensagens de vários usuários novos (importação em lote)
+     */
+    public void publicarNovosUsuarios(List<Usuario> usuarios) {
+        if (usuarios.isEmpty()) {
+            return;
+        }
+        List<EventoOutbox> eventos = new ArrayList<>(usuarios.size());
+        for (Usuario usuario : usuarios) {
+            eventos.add(OutboxService.novoEvento(
+                    AGREGADO_USUARIO,
+                    usuario.getId(),
+                    RabbitMQConfig.ROUTING_KEY_NOVO_USUARIO,
+                    montarMensagem(usuario),
+                    NovoUsuarioEvento.VERSAO
+            ));
+        }
+        outboxService.registrar(eventos);
+        log.debug("Mensagens de {} novos usuários registradas no outbox", usuarios.size());
+    }
+
+    /**
+     * JSON do evento tipado; o relay envia como está (JSON) ou transcodificado (CBOR)
+     */
+    private String montarMensagem(Usuario usuario) {
         try {
-            Map<String, Object> mensagem = new HashMap<>();
-            mensagem.put("id", usuario.getId());
-            mensagem.put("nome", usuario.getNome());
-            mensagem.put("email", usuario.getEmail());
-            mensagem.put("tipoPerfil", usuario.getTipoPerfil().name());
-            mensagem.put("timestamp", System.currentTimeMillis());
-
-            String mensagemJson = objectMapper.writeValueAsString(mensagem);
-
-            rabbitTemplate.convertAndSend(
-                    EXCHANGE,
-                    ROUTING_KEY_NOVO_USUARIO,
-                    mensagemJson
-            );
-
-            log.info("Mensagem publicada no RabbitMQ - Novo usuário: {}", usuario.getEmail());
-
-        } catch (Exception e) {
-            log.error("Erro ao publicar mensagem no RabbitMQ", e);
-            // Não propaga a exceção para não interromper o fluxo principal
+            return objectMapper.writeValueAsString(NovoUsuarioEvento.de(usuario));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Erro ao serializar mensagem de novo usuário", e);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,74 @@
+package br.com.fiap.gs.ConnectA.service;
+
+import br.com.fiap.gs.ConnectA.config.CacheConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+/**
+ * Cache negativo (TTL curto) de ids e emails que não existem no banco.
+ * Evita que enumeração de ids e retries repetidos cheguem ao Oracle.
+ */
+@Component
+public class UsuarioNaoEncontradoCache {
+
+    private static final String PREFIXO_ID = "id:";
+    private static final String PREFIXO_EMAIL = "email:";
+
+    private final CacheManager cacheManager;
+    private final Counter absorvidosPorId;
+    private final Counter absorvidosPorEmail;
+
+    public UsuarioNaoEncontradoCache(CacheManager cacheManager, MeterRegistry meterRegistry) {
+        this.cacheManager = cacheManager;
+        this.absorvidosPorId = Counter.builder("usuarios.cache.negativo.absorvidos")
+                .description("Consultas ao banco evitadas pelo cache negativo")
+                .tag("chave", "id")
+                .register(meterRegistry);
+        this.absorvidosPorEmail = Counter.builder("usuarios.cache.negativo.absorvidos")
+                .description("Consultas ao banco evitadas pelo cache negativo")
+                .tag("chave", "email")
+                .register(meterRegistry);
+    }
+
+    public boolean contemId(Long id) {
+        return contem(PREFIXO_ID + id, absorvidosPorId);
+    }
+
+    public boolean contemEmail(String email) {
+        return contem(PREFIXO_EMAIL + email, absorvidosPorEmail);
+    }
+
+    public void registrarId(Long id) {
+        cache().put(PREFIXO_ID + id, Boolean.TRUE);
+    }
+
+    public void registrarEmail(String email) {
+        cache().put(PREFIXO_EMAIL + email, Boolean.TRUE);
+    }
+
+    /**
+     * Remove as entradas negativas (ex.: usuário recém-criado)
+     */
+    public void invalidar(Collection<Long> ids, Collection<String> emails) {
+        Cache cache = cache();
+        ids.forEach(id -> cache.evict(PREFIXO_ID + id));
+        emails.forEach(email -> cache.evict(PREFIXO_EMAIL + email));
+    }
+
+    private boolean contem(String chave, Counter absorvidos) {
+        if (cache().get(chave) == null) {
+            return false;
+        }
+        absorvidos.increment();
+        return true;
+    }
+
+    private Cache cache() {
+        return cacheManager.getCache(CacheConfig.USUARIOS_INEXISTENTES);
+    }
+}
@@ -1,15 +1,24 @@
 package br.com.fiap.gs.ConnectA.service;
 
+import br.com.fiap.gs.ConnectA.config.CacheConfig;
+import br.com.fiap.gs.ConnectA.config.security.CredencialVerificadaCache;
+import br.com.fiap.gs.ConnectA.config.security.TokenVersionService;
+import br.com.fiap.gs.ConnectA.dto.CursorUsuario;
+import br.com.fiap.gs.ConnectA.dto.PaginaCursorDTO;
+import br.com.fiap.gs.ConnectA.dto.UsuarioResponseDTO;
+import br.com.fiap.gs.ConnectA.exception.BusinessException;
 import br.com.fiap.gs.ConnectA.exception.ResourceNotFoundException;
 import br.com.fiap.gs.ConnectA.model.Usuario;
 import br.com.fiap.gs.ConnectA.repository.UsuarioRepository;
+import br.com.fiap.gs.ConnectA.service.busca.BuscaNomeService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -18,21 +27,34 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class UsuarioService implements UserDetailsService {
 
+    private static final int TAMANHO_MAXIMO_CURSOR = 100;
+
     private final UsuarioRepository usuarioRepository;
     private final PasswordEncoder passwordEncoder;
     private final MessageSource messageSource;
+    private final TokenVersionService tokenVersionService;
+    private final CredencialVerificadaCache credencialVerificadaCache;
+    private final CacheInvalidacaoService cacheInvalidacaoService;
+    private final UsuarioNaoEncontradoCache usuarioNaoEncontradoCache;
+    private final BuscaNomeService buscaNomeService;
 
     /**
      * Implementação do UserDetailsService para Spring Security
      */
     @Override
+    @Cacheable(value = CacheConfig.USUARIOS_POR_EMAIL, key = "#email")
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        return usuarioRepository.findByEmail(email)
+        return buscarEmailNoBanco(email)
                 .orElseThrow(() -> new UsernameNotFoundException(
                         messageSource.getMessage(
                                 "usuario.not.found",
@@ -45,10 +67,10 @@ public class UsuarioService implements UserDetailsService {
     /**
      * Busca usuário por ID com cache
      */
-    @Cacheable(value = "usuarios", key = "#id")
+    @Cacheable(value = CacheConfig.USUARIOS, key = "#id")
     public Usuario buscarPorId(Long id) {
         log.debug("Buscando usuário com ID: {}", id);
-        return usuarioRepository.findById(id)
+        return buscarIdNoBanco(id)
                 .orElseThrow(() -> new ResourceNotFoundException(
                         messageSource.getMessage(
                                 "usuario.not.found",
@@ -59,10 +81,11 @@ public class UsuarioService implements UserDetailsService {
     }
 
     /**
-     * Busca usuário por email
+     * Busca usuário por email com cache
      */
+    @Cacheable(value = CacheConfig.USUARIOS_POR_EMAIL, key = "#email")
     public Usuario buscarPorEmail(String email) {
-        return usuarioRepository.findByEmail(email)
+        return buscarEmailNoBanco(email)
                 .orElseThrow(() -> new ResourceNotFoundException(
                         messageSource.getMessage(
                                 "usuario.not.found",
@@ -72,31 +95,160 @@ public class UsuarioService implements UserDetailsService {
                 ));
     }
 
+    /**
+     * Consulta por ID passando antes pelo cache negativo
+     */
+    private Optional<Usuario> buscarIdNoBanco(Long id) {
+        if (usuarioNaoEncontradoCache.contemId(id)) {
+            return Optional.empty();
+        }
+        Optional<Usuario> usuario = usuarioRepository.findById(id);
+        if (usuario.isEmpty()) {
+            usuarioNaoEncontradoCache.registrarId(id);
+        }
+        return usuario;
+    }
+
+    /**
+     * Consulta por email passando antes pelo cache negativo
+     */
+    private Optional<Usuario> buscarEmailNoBanco(String email) {
+        if (usuarioNaoEncontradoCache.contemEmail(email)) {
+            return Optional.empty();
+        }
+        Optional<Usuario> usuario = usuarioRepository.findByEmail(email);
+        if (usuario.isEmpty()) {
+            usuarioNaoEncontradoCache.registrarEmail(email);
+        }
+        return usuario;
+    }
+
     /**
      * Lista todos os usuários ativos com paginação
      */
-    public Page<Usuario> listarTodos(Pageable pageable) {
+    @Transactional(readOnly = true)
+    public Page<UsuarioResponseDTO> listarTodos(Pageable pageable) {
         log.debug("Listando todos os usuários ativos - Página: {}", pageable.getPageNumber());
-        return usuarioRepository.findByAtivoTrue(pageable);
+        return usuarioRepository.listarResumosAtivos(pageable);
     }
 
     /**
      * Busca usuários por tipo de perfil
      */
-    public Page<Usuario> buscarPorTipoPerfil(
+    @Transactional(readOnly = true)
+    public Page<UsuarioResponseDTO> buscarPorTipoPerfil(
             Usuario.TipoPerfil tipoPerfil,
             Pageable pageable
     ) {
         log.debug("Buscando usuários por tipo de perfil: {}", tipoPerfil);
-        return usuarioRepository.findByAtivoTrueAndTipoPerfil(tipoPerfil, pageable);
+        return usuarioRepository.buscarResumosPorTipoPerfil(tipoPerfil, pageable);
     }
 
     /**
      * Busca usuários por nome
      */
-    public Page<Usuario> buscarPorNome(String nome, Pageable pageable) {
+    @Transactional(readOnly = true)
+    public Page<UsuarioResponseDTO> buscarPorNome(String nome, Pageable pageable) {
         log.debug("Buscando usuários por nome: {}", nome);
-        return usuarioRepository.buscarPorNome(nome, pageable);
+        return buscaNomeService.buscar(nome, pageable)
+                .orElseGet(() -> usuarioRepository.buscarResumosPorNome(nome, pageable));
+    }
+
+    /**
+     * Lista usuários ativos sem contar o total (evita o SELECT COUNT)
+     */
+    @Transactional(readOnly = true)
+    public Slice<UsuarioResponseDTO> listarTodosSemTotal(Pageable pageable) {
+        log.debug("Listando usuários ativos sem total - Página: {}", pageable.getPageNumber());
+        return usuarioRepository.listarAtivosSemTotal(pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public Slice<UsuarioResponseDTO> buscarPorTipoPerfilSemTotal(Usuario.TipoPerfil tipoPerfil, Pageable pageable) {
+        log.debug("Buscando usuários por tipo de perfil sem total: {}", tipoPerfil);
+        return usuarioRepository.buscarPorTipoPerfilSemTotal(tipoPerfil, pageable);
+    }
+
+    /**
+     * Com o índice de nomes carregado o total já sai da própria busca
+     */
+    @Transactional(readOnly = true)
+    public Slice<UsuarioResponseDTO> buscarPorNomeSemTotal(String nome, Pageable pageable) {
+        log.debug("Buscando usuários por nome sem total: {}", nome);
+        return buscaNomeService.buscar(nome, pageable)
+                .<Slice<UsuarioResponseDTO>>map(pagina -> pagina)
+                .orElseGet(() -> usuarioRepository.buscarPorNomeSemTotal(nome, pageable));
+    }
+
+    /**
+     * Lista usuários ativos por cursor (seek), com custo constante em qualquer página
+     */
+    @Transactional(readOnly = true)
+    public PaginaCursorDTO<UsuarioResponseDTO> listarTodos(String cursor, int tamanho) {
+        log.debug("Listando usuários ativos por cursor");
+        return paginarPorCursor(cursor, tamanho,
+                usuarioRepository::buscarAtivosInicio,
+                (posicao, limite) -> usuarioRepository.buscarAtivosApos(posicao.nome(), posicao.id(), limite));
+    }
+
+    /**
+     * Busca usuários por tipo de perfil usando cursor
+     */
+    @Transactional(readOnly = true)
+    public PaginaCursorDTO<UsuarioResponseDTO> buscarPorTipoPerfil(Usuario.TipoPerfil tipoPerfil, String cursor, int tamanho) {
+        log.debug("Buscando usuários por tipo de perfil com cursor: {}", tipoPerfil);
+        return paginarPorCursor(cursor, tamanho,
+                limite -> usuarioRepository.buscarPorTipoPerfilInicio(tipoPerfil, limite),
+                (posicao, limite) -> usuarioRepository.buscarPorTipoPerfilApos(
+                        tipoPerfil, posicao.nome(), posicao.id(), limite));
+    }
+
+    /**
+     * Busca usuários por nome usando cursor (ordem alfabética, sem ranking)
+     */
+    @Transactional(readOnly = true)
+    public PaginaCursorDTO<UsuarioResponseDTO> buscarPorNome(String nome, String cursor, int tamanho) {
+        log.debug("Buscando usuários por nome com cursor: {}", nome);
+        return paginarPorCursor(cursor, tamanho,
+                limite -> usuarioRepository.buscarPorNomeInicio(nome, limite),
+                (posicao, limite) -> usuarioRepository.buscarPorNomeApos(
+                        nome, posicao.nome(), posicao.id(), limite));
+    }
+
+    /**
+     * Busca uma linha a mais que o tamanho pedido para saber se existe próxima página
+     */
+    private PaginaCursorDTO<UsuarioResponseDTO> paginarPorCursor(
+            String cursor,
+            int tamanho,
+            Function<Pageable, List<UsuarioResponseDTO>> inicio,
+            BiFunction<CursorUsuario, Pageable, List<UsuarioResponseDTO>> apos
+    ) {
+        int tamanhoPagina = Math.max(1, Math.min(tamanho, TAMANHO_MAXIMO_CURSOR));
+        Pageable limite = PageRequest.of(0, tamanhoPagina + 1);
+
+        List<UsuarioResponseDTO> usuarios = cursor == null || cursor.isBlank()
+                ? inicio.apply(limite)
+                : apos.apply(decodificarCursor(cursor), limite);
+
+        boolean temProximo = usuarios.size() > tamanhoPagina;
+        List<UsuarioResponseDTO> pagina = temProximo ? usuarios.subList(0, tamanhoPagina) : usuarios;
+        String proximoCursor = temProximo ? CursorUsuario.de(pagina.get(pagina.size() - 1)).codificar() : null;
+        return new PaginaCursorDTO<>(pagina, proximoCursor, temProximo);
+    }
+
+    private CursorUsuario decodificarCursor(String cursor) {
+        try {
+            return CursorUsuario.decodificar(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException(
+                    messageSource.getMessage(
+                            "paginacao.cursor.invalid",
+                            null,
+                            LocaleContextHolder.getLocale()
+                    )
+            );
+        }
     }
 
     /**
@@ -107,6 +259,8 @@ public class UsuarioService implements UserDetailsService {
         log.debug("Criando novo usuário: {}", usuario.getEmail());
         usuario.setSenha(passwordEncoder.encode(usuario.getSenha()));
         Usuario usuarioSalvo = usuarioRepository.save(usuario);
+        // Torna o novo usuário visível mesmo onde ele estava em cache negativo
+        cacheInvalidacaoService.invalidar(usuarioSalvo);
         log.info("Usuário criado com sucesso: {}", usuarioSalvo.getEmail());
         return usuarioSalvo;
     }
@@ -115,7 +269,6 @@ public class UsuarioService implements UserDetailsService {
      * Atualiza dados do usuário
      */
     @Transactional
-    @CacheEvict(value = "usuarios", key = "#id")
     public Usuario atualizar(Long id, String nome, String telefone, String senha) {
         log.debug("Atualizando usuário com ID: {}", id);
 
@@ -130,9 +283,13 @@ public class UsuarioService implements UserDetailsService {
         }
         if (senha != null && !senha.isBlank()) {
             usuario.setSenha(passwordEncoder.encode(senha));
+            // Troca de senha invalida os tokens emitidos anteriormente
+            tokenVersionService.incrementar(usuario);
+            credencialVerificadaCache.invalidar(usuario.getEmail());
         }
 
         Usuario usuarioAtualizado = usuarioRepository.save(usuario);
+        cacheInvalidacaoService.invalidar(usuarioAtualizado);
         log.info("Usuário atualizado com sucesso: {}", usuarioAtualizado.getEmail());
 
         return usuarioAtualizado;
@@ -142,13 +299,14 @@ public class UsuarioService implements UserDetailsService {
      * Desativa usuário (soft delete)
      */
     @Transactional
-    @CacheEvict(value = "usuarios", key = "#id")
     public void desativar(Long id) {
         log.debug("Desativando usuário com ID: {}", id);
 
         Usuario usuario = buscarPorId(id);
         usuario.setAtivo(false);
+        tokenVersionService.incrementar(usuario);
         usuarioRepository.save(usuario);
+        cacheInvalidacaoService.invalidar(usuario);
 
         log.info("Usuário desativado com sucesso: {}", usuario.getEmail());
     }
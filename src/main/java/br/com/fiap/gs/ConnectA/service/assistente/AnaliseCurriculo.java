@@ -0,0 +1,10 @@
+package br.com.fiap.gs.ConnectA.service.assistente;
+
+import java.util.List;
+
+/**
+ * Skills extraídas do currículo; degradada quando o Groq estava indisponível e
+ * as skills vieram da busca local por tecnologias conhecidas
+ */
+public record AnaliseCurriculo(List<String> skills, boolean degradada) {
+}
@@ -0,0 +1,334 @@
+package br.com.fiap.gs.ConnectA.service.assistente;
+
+import br.com.fiap.gs.ConnectA.dto.AnaliseJobDTO;
+import br.com.fiap.gs.ConnectA.dto.PerfilAssistenteDTO;
+import br.com.fiap.gs.ConnectA.dto.ResultadoLoteDTO;
+import br.com.fiap.gs.ConnectA.dto.SkillsSugeridasDTO;
+import br.com.fiap.gs.ConnectA.exception.ResourceNotFoundException;
+import br.com.fiap.gs.ConnectA.exception.ServicoIndisponivelException;
+import br.com.fiap.gs.ConnectA.service.AssistentePerfilService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.MessageSource;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Análises de currículo assíncronas: o envio devolve um id na hora e a chamada
+ * ao Groq roda fora das threads do Tomcat, limitada a N análises simultâneas.
+ * Os jobs ficam num armazenamento limitado com TTL; quem enviou acompanha por
+ * polling ou pelo future de conclusão (SSE). Itens de lote, que podem passar
+ * minutos esperando vaga no limite de taxa do Groq, têm executor e limite
+ * próprios para não segurar as vagas das análises interativas.
+ */
+@Service
+@Slf4j
+public class AnaliseCurriculoJobService {
+
+    public enum Status {
+        PENDENTE,
+        CONCLUIDA,
+        FALHOU
+    }
+
+    private final AssistentePerfilService assistentePerfilService;
+    private final MessageSource messageSource;
+    private final ExecutorService executor;
+    private final Semaphore vagas;
+    private final ExecutorService executorLote;
+    private final Semaphore vagasLote;
+    private final Cache<String, Job> jobs;
+    private final AtomicInteger pendentes = new AtomicInteger();
+    private final int maxPendentes;
+    private final Duration esperaLote;
+
+    public AnaliseCurriculoJobService(
+            AssistentePerfilService assistentePerfilService,
+            MessageSource messageSource,
+            MeterRegistry meterRegistry,
+            @Value("${connecta.assistente.jobs.concorrencia:20}") int concorrencia,
+            @Value("${connecta.assistente.jobs.max-pendentes:500}") int maxPendentes,
+            @Value("${connecta.assistente.jobs.ttl:PT15M}") Duration ttl,
+            @Value("${connecta.assistente.lote.concorrencia:4}") int concorrenciaLote,
+            @Value("${connecta.assistente.lote.espera-maxima:PT10M}") Duration esperaLote
+    ) {
+        this.assistentePerfilService = assistentePerfilService;
+        this.messageSource = messageSource;
+        this.vagas = new Semaphore(Math.max(1, concorrencia));
+        this.maxPendentes = Math.max(1, maxPendentes);
+        this.esperaLote = esperaLote;
+        this.executor = criarExecutor(Math.max(1, concorrencia), "analise-curriculo");
+        this.vagasLote = new Semaphore(Math.max(1, concorrenciaLote));
+        this.executorLote = criarExecutor(Math.max(1, concorrenciaLote), "analise-lote");
+        // Job pendente pesa zero e não sai por tamanho; ao terminar é regravado com peso 1
+        this.jobs = Caffeine.newBuilder()
+                .maximumWeight(this.maxPendentes * 4L)
+                .weigher((String id, Job job) -> job.status == Status.PENDENTE ? 0 : 1)
+                .expireAfterWrite(ttl)
+                .build();
+
+        Gauge.builder("assistente.jobs.pendentes", pendentes, AtomicInteger::get)
+                .description("Análises de currículo aguardando ou em execução")
+                .register(meterRegistry);
+        Gauge.builder("assistente.jobs.executando", vagas, semaforo -> Math.max(1, concorrencia) - semaforo.availablePermits())
+                .description("Análises de currículo chamando o Groq agora")
+                .register(meterRegistry);
+        Gauge.builder("assistente.lote.executando", vagasLote, semaforo -> Math.max(1, concorrenciaLote) - semaforo.availablePermits())
+                .description("Itens de lote em análise (inclui a espera no limite de taxa)")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executor.shutdownNow();
+        executorLote.shutdownNow();
+    }
+
+    /**
+     * Registra o job e agenda a análise
+     *
+     * @throws ServicoIndisponivelException quando já há análises demais pendentes
+     */
+    public AnaliseJobDTO enviar(String curriculo, String idioma, String dono) {
+        if (pendentes.incrementAndGet() > maxPendentes) {
+            pendentes.decrementAndGet();
+            throw new ServicoIndisponivelException("Fila de análises de currículo cheia");
+        }
+        Job job = new Job(UUID.randomUUID().toString(), dono, idioma, LocalDateTime.now());
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> executar(job, curriculo));
+        } catch (RuntimeException e) {
+            pendentes.decrementAndGet();
+            jobs.invalidate(job.id);
+            throw new ServicoIndisponivelException("Executor de análises indisponível");
+        }
+        return job.paraDTO();
+    }
+
+    /**
+     * Análise em streaming no mesmo executor e com o mesmo limite de concorrência dos jobs
+     *
+     * @throws ServicoIndisponivelException quando já há análises demais pendentes
+     */
+    public CompletableFuture<SkillsSugeridasDTO> transmitir(String curriculo, String idioma, Consumer<String> aoEncontrarSkill) {
+        if (pendentes.incrementAndGet() > maxPendentes) {
+            pendentes.decrementAndGet();
+            throw new ServicoIndisponivelException("Fila de análises de currículo cheia");
+        }
+        CompletableFuture<SkillsSugeridasDTO> resultado = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                try {
+                    vagas.acquire();
+                    try {
+                        AnaliseCurriculo analise = assistentePerfilService.analisarCurriculoStream(curriculo, idioma, aoEncontrarSkill);
+                        resultado.complete(new SkillsSugeridasDTO(analise.skills(), mensagemSucesso(analise, idioma)));
+                    } finally {
+                        vagas.release();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    resultado.completeExceptionally(e);
+                } catch (Exception e) {
+                    resultado.completeExceptionally(e);
+                } finally {
+                    pendentes.decrementAndGet();
+                }
+            });
+        } catch (RuntimeException e) {
+            pendentes.decrementAndGet();
+            throw new ServicoIndisponivelException("Executor de análises indisponível");
+        }
+        return resultado;
+    }
+
+    /**
+     * Analisa um lote no executor e limite de concorrência dos lotes. O ritmo das chamadas
+     * fica com o limitador de taxa do Groq, que num lote pode segurar cada item por mais tempo;
+     * cada resultado é entregue assim que fica pronto, fora de ordem. Cancelar o future
+     * descarta os itens que ainda não começaram.
+     *
+     * @throws ServicoIndisponivelException quando o lote não cabe nas análises pendentes
+     */
+    public CompletableFuture<Void> analisarLote(List<PerfilAssistenteDTO> curriculos, Consumer<ResultadoLoteDTO> aoConcluir) {
+        int total = curriculos.size();
+        if (pendentes.addAndGet(total) > maxPendentes) {
+            pendentes.addAndGet(-total);
+            throw new ServicoIndisponivelException("Fila de análises de currículo cheia");
+        }
+        CompletableFuture<Void> lote = new CompletableFuture<>();
+        AtomicInteger restantes = new AtomicInteger(total);
+        for (int i = 0; i < total; i++) {
+            int indice = i;
+            PerfilAssistenteDTO item = curriculos.get(i);
+            try {
+                executorLote.execute(() -> {
+                    try {
+                        if (!lote.isDone()) {
+                            aoConcluir.accept(analisarItem(indice, item));
+                        }
+                    } catch (RuntimeException e) {
+                        // Quem recebe os resultados falhou (cliente desconectou): o resto do lote não serve mais
+                        lote.completeExceptionally(e);
+                    } finally {
+                        pendentes.decrementAndGet();
+                        if (restantes.decrementAndGet() == 0) {
+                            lote.complete(null);
+                        }
+                    }
+                });
+            } catch (RuntimeException e) {
+                // Os itens já agendados veem o lote encerrado e não começam
+                pendentes.addAndGet(-(total - indice));
+                lote.completeExceptionally(new ServicoIndisponivelException("Executor de análises indisponível"));
+                break;
+            }
+        }
+        return lote;
+    }
+
+    private ResultadoLoteDTO analisarItem(int indice, PerfilAssistenteDTO item) {
+        String idioma = item.getIdioma();
+        try {
+            vagasLote.acquire();
+            try {
+                AnaliseCurriculo analise = assistentePerfilService.analisarCurriculo(item.getCurriculo(), idioma, esperaLote);
+                return new ResultadoLoteDTO(indice, Status.CONCLUIDA.name(), analise.skills(), mensagemSucesso(analise, idioma));
+            } finally {
+                vagasLote.release();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new ResultadoLoteDTO(indice, Status.FALHOU.name(), List.of(), mensagem("assistente.analise.erro", idioma));
+        } catch (ServicoIndisponivelException e) {
+            return new ResultadoLoteDTO(indice, Status.FALHOU.name(), List.of(), mensagem("assistente.analise.limite", idioma));
+        } catch (Exception e) {
+            log.error("Erro na análise do item {} do lote", indice, e);
+            return new ResultadoLoteDTO(indice, Status.FALHOU.name(), List.of(), mensagem("assistente.analise.erro", idioma));
+        }
+    }
+
+    /**
+     * Estado atual do job; jobs de outro usuário são tratados como inexistentes
+     */
+    public AnaliseJobDTO consultar(String id, String dono) {
+        return buscar(id, dono).paraDTO();
+    }
+
+    /**
+     * Future concluído com o estado final do job (para SSE)
+     */
+    public CompletableFuture<AnaliseJobDTO> conclusao(String id, String dono) {
+        Job job = buscar(id, dono);
+        return job.conclusao.thenApply(fim -> job.paraDTO());
+    }
+
+    private Job buscar(String id, String dono) {
+        Job job = jobs.getIfPresent(id);
+        if (job == null || !job.dono.equals(dono)) {
+            throw new ResourceNotFoundException(
+                    messageSource.getMessage("assistente.analise.job.not.found", null, LocaleContextHolder.getLocale()));
+        }
+        return job;
+    }
+
+    private void executar(Job job, String curriculo) {
+        try {
+            vagas.acquire();
+            try {
+                AnaliseCurriculo analise = assistentePerfilService.analisarCurriculo(curriculo, job.idioma);
+                job.concluir(Status.CONCLUIDA, new SkillsSugeridasDTO(analise.skills(), mensagemSucesso(analise, job.idioma)));
+            } finally {
+                vagas.release();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.concluir(Status.FALHOU, new SkillsSugeridasDTO(List.of(), mensagem("assistente.analise.erro", job.idioma)));
+        } catch (Exception e) {
+            log.error("Erro na análise assíncrona de currículo {}", job.id, e);
+            job.concluir(Status.FALHOU, new SkillsSugeridasDTO(List.of(), mensagem("assistente.analise.erro", job.idioma)));
+        } finally {
+            pendentes.decrementAndGet();
+            // Recalcula o peso e reinicia o TTL a partir da conclusão
+            jobs.put(job.id, job);
+        }
+    }
+
+    private String mensagemSucesso(AnaliseCurriculo analise, String idioma) {
+        return mensagem(analise.degradada() ? "assistente.analise.degradada" : "assistente.analise.sucesso", idioma);
+    }
+
+    private String mensagem(String chave, String idioma) {
+        Locale locale = Locale.forLanguageTag("es-ES".equals(idioma) ? "es-ES" : "pt-BR");
+        return messageSource.getMessage(chave, null, locale);
+    }
+
+    /**
+     * Threads virtuais quando a JVM oferece (Java 21+); senão um pool fixo do tamanho do limite
+     */
+    private static ExecutorService criarExecutor(int concorrencia, String prefixo) {
+        try {
+            ExecutorService virtual = (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor")
+                    .invoke(null);
+            log.info("Análises de currículo ({}) em threads virtuais (máximo {} simultâneas)", prefixo, concorrencia);
+            return virtual;
+        } catch (ReflectiveOperationException e) {
+            log.info("Threads virtuais indisponíveis; análises de currículo ({}) em pool de {} threads", prefixo, concorrencia);
+            AtomicInteger contador = new AtomicInteger();
+            return Executors.newFixedThreadPool(concorrencia, tarefa -> {
+                Thread thread = new Thread(tarefa, prefixo + "-" + contador.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    private static final class Job {
+
+        private final String id;
+        private final String dono;
+        private final String idioma;
+        private final LocalDateTime criadoEm;
+        private final CompletableFuture<Void> conclusao = new CompletableFuture<>();
+        private volatile Status status = Status.PENDENTE;
+        private volatile LocalDateTime concluidoEm;
+        private volatile SkillsSugeridasDTO resultado;
+
+        private Job(String id, String dono, String idioma, LocalDateTime criadoEm) {
+            this.id = id;
+            this.dono = dono;
+            this.idioma = idioma;
+            this.criadoEm = criadoEm;
+        }
+
+        private void concluir(Status status, SkillsSugeridasDTO resultado) {
+            this.resultado = resultado;
+            this.concluidoEm = LocalDateTime.now();
+            this.status = status;
+            conclusao.complete(null);
+        }
+
+        private AnaliseJobDTO paraDTO() {
+            return new AnaliseJobDTO(id, status.name(), criadoEm, concluidoEm, resultado);
+        }
+    }
+}
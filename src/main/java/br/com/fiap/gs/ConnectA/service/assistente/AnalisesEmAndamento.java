@@ -0,0 +1,91 @@
+package br.com.fiap.gs.ConnectA.service.assistente;
+
+import br.com.fiap.gs.ConnectA.exception.ServicoIndisponivelException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight das análises de currículo: chamadas simultâneas com a mesma chave
+ * compartilham uma única execução. A primeira chamada executa na própria thread;
+ * as demais aguardam o resultado dela. Quem desiste (thread interrompida) sai sem
+ * afetar a execução nem os outros que aguardam.
+ */
+@Component
+public class AnalisesEmAndamento {
+
+    private final Map<String, CompletableFuture<List<String>>> emAndamento = new ConcurrentHashMap<>();
+
+    private final Counter coalescidas;
+    private final Counter desistencias;
+
+    public AnalisesEmAndamento(MeterRegistry meterRegistry) {
+        this.coalescidas = Counter.builder("assistente.analises.coalescidas")
+                .description("Análises que aproveitaram uma execução idêntica já em andamento")
+                .register(meterRegistry);
+        this.desistencias = Counter.builder("assistente.analises.coalescidas.canceladas")
+                .description("Chamadas coalescidas interrompidas antes do resultado")
+                .register(meterRegistry);
+        Gauge.builder("assistente.analises.em.andamento", emAndamento, Map::size)
+                .description("Análises distintas em execução")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Executa a análise ou, se já houver uma com a mesma chave, aguarda o resultado dela
+     *
+     * @throws ServicoIndisponivelException quando a thread que aguardava é interrompida
+     */
+    public List<String> executar(String chave, Supplier<List<String>> analisar) {
+        CompletableFuture<List<String>> novo = new CompletableFuture<>();
+        CompletableFuture<List<String>> existente = emAndamento.putIfAbsent(chave, novo);
+        if (existente != null) {
+            coalescidas.increment();
+            return aguardar(existente);
+        }
+
+        try {
+            List<String> skills = analisar.get();
+            // Sai do mapa antes de completar: quem chegar depois não herda um resultado já entregue
+            emAndamento.remove(chave, novo);
+            novo.complete(skills);
+            return skills;
+        } catch (RuntimeException | Error e) {
+            emAndamento.remove(chave, novo);
+            novo.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Cada chamada aguarda uma cópia do future compartilhado, então cancelar uma não cancela as outras
+     */
+    private List<String> aguardar(CompletableFuture<List<String>> compartilhado) {
+        CompletableFuture<List<String>> propria = compartilhado.thenApply(skills -> skills);
+        try {
+            return propria.get();
+        } catch (InterruptedException e) {
+            propria.cancel(false);
+            desistencias.increment();
+            Thread.currentThread().interrupt();
+            throw new ServicoIndisponivelException("Análise de currículo interrompida");
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (causa instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(causa);
+        }
+    }
+}
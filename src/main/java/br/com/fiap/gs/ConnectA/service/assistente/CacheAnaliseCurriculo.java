@@ -0,0 +1,314 @@
+package br.com.fiap.gs.ConnectA.service.assistente;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+
+/**
+ * Cache endereçado por conteúdo das análises de currículo.
+ * A chave é o SHA-256 do modelo, do prompt do idioma e do texto normalizado.
+ * Primeiro nível em memória (Caffeine); segundo nível num arquivo append-only
+ * que é relido na subida, então os acertos sobrevivem a reinícios.
+ */
+@Component
+@Slf4j
+public class CacheAnaliseCurriculo {
+
+    /**
+     * Registro no arquivo: tamanho do valor, CRC32 do valor, chave (32 bytes) e valor (JSON)
+     */
+    private static final int CABECALHO = Integer.BYTES + Long.BYTES + 32;
+
+    private final boolean habilitado;
+    private final Path caminhoArquivo;
+    private final long tamanhoMaximoArquivo;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, List<String>> memoria;
+
+    /**
+     * Posição de cada chave no arquivo
+     */
+    private final Map<String, Long> indiceDisco = new ConcurrentHashMap<>();
+    private volatile FileChannel arquivo;
+    private volatile long fimArquivo;
+
+    private final Counter acertosMemoria;
+    private final Counter acertosDisco;
+    private final Counter falhas;
+    private final Timer latenciaGroq;
+    private final DoubleAdder segundosEconomizados = new DoubleAdder();
+
+    public CacheAnaliseCurriculo(
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${connecta.assistente.cache.habilitado:true}") boolean habilitado,
+            @Value("${connecta.assistente.cache.max-size:1000}") long tamanhoMaximo,
+            @Value("${connecta.assistente.cache.arquivo:data/analises-curriculo.bin}") Path caminhoArquivo,
+            @Value("${connecta.assistente.cache.tamanho-maximo-arquivo:256MB}") DataSize tamanhoMaximoArquivo
+    ) {
+        this.habilitado = habilitado;
+        this.caminhoArquivo = caminhoArquivo;
+        this.tamanhoMaximoArquivo = tamanhoMaximoArquivo.toBytes();
+        this.objectMapper = objectMapper;
+        this.memoria = Caffeine.newBuilder().maximumSize(tamanhoMaximo).build();
+
+        this.acertosMemoria = Counter.builder("assistente.cache.consultas")
+                .description("Consultas ao cache de análises por resultado")
+                .tag("resultado", "memoria")
+                .register(meterRegistry);
+        this.acertosDisco = Counter.builder("assistente.cache.consultas")
+                .description("Consultas ao cache de análises por resultado")
+                .tag("resultado", "disco")
+                .register(meterRegistry);
+        this.falhas = Counter.builder("assistente.cache.consultas")
+                .description("Consultas ao cache de análises por resultado")
+                .tag("resultado", "miss")
+                .register(meterRegistry);
+        this.latenciaGroq = Timer.builder("assistente.groq.latencia")
+                .description("Duração das análises que foram até a API do Groq")
+                .register(meterRegistry);
+        Gauge.builder("assistente.cache.taxa.acerto", this, CacheAnaliseCurriculo::taxaAcerto)
+                .description("Fração das análises atendidas pelo cache")
+                .register(meterRegistry);
+        FunctionCounter.builder("assistente.cache.latencia.economizada", segundosEconomizados, DoubleAdder::sum)
+                .description("Tempo de chamadas ao Groq evitado pelos acertos (estimado pela média dos misses)")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void abrir() {
+        if (!habilitado) {
+            return;
+        }
+        try {
+            if (caminhoArquivo.getParent() != null) {
+                Files.createDirectories(caminhoArquivo.getParent());
+            }
+            arquivo = FileChannel.open(caminhoArquivo,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            fimArquivo = carregarIndice();
+            log.info("Cache de análises de currículo: {} entradas em {}", indiceDisco.size(), caminhoArquivo);
+        } catch (IOException e) {
+            log.warn("Arquivo do cache de análises indisponível ({}); seguindo só em memória", e.getMessage());
+            arquivo = null;
+        }
+    }
+
+    @PreDestroy
+    public synchronized void fechar() throws IOException {
+        if (arquivo != null) {
+            arquivo.force(false);
+            arquivo.close();
+            arquivo = null;
+        }
+    }
+
+    /**
+     * Resultado em cache para o mesmo currículo, idioma, prompt e modelo; senão executa a análise
+     */
+    public List<String> obter(String curriculo, String idioma, String prompt, String modelo,
+                              Supplier<List<String>> analisar) {
+        if (!habilitado) {
+            return analisar.get();
+        }
+        String chave = chave(curriculo, idioma, prompt, modelo);
+
+        List<String> skills = memoria.getIfPresent(chave);
+        if (skills != null) {
+            acertosMemoria.increment();
+            registrarEconomia();
+            return skills;
+        }
+        skills = lerDisco(chave);
+        if (skills != null) {
+            memoria.put(chave, skills);
+            acertosDisco.increment();
+            registrarEconomia();
+            return skills;
+        }
+
+        falhas.increment();
+        long inicio = System.nanoTime();
+        skills = analisar.get();
+        latenciaGroq.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        // Resposta vazia costuma ser falha do modelo: não vale guardar
+        if (!skills.isEmpty()) {
+            memoria.put(chave, skills);
+            gravarDisco(chave, skills);
+        }
+        return skills;
+    }
+
+    /**
+     * SHA-256 de modelo, idioma, prompt e currículo normalizado (NFC, espaços colapsados)
+     */
+    public static String chave(String curriculo, String idioma, String prompt, String modelo) {
+        String normalizado = Normalizer.normalize(curriculo, Normalizer.Form.NFC)
+                .strip()
+                .replaceAll("\\s+", " ");
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            for (String parte : new String[]{modelo, idioma, prompt, normalizado}) {
+                sha256.update(parte.getBytes(StandardCharsets.UTF_8));
+                sha256.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(sha256.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private double taxaAcerto() {
+        double acertos = acertosMemoria.count() + acertosDisco.count();
+        double total = acertos + falhas.count();
+        return total == 0 ? 0 : acertos / total;
+    }
+
+    private void registrarEconomia() {
+        segundosEconomizados.add(latenciaGroq.mean(TimeUnit.SECONDS));
+    }
+
+    private List<String> lerDisco(String chave) {
+        Long posicao = indiceDisco.get(chave);
+        FileChannel canal = arquivo;
+        if (posicao == null || canal == null) {
+            return null;
+        }
+        try {
+            ByteBuffer cabecalho = ler(canal, ByteBuffer.allocate(CABECALHO), posicao);
+            int tamanhoValor = cabecalho.getInt();
+            long crcEsperado = cabecalho.getLong();
+            byte[] chaveGravada = new byte[32];
+            cabecalho.get(chaveGravada);
+            // Tamanho danificado não pode virar uma alocação gigante antes do CRC recusar o registro
+            if (tamanhoValor < 0 || posicao + CABECALHO + tamanhoValor > fimArquivo
+                    || !HexFormat.of().formatHex(chaveGravada).equals(chave)) {
+                return descartarCorrompido(chave, posicao);
+            }
+            ByteBuffer valor = ler(canal, ByteBuffer.allocate(tamanhoValor), posicao + CABECALHO);
+            CRC32 crc = new CRC32();
+            crc.update(valor.array());
+            if (crc.getValue() != crcEsperado) {
+                return descartarCorrompido(chave, posicao);
+            }
+            return objectMapper.readValue(valor.array(), new TypeReference<List<String>>() {
+            });
+        } catch (IOException e) {
+            log.warn("Falha ao ler análise em cache do disco: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Registro alterado depois da carga: vira miss e a próxima análise grava um novo no fim do arquivo
+     */
+    private List<String> descartarCorrompido(String chave, long posicao) {
+        log.warn("Análise em cache corrompida no disco (posição {}); descartada", posicao);
+        indiceDisco.remove(chave, posicao);
+        return null;
+    }
+
+    private synchronized void gravarDisco(String chave, List<String> skills) {
+        if (arquivo == null || indiceDisco.containsKey(chave)) {
+            return;
+        }
+        try {
+            byte[] valor = objectMapper.writeValueAsBytes(skills);
+            if (fimArquivo + CABECALHO + valor.length > tamanhoMaximoArquivo) {
+                log.debug("Arquivo do cache de análises cheio; entrada mantida só em memória");
+                return;
+            }
+            CRC32 crc = new CRC32();
+            crc.update(valor);
+            ByteBuffer registro = ByteBuffer.allocate(CABECALHO + valor.length)
+                    .putInt(valor.length)
+                    .putLong(crc.getValue())
+                    .put(HexFormat.of().parseHex(chave))
+                    .put(valor)
+                    .flip();
+            long posicao = fimArquivo;
+            while (registro.hasRemaining()) {
+                arquivo.write(registro, posicao + registro.position());
+            }
+            fimArquivo = posicao + CABECALHO + valor.length;
+            indiceDisco.put(chave, posicao);
+        } catch (IOException e) {
+            log.warn("Falha ao gravar análise no cache em disco: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Relê o arquivo montando o índice. Registro completo com CRC inválido fica fora do índice;
+     * um registro final incompleto (queda no meio da escrita) é truncado
+     */
+    private long carregarIndice() throws IOException {
+        long tamanho = arquivo.size();
+        long posicao = 0;
+        ByteBuffer cabecalho = ByteBuffer.allocate(CABECALHO);
+        byte[] chave = new byte[32];
+        while (posicao + CABECALHO <= tamanho) {
+            ler(arquivo, cabecalho.clear(), posicao);
+            int tamanhoValor = cabecalho.getInt();
+            long crcEsperado = cabecalho.getLong();
+            cabecalho.get(chave);
+            if (tamanhoValor < 0 || posicao + CABECALHO + tamanhoValor > tamanho) {
+                break;
+            }
+            ByteBuffer valor = ler(arquivo, ByteBuffer.allocate(tamanhoValor), posicao + CABECALHO);
+            CRC32 crc = new CRC32();
+            crc.update(valor.array());
+            if (crc.getValue() == crcEsperado) {
+                indiceDisco.put(HexFormat.of().formatHex(chave), posicao);
+            } else {
+                log.warn("Cache de análises: registro corrompido na posição {} ignorado", posicao);
+            }
+            posicao += CABECALHO + tamanhoValor;
+        }
+        if (posicao < tamanho) {
+            log.warn("Cache de análises: {} bytes corrompidos no fim do arquivo descartados", tamanho - posicao);
+            arquivo.truncate(posicao);
+        }
+        return posicao;
+    }
+
+    private static ByteBuffer ler(FileChannel canal, ByteBuffer destino, long posicao) throws IOException {
+        while (destino.hasRemaining()) {
+            if (canal.read(destino, posicao + destino.position()) < 0) {
+                throw new IOException("Fim inesperado do arquivo");
+            }
+        }
+        return destino.flip();
+    }
+}
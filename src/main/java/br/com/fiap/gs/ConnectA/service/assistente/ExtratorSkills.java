@@ -0,0 +1,124 @@
+package br.com.fiap.gs.ConnectA.service.assistente;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Lê o JSON {"skills": [...]} à medida que os fragmentos chegam do modelo e
+ * entrega cada skill assim que a string dela fecha. Usa o parser não bloqueante
+ * do Jackson, então escapes e strings partidas entre fragmentos são tratados.
+ * Texto antes do primeiro '{' (ex.: ```json) e depois do objeto é ignorado.
+ */
+public class ExtratorSkills {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final Consumer<String> aoEncontrar;
+    private final JsonParser parser;
+    private final StringBuilder texto = new StringBuilder();
+    private final List<String> skills = new ArrayList<>();
+
+    private boolean iniciado;
+    private boolean encerrado;
+    private int profundidade;
+    private boolean campoSkills;
+    private boolean dentroDeSkills;
+
+    public ExtratorSkills(Consumer<String> aoEncontrar) {
+        this.aoEncontrar = aoEncontrar;
+        try {
+            this.parser = JSON_FACTORY.createNonBlockingByteArrayParser();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Consome mais um fragmento do conteúdo gerado
+     */
+    public void alimentar(String fragmento) {
+        texto.append(fragmento);
+        if (encerrado) {
+            return;
+        }
+        String entrada = fragmento;
+        if (!iniciado) {
+            int inicio = fragmento.indexOf('{');
+            if (inicio < 0) {
+                return;
+            }
+            iniciado = true;
+            entrada = fragmento.substring(inicio);
+        }
+
+        byte[] bytes = entrada.getBytes(StandardCharsets.UTF_8);
+        try {
+            ((ByteArrayFeeder) parser.getNonBlockingInputFeeder()).feedInput(bytes, 0, bytes.length);
+            JsonToken token;
+            while (!encerrado && (token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                processar(token);
+            }
+        } catch (IOException e) {
+            // Não é JSON: o texto completo continua disponível para o parsing alternativo
+            encerrado = true;
+        }
+    }
+
+    /**
+     * Skills já entregues, na ordem em que apareceram
+     */
+    public List<String> getSkills() {
+        return skills;
+    }
+
+    /**
+     * Conteúdo completo recebido até agora
+     */
+    public String getTexto() {
+        return texto.toString();
+    }
+
+    private void processar(JsonToken token) throws IOException {
+        switch (token) {
+            case START_OBJECT, START_ARRAY -> {
+                if (token == JsonToken.START_ARRAY && profundidade == 1 && campoSkills) {
+                    dentroDeSkills = true;
+                }
+                profundidade++;
+            }
+            case END_OBJECT, END_ARRAY -> {
+                profundidade--;
+                if (profundidade == 1) {
+                    dentroDeSkills = false;
+                }
+                if (profundidade == 0) {
+                    encerrado = true;
+                }
+            }
+            case FIELD_NAME -> {
+                if (profundidade == 1) {
+                    campoSkills = "skills".equals(parser.currentName());
+                }
+            }
+            case VALUE_STRING -> {
+                if (dentroDeSkills && profundidade == 2) {
+                    String skill = parser.getText().trim();
+                    if (!skill.isEmpty()) {
+                        skills.add(skill);
+                        aoEncontrar.accept(skill);
+                    }
+                }
+            }
+            default -> {
+            }
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package br.com.fiap.gs.ConnectA.service.assistente;
+
+import br.com.fiap.gs.ConnectA.exception.GroqIndisponivelException;
+import br.com.fiap.gs.ConnectA.exception.ServicoIndisponivelException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.HttpStatusCodeException;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Agenda as chamadas ao Groq dentro dos limites da conta: dois token buckets,
+ * requisições por minuto e tokens por minuto, reabastecidos continuamente.
+ * Um 429 pausa todas as chamadas pelo Retry-After informado; 429 e 5xx
+ * transitórios são repetidos com backoff exponencial e jitter. Chamadas recusadas
+ * antes de sair (circuito aberto, bulkhead cheio) não consomem cota.
+ */
+@Component
+@Slf4j
+public class LimitadorTaxaGroq {
+
+    private static final long NANOS_POR_MINUTO = TimeUnit.MINUTES.toNanos(1);
+
+    private final double capacidadeRequisicoes;
+    private final double capacidadeTokens;
+    private final int maxTentativas;
+    private final long backoffInicialNanos;
+    private final long backoffMaximoNanos;
+    private final Duration esperaMaxima;
+
+    private double requisicoesDisponiveis;
+    private double tokensDisponiveis;
+    private long ultimoReabastecimento = System.nanoTime();
+    private long pausadoAte = ultimoReabastecimento;
+
+    private final Timer espera;
+    private final Counter limitadas;
+    private final Counter retentativas;
+
+    public LimitadorTaxaGroq(
+            MeterRegistry meterRegistry,
+            @Value("${groq.limite.requisicoes-por-minuto:30}") int requisicoesPorMinuto,
+            @Value("${groq.limite.tokens-por-minuto:12000}") int tokensPorMinuto,
+            @Value("${groq.limite.max-tentativas:4}") int maxTentativas,
+            @Value("${groq.limite.backoff-inicial:PT1S}") Duration backoffInicial,
+            @Value("${groq.limite.backoff-maximo:PT30S}") Duration backoffMaximo,
+            @Value("${groq.limite.espera-maxima:PT30S}") Duration esperaMaxima
+    ) {
+        this.capacidadeRequisicoes = Math.max(1, requisicoesPorMinuto);
+        this.capacidadeTokens = Math.max(1, tokensPorMinuto);
+        this.maxTentativas = Math.max(1, maxTentativas);
+        this.backoffInicialNanos = backoffInicial.toNanos();
+        this.backoffMaximoNanos = backoffMaximo.toNanos();
+        this.esperaMaxima = esperaMaxima;
+        this.requisicoesDisponiveis = capacidadeRequisicoes;
+        this.tokensDisponiveis = capacidadeTokens;
+
+        this.espera = Timer.builder("assistente.groq.limitador.espera")
+                .description("Tempo aguardando vaga no limite de taxa do Groq")
+                .register(meterRegistry);
+        this.limitadas = Counter.builder("assistente.groq.respostas.limitadas")
+                .description("Respostas 429 recebidas do Groq")
+                .register(meterRegistry);
+        this.retentativas = Counter.builder("assistente.groq.retentativas")
+                .description("Chamadas ao Groq repetidas após 429 ou 5xx")
+                .register(meterRegistry);
+        Gauge.builder("assistente.groq.limitador.tokens.disponiveis", this, LimitadorTaxaGroq::tokensDisponiveis)
+                .description("Tokens disponíveis no bucket de tokens por minuto")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Espera padrão por vaga, usada nas análises interativas
+     */
+    public Duration getEsperaMaxima() {
+        return esperaMaxima;
+    }
+
+    /**
+     * Executa a chamada quando houver vaga nos dois buckets, repetindo 429 e 5xx transitórios
+     *
+     * @param tokensEstimados prompt + max_tokens da requisição, descontados do bucket de tokens
+     * @param esperaMaxima    prazo total para conseguir vaga (inclui esperas entre tentativas)
+     * @throws ServicoIndisponivelException quando o prazo não comporta a próxima vaga ou tentativa
+     */
+    public <T> T executar(int tokensEstimados, Duration esperaMaxima, Supplier<T> chamada) {
+        return executar(tokensEstimados, esperaMaxima, () -> { }, chamada);
+    }
+
+    /**
+     * Como {@link #executar(int, Duration, Supplier)}, consultando antes de cada espera se ainda vale a pena
+     * esperar (ex.: circuito aberto). Chamada recusada sem sair ({@link GroqIndisponivelException}) devolve
+     * a vaga aos buckets.
+     *
+     * @param verificarAntes lança para desistir sem esperar e sem consumir vaga
+     */
+    public <T> T executar(int tokensEstimados, Duration esperaMaxima, Runnable verificarAntes, Supplier<T> chamada) {
+        long prazo = System.nanoTime() + esperaMaxima.toNanos();
+        // Requisição maior que o bucket nunca caberia: basta esperar o bucket encher
+        double tokens = Math.min(Math.max(0, tokensEstimados), capacidadeTokens);
+        for (int tentativa = 1; ; tentativa++) {
+            adquirir(tokens, prazo, verificarAntes);
+            try {
+                return chamada.get();
+            } catch (GroqIndisponivelException e) {
+                devolver(tokens);
+                throw e;
+            } catch (HttpClientErrorException.TooManyRequests e) {
+                limitadas.increment();
+                Long retryAfter = retryAfterNanos(e.getResponseHeaders());
+                if (retryAfter != null) {
+                    pausar(retryAfter);
+                }
+                if (tentativa >= maxTentativas) {
+                    throw new ServicoIndisponivelException("Limite de taxa do Groq excedido");
+                }
+                // Com Retry-After, espera o indicado mais um jitter para não voltarem todos juntos
+                long pausa = retryAfter != null
+                        ? retryAfter + ThreadLocalRandom.current().nextLong(backoffInicialNanos + 1)
+                        : backoff(tentativa);
+                aguardarParaRepetir(e, pausa, prazo, tentativa);
+            } catch (HttpServerErrorException.BadGateway
+                     | HttpServerErrorException.ServiceUnavailable
+                     | HttpServerErrorException.GatewayTimeout e) {
+                if (tentativa >= maxTentativas) {
+                    throw e;
+                }
+                aguardarParaRepetir(e, backoff(tentativa), prazo, tentativa);
+            }
+        }
+    }
+
+    /**
+     * Reserva vaga só se houver agora, sem esperar (ex.: cópia de um hedge)
+     */
+    public boolean tentarAdquirir(int tokensEstimados) {
+        return reservar(Math.min(Math.max(0, tokensEstimados), capacidadeTokens)) == 0;
+    }
+
+    private void aguardarParaRepetir(HttpStatusCodeException erro, long pausa, long prazo, int tentativa) {
+        if (System.nanoTime() + pausa > prazo) {
+            throw new ServicoIndisponivelException("Limite de taxa do Groq excedido");
+        }
+        retentativas.increment();
+        log.warn("Groq respondeu {}; tentativa {} de {} em {} ms",
+                erro.getStatusCode().value(), tentativa + 1, maxTentativas, TimeUnit.NANOSECONDS.toMillis(pausa));
+        dormir(pausa);
+    }
+
+    /**
+     * Bloqueia até haver uma requisição e os tokens estimados nos buckets
+     */
+    private void adquirir(double tokens, long prazo, Runnable verificarAntes) {
+        long inicio = System.nanoTime();
+        long aguardar;
+        try {
+            verificarAntes.run();
+            while ((aguardar = reservar(tokens)) > 0) {
+                if (System.nanoTime() + aguardar > prazo) {
+                    throw new ServicoIndisponivelException("Limite de taxa do Groq excedido");
+                }
+                dormir(aguardar);
+                verificarAntes.run();
+            }
+        } finally {
+            espera.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Desconta dos buckets e devolve 0, ou devolve quantos nanos faltam para caber
+     */
+    private synchronized long reservar(double tokens) {
+        long agora = System.nanoTime();
+        if (agora < pausadoAte) {
+            return pausadoAte - agora;
+        }
+        reabastecer(agora);
+        if (requisicoesDisponiveis >= 1 && tokensDisponiveis >= tokens) {
+            requisicoesDisponiveis -= 1;
+            tokensDisponiveis -= tokens;
+            return 0;
+        }
+        double faltaRequisicoes = Math.max(0, 1 - requisicoesDisponiveis) / capacidadeRequisicoes;
+        double faltaTokens = Math.max(0, tokens - tokensDisponiveis) / capacidadeTokens;
+        return Math.max(1, (long) Math.ceil(Math.max(faltaRequisicoes, faltaTokens) * NANOS_POR_MINUTO));
+    }
+
+    private void reabastecer(long agora) {
+        double minutos = (double) (agora - ultimoReabastecimento) / NANOS_POR_MINUTO;
+        requisicoesDisponiveis = Math.min(capacidadeRequisicoes, requisicoesDisponiveis + minutos * capacidadeRequisicoes);
+        tokensDisponiveis = Math.min(capacidadeTokens, tokensDisponiveis + minutos * capacidadeTokens);
+        ultimoReabastecimento = agora;
+    }
+
+    /**
+     * Devolve a vaga de uma chamada que não chegou a sair
+     */
+    private synchronized void devolver(double tokens) {
+        reabastecer(System.nanoTime());
+        requisicoesDisponiveis = Math.min(capacidadeRequisicoes, requisicoesDisponiveis + 1);
+        tokensDisponiveis = Math.min(capacidadeTokens, tokensDisponiveis + tokens);
+    }
+
+    /**
+     * O Groq mandou esperar: ninguém chama até lá
+     */
+    private synchronized void pausar(long nanos) {
+        pausadoAte = Math.max(pausadoAte, System.nanoTime() + nanos);
+    }
+
+    private synchronized double tokensDisponiveis() {
+        reabastecer(System.nanoTime());
+        return tokensDisponiveis;
+    }
+
+    /**
+     * Backoff exponencial com jitter completo: aleatório entre 0 e min(máximo, inicial * 2^(tentativa-1))
+     */
+    private long backoff(int tentativa) {
+        long teto = Math.min(backoffMaximoNanos, backoffInicialNanos << Math.min(tentativa - 1, 20));
+        return ThreadLocalRandom.current().nextLong(teto + 1);
+    }
+
+    /**
+     * Retry-After em segundos ou como data HTTP
+     */
+    static Long retryAfterNanos(HttpHeaders headers) {
+        String valor = headers == null ? null : headers.getFirst(HttpHeaders.RETRY_AFTER);
+        if (valor == null || valor.isBlank()) {
+            return null;
+        }
+        try {
+            return TimeUnit.MILLISECONDS.toNanos((long) (Double.parseDouble(valor.trim()) * 1000));
+        } catch (NumberFormatException e) {
+            try {
+                ZonedDateTime quando = ZonedDateTime.parse(valor.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+                return Math.max(0, Duration.between(ZonedDateTime.now(quando.getZone()), quando).toNanos());
+            } catch (DateTimeParseException ex) {
+                return null;
+            }
+        }
+    }
+
+    private static void dormir(long nanos) {
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServicoIndisponivelException("Chamada ao Groq interrompida");
+        }
+    }
+}
@@ -0,0 +1,477 @@
+package br.com.fiap.gs.ConnectA.service.assistente;
+
+import br.com.fiap.gs.ConnectA.exception.GroqIndisponivelException;
+import br.com.fiap.gs.ConnectA.exception.ServicoIndisponivelException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Proteções em volta de cada chamada HTTP ao Groq:
+ * <ul>
+ *     <li>circuit breaker por taxa de falhas e de chamadas lentas numa janela das últimas N chamadas;
+ *     aberto, recusa na hora com {@link GroqIndisponivelException} até a espera passar e algumas
+ *     chamadas de teste (meio aberto) confirmarem a recuperação;</li>
+ *     <li>bulkhead: no máximo N chamadas simultâneas, quem não consegue vaga a tempo é recusado;</li>
+ *     <li>hedge opcional: sem resposta depois do p95 recente, dispara uma cópia e fica com a primeira
+ *     que responder.</li>
+ * </ul>
+ * Só erros de transporte (conexão, timeout, prazo total) e respostas 5xx contam como falha. Os demais
+ * (4xx, inclusive 429, e exceções do próprio consumidor, como o cliente do SSE que desconectou no meio
+ * do streaming) não dizem nada sobre a saúde do Groq.
+ */
+@Component
+@Slf4j
+public class ResilienciaGroq {
+
+    public enum Estado {
+        FECHADO,
+        MEIO_ABERTO,
+        ABERTO
+    }
+
+    private static final int AMOSTRAS_LATENCIA = 200;
+    private static final int MINIMO_AMOSTRAS_HEDGE = 20;
+
+    private final MeterRegistry meterRegistry;
+
+    // Circuito
+    private final int minimoChamadas;
+    private final int taxaFalhas;
+    private final int taxaLentas;
+    private final long limiarLentidaoNanos;
+    private final long esperaAbertoNanos;
+    private final int chamadasMeioAberto;
+    private final boolean[] janelaFalhas;
+    private final boolean[] janelaLentas;
+    private int posicaoJanela;
+    private int totalJanela;
+    private int falhasJanela;
+    private int lentasJanela;
+    private volatile Estado estado = Estado.FECHADO;
+    private long abertoAte;
+    private int emTeste;
+    private int sucessosTeste;
+
+    // Bulkhead
+    private final Semaphore bulkhead;
+    private final long esperaBulkheadNanos;
+
+    // Hedge
+    private final boolean hedgeHabilitado;
+    private final long atrasoMinimoHedgeNanos;
+    private final double percentilHedge;
+    private final long[] latencias = new long[AMOSTRAS_LATENCIA];
+    private int proximaLatencia;
+    private int totalLatencias;
+    private final ExecutorService executor;
+
+    private final Counter sucessos;
+    private final Counter falhas;
+    private final Counter lentas;
+    private final Counter ignoradas;
+    private final Counter recusadasCircuito;
+    private final Counter recusadasBulkhead;
+    private final Counter hedges;
+    private final Counter hedgesVencedores;
+
+    public ResilienciaGroq(
+            MeterRegistry meterRegistry,
+            @Value("${groq.resiliencia.circuito.janela:20}") int janela,
+            @Value("${groq.resiliencia.circuito.minimo-chamadas:10}") int minimoChamadas,
+            @Value("${groq.resiliencia.circuito.taxa-falhas:50}") int taxaFalhas,
+            @Value("${groq.resiliencia.circuito.taxa-lentas:80}") int taxaLentas,
+            @Value("${groq.resiliencia.circuito.limiar-lentidao:PT10S}") Duration limiarLentidao,
+            @Value("${groq.resiliencia.circuito.espera-aberto:PT30S}") Duration esperaAberto,
+            @Value("${groq.resiliencia.circuito.chamadas-meio-aberto:3}") int chamadasMeioAberto,
+            @Value("${groq.resiliencia.bulkhead.max-concorrentes:20}") int maxConcorrentes,
+            @Value("${groq.resiliencia.bulkhead.espera:PT1S}") Duration esperaBulkhead,
+            @Value("${groq.resiliencia.hedge.habilitado:false}") boolean hedgeHabilitado,
+            @Value("${groq.resiliencia.hedge.atraso-minimo:PT2S}") Duration atrasoMinimoHedge,
+            @Value("${groq.resiliencia.hedge.percentil:0.95}") double percentilHedge
+    ) {
+        this.meterRegistry = meterRegistry;
+        this.janelaFalhas = new boolean[Math.max(1, janela)];
+        this.janelaLentas = new boolean[Math.max(1, janela)];
+        this.minimoChamadas = Math.max(1, Math.min(minimoChamadas, janelaFalhas.length));
+        this.taxaFalhas = taxaFalhas;
+        this.taxaLentas = taxaLentas;
+        this.limiarLentidaoNanos = limiarLentidao.toNanos();
+        this.esperaAbertoNanos = esperaAberto.toNanos();
+        this.chamadasMeioAberto = Math.max(1, chamadasMeioAberto);
+        this.bulkhead = new Semaphore(Math.max(1, maxConcorrentes));
+        this.esperaBulkheadNanos = esperaBulkhead.toNanos();
+        this.hedgeHabilitado = hedgeHabilitado;
+        this.atrasoMinimoHedgeNanos = atrasoMinimoHedge.toNanos();
+        this.percentilHedge = percentilHedge;
+        this.executor = hedgeHabilitado ? criarExecutor() : null;
+
+        this.sucessos = contadorChamadas("sucesso");
+        this.falhas = contadorChamadas("falha");
+        this.lentas = contadorChamadas("lenta");
+        this.ignoradas = contadorChamadas("erro_cliente");
+        this.recusadasCircuito = contadorChamadas("circuito_aberto");
+        this.recusadasBulkhead = contadorChamadas("bulkhead_cheio");
+        this.hedges = Counter.builder("assistente.groq.hedges")
+                .description("Cópias disparadas para chamadas mais lentas que o percentil configurado")
+                .register(meterRegistry);
+        this.hedgesVencedores = Counter.builder("assistente.groq.hedges.vencedores")
+                .description("Cópias que responderam antes da chamada original")
+                .register(meterRegistry);
+        Gauge.builder("assistente.groq.circuito.estado", this, resiliencia -> resiliencia.estado.ordinal())
+                .description("Estado do circuito do Groq: 0 fechado, 1 meio aberto, 2 aberto")
+                .register(meterRegistry);
+        Gauge.builder("assistente.groq.bulkhead.ocupacao", bulkhead, semaforo -> Math.max(1, maxConcorrentes) - semaforo.availablePermits())
+                .description("Chamadas ao Groq em andamento")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    public Estado getEstado() {
+        return estado;
+    }
+
+    /**
+     * Recusa na hora enquanto o circuito não aceita chamadas, sem ocupar vaga de teste.
+     * Para quem ainda vai esperar por outra coisa antes de chamar (ex.: cota no limite de taxa).
+     *
+     * @throws GroqIndisponivelException quando o circuito está aberto
+     */
+    public synchronized void verificarCircuito() {
+        boolean aberto = estado == Estado.ABERTO && System.nanoTime() - abertoAte < 0;
+        boolean semVagaDeTeste = estado == Estado.MEIO_ABERTO && emTeste >= chamadasMeioAberto;
+        if (aberto || semVagaDeTeste) {
+            recusadasCircuito.increment();
+            throw new GroqIndisponivelException("Circuito do Groq aberto");
+        }
+    }
+
+    /**
+     * Chamada protegida por circuito e bulkhead, sem hedge (ex.: streaming)
+     *
+     * @throws GroqIndisponivelException quando o circuito está aberto ou não há vaga no bulkhead
+     */
+    public <T> T executar(Supplier<T> chamada) {
+        return executar(chamada, null);
+    }
+
+    /**
+     * Chamada protegida por circuito e bulkhead, com hedge quando habilitado
+     *
+     * @param reservarCopia autoriza a cópia do hedge (ex.: vaga no limite de taxa); false cancela o hedge,
+     *                      null desliga o hedge para esta chamada
+     * @throws GroqIndisponivelException quando o circuito está aberto ou não há vaga no bulkhead
+     */
+    public <T> T executar(Supplier<T> chamada, BooleanSupplier reservarCopia) {
+        boolean teste = permitir();
+        if (!ocuparBulkhead()) {
+            devolverTeste(teste);
+            recusadasBulkhead.increment();
+            throw new GroqIndisponivelException("Limite de chamadas simultâneas ao Groq atingido");
+        }
+        long atrasoHedge = teste || reservarCopia == null ? Long.MAX_VALUE : atrasoHedge();
+        if (atrasoHedge == Long.MAX_VALUE) {
+            try {
+                return medir(chamada, teste);
+            } finally {
+                bulkhead.release();
+            }
+        }
+        return executarComHedge(chamada, reservarCopia, atrasoHedge);
+    }
+
+    private <T> T executarComHedge(Supplier<T> chamada, BooleanSupplier reservarCopia, long atraso) {
+        CompletableFuture<T> original = CompletableFuture.supplyAsync(() -> {
+            try {
+                return medir(chamada, false);
+            } finally {
+                bulkhead.release();
+            }
+        }, executor);
+        try {
+            return original.get(atraso, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // Mais lenta que o percentil: tenta a cópia se houver cota e vaga, sem esperar por nenhuma das duas
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServicoIndisponivelException("Chamada ao Groq interrompida");
+        } catch (ExecutionException e) {
+            throw relancar(e);
+        }
+        if (estado != Estado.FECHADO || !bulkhead.tryAcquire()) {
+            return aguardar(original);
+        }
+        if (!reservarCopia.getAsBoolean()) {
+            bulkhead.release();
+            return aguardar(original);
+        }
+        hedges.increment();
+        CompletableFuture<T> copia = CompletableFuture.supplyAsync(() -> {
+            try {
+                return medir(chamada, false);
+            } finally {
+                bulkhead.release();
+            }
+        }, executor);
+
+        // Vence a primeira que responder com sucesso; só falha se as duas falharem
+        CompletableFuture<T> primeira = new CompletableFuture<>();
+        AtomicInteger falhasAteAgora = new AtomicInteger();
+        original.whenComplete((resultado, erro) -> concluir(primeira, resultado, erro, falhasAteAgora));
+        copia.whenComplete((resultado, erro) -> {
+            if (erro == null && !primeira.isDone()) {
+                hedgesVencedores.increment();
+            }
+            concluir(primeira, resultado, erro, falhasAteAgora);
+        });
+        // A perdedora termina em segundo plano (limitada pelo prazo do cliente HTTP) e ainda conta na janela
+        return aguardar(primeira);
+    }
+
+    private static <T> void concluir(CompletableFuture<T> primeira, T resultado, Throwable erro, AtomicInteger falhas) {
+        if (erro == null) {
+            primeira.complete(resultado);
+        } else if (falhas.incrementAndGet() == 2) {
+            primeira.completeExceptionally(erro);
+        }
+    }
+
+    private <T> T aguardar(CompletableFuture<T> futuro) {
+        try {
+            return futuro.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServicoIndisponivelException("Chamada ao Groq interrompida");
+        } catch (ExecutionException e) {
+            throw relancar(e);
+        }
+    }
+
+    private static RuntimeException relancar(ExecutionException e) {
+        Throwable causa = e.getCause();
+        if (causa instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        if (causa instanceof Error error) {
+            throw error;
+        }
+        return new IllegalStateException(causa);
+    }
+
+    /**
+     * Executa medindo a duração e registra o resultado na janela do circuito
+     */
+    private <T> T medir(Supplier<T> chamada, boolean teste) {
+        long inicio = System.nanoTime();
+        try {
+            T resultado = chamada.get();
+            long duracao = System.nanoTime() - inicio;
+            registrar(teste, duracao, false);
+            registrarLatencia(duracao);
+            return resultado;
+        } catch (ResourceAccessException | HttpServerErrorException e) {
+            registrar(teste, System.nanoTime() - inicio, true);
+            throw e;
+        } catch (RuntimeException | Error e) {
+            registrar(teste, System.nanoTime() - inicio, null);
+            throw e;
+        }
+    }
+
+    private boolean ocuparBulkhead() {
+        try {
+            return bulkhead.tryAcquire(esperaBulkheadNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Libera a chamada ou recusa na hora; devolve true quando é uma chamada de teste do meio aberto
+     */
+    private synchronized boolean permitir() {
+        if (estado == Estado.ABERTO) {
+            if (System.nanoTime() - abertoAte < 0) {
+                recusadasCircuito.increment();
+                throw new GroqIndisponivelException("Circuito do Groq aberto");
+            }
+            transicionar(Estado.MEIO_ABERTO);
+            emTeste = 0;
+            sucessosTeste = 0;
+        }
+        if (estado == Estado.MEIO_ABERTO) {
+            if (emTeste >= chamadasMeioAberto) {
+                recusadasCircuito.increment();
+                throw new GroqIndisponivelException("Circuito do Groq aberto");
+            }
+            emTeste++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Chamada de teste que nem chegou a sair (bulkhead cheio): a vaga de teste volta
+     */
+    private synchronized void devolverTeste(boolean teste) {
+        if (teste && estado == Estado.MEIO_ABERTO) {
+            emTeste--;
+        }
+    }
+
+    /**
+     * Registra o resultado de uma chamada liberada
+     *
+     * @param falhou null quando o resultado não diz nada sobre a saúde do Groq (4xx, erro do consumidor)
+     */
+    private synchronized void registrar(boolean teste, long duracao, Boolean falhou) {
+        boolean lenta = duracao > limiarLentidaoNanos;
+        contar(falhou, lenta);
+        if (teste) {
+            if (estado != Estado.MEIO_ABERTO) {
+                return;
+            }
+            emTeste--;
+            if (falhou == null) {
+                return;
+            }
+            if (falhou || lenta) {
+                abrir();
+            } else if (++sucessosTeste >= chamadasMeioAberto) {
+                transicionar(Estado.FECHADO);
+                limparJanela();
+            }
+            return;
+        }
+        // Respostas que chegam depois de o circuito abrir não mudam mais nada
+        if (estado != Estado.FECHADO || falhou == null) {
+            return;
+        }
+        if (totalJanela == janelaFalhas.length) {
+            falhasJanela -= janelaFalhas[posicaoJanela] ? 1 : 0;
+            lentasJanela -= janelaLentas[posicaoJanela] ? 1 : 0;
+        } else {
+            totalJanela++;
+        }
+        janelaFalhas[posicaoJanela] = falhou;
+        janelaLentas[posicaoJanela] = lenta;
+        falhasJanela += falhou ? 1 : 0;
+        lentasJanela += lenta ? 1 : 0;
+        posicaoJanela = (posicaoJanela + 1) % janelaFalhas.length;
+
+        if (totalJanela >= minimoChamadas
+                && (falhasJanela * 100 >= taxaFalhas * totalJanela || lentasJanela * 100 >= taxaLentas * totalJanela)) {
+            log.warn("Circuito do Groq aberto: {} falhas e {} lentas nas últimas {} chamadas",
+                    falhasJanela, lentasJanela, totalJanela);
+            abrir();
+        }
+    }
+
+    private void contar(Boolean falhou, boolean lenta) {
+        if (falhou == null) {
+            ignoradas.increment();
+        } else if (falhou) {
+            falhas.increment();
+        } else if (lenta) {
+            lentas.increment();
+        } else {
+            sucessos.increment();
+        }
+    }
+
+    private void abrir() {
+        transicionar(Estado.ABERTO);
+        abertoAte = System.nanoTime() + esperaAbertoNanos;
+        limparJanela();
+    }
+
+    private void limparJanela() {
+        Arrays.fill(janelaFalhas, false);
+        Arrays.fill(janelaLentas, false);
+        posicaoJanela = 0;
+        totalJanela = 0;
+        falhasJanela = 0;
+        lentasJanela = 0;
+    }
+
+    private void transicionar(Estado novo) {
+        if (novo == estado) {
+            return;
+        }
+        Counter.builder("assistente.groq.circuito.transicoes")
+                .description("Mudanças de estado do circuito do Groq")
+                .tag("de", estado.name().toLowerCase())
+                .tag("para", novo.name().toLowerCase())
+                .register(meterRegistry)
+                .increment();
+        log.info("Circuito do Groq: {} -> {}", estado, novo);
+        estado = novo;
+    }
+
+    private synchronized void registrarLatencia(long duracao) {
+        latencias[proximaLatencia] = duracao;
+        proximaLatencia = (proximaLatencia + 1) % latencias.length;
+        totalLatencias = Math.min(totalLatencias + 1, latencias.length);
+    }
+
+    /**
+     * Percentil das latências recentes (mínimo configurado); sem hedge enquanto não há amostras suficientes
+     */
+    private long atrasoHedge() {
+        if (!hedgeHabilitado) {
+            return Long.MAX_VALUE;
+        }
+        long[] amostras;
+        synchronized (this) {
+            if (totalLatencias < MINIMO_AMOSTRAS_HEDGE) {
+                return Long.MAX_VALUE;
+            }
+            amostras = Arrays.copyOf(latencias, totalLatencias);
+        }
+        Arrays.sort(amostras);
+        int indice = (int) Math.min(amostras.length - 1, Math.ceil(percentilHedge * amostras.length) - 1);
+        return Math.max(atrasoMinimoHedgeNanos, amostras[Math.max(0, indice)]);
+    }
+
+    private Counter contadorChamadas(String resultado) {
+        return Counter.builder("assistente.groq.chamadas")
+                .description("Chamadas ao Groq por resultado")
+                .tag("resultado", resultado)
+                .register(meterRegistry);
+    }
+
+    private static ExecutorService criarExecutor() {
+        AtomicInteger contador = new AtomicInteger();
+        return Executors.newCachedThreadPool(tarefa -> {
+            Thread thread = new Thread(tarefa, "groq-chamada-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -0,0 +1,57 @@
+package br.com.fiap.gs.ConnectA.service.assistente;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Análise degradada, sem IA: procura no currículo tecnologias, metodologias e soft skills
+ * de uma lista fixa (as mesmas categorias pedidas no prompt do Groq).
+ */
+public final class SkillsConhecidas {
+
+    private static final int MAX_SKILLS = 20;
+
+    private static final List<String> CATALOGO = List.of(
+            "Java", "Python", "JavaScript", "TypeScript", "C#", "C++", "Kotlin", "PHP", "Ruby", "Swift", "Scala", "SQL",
+            "Spring Boot", "React", "Angular", "Vue.js", "Node.js", "Django", "Flask", ".NET", "Hibernate", "Express",
+            "MySQL", "PostgreSQL", "MongoDB", "Oracle", "SQL Server", "Redis", "Elasticsearch",
+            "Docker", "Kubernetes", "Git", "Jenkins", "RabbitMQ", "Kafka", "Linux", "Terraform",
+            "AWS", "Azure", "GCP", "Heroku",
+            "Scrum", "Agile", "Kanban", "CI/CD", "TDD", "DevOps", "REST",
+            "Liderança", "Comunicação", "Trabalho em equipe", "Resolução de problemas",
+            "Liderazgo", "Comunicación", "Trabajo en equipo", "Resolución de problemas"
+    );
+
+    /**
+     * Cada skill só casa como termo inteiro: "Java" não casa em "JavaScript"
+     */
+    private static final Map<String, Pattern> PADROES = CATALOGO.stream()
+            .collect(Collectors.toMap(
+                    skill -> skill,
+                    skill -> Pattern.compile("(?<![\\p{L}\\p{N}])" + Pattern.quote(skill) + "(?![\\p{L}\\p{N}#+])",
+                            Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE)));
+
+    private SkillsConhecidas() {
+    }
+
+    /**
+     * Skills do catálogo presentes no currículo, na ordem em que aparecem
+     */
+    public static List<String> encontrar(String curriculo) {
+        Map<Integer, String> porPosicao = new TreeMap<>();
+        PADROES.forEach((skill, padrao) -> {
+            Matcher matcher = padrao.matcher(curriculo);
+            if (matcher.find()) {
+                // Na mesma posição fica o termo mais longo ("SQL Server" em vez de "SQL")
+                porPosicao.merge(matcher.start(), skill, (atual, nova) -> nova.length() > atual.length() ? nova : atual);
+            }
+        });
+        return porPosicao.values().stream()
+                .limit(MAX_SKILLS)
+                .toList();
+    }
+}
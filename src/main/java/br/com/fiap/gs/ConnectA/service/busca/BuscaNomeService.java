@@ -0,0 +1,221 @@
+package br.com.fiap.gs.ConnectA.service.busca;
+
+import br.com.fiap.gs.ConnectA.dto.UsuarioNomeDTO;
+import br.com.fiap.gs.ConnectA.dto.evento.UsuariosAlteradosEvento;
+import br.com.fiap.gs.ConnectA.dto.UsuarioResponseDTO;
+import br.com.fiap.gs.ConnectA.repository.UsuarioRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Busca de usuários ativos por nome usando o índice de trigramas em memória.
+ * Enquanto o índice não está carregado, a busca cai para a consulta LIKE do banco.
+ * Carga e atualizações rodam numa única thread própria, na ordem em que chegam:
+ * quem publica a alteração (requisição após o commit, listener de invalidação)
+ * só enfileira os ids.
+ */
+@Service
+@Slf4j
+public class BuscaNomeService {
+
+    /**
+     * Limite de itens por cláusula IN no Oracle
+     */
+    private static final int LOTE_IN = 1000;
+
+    private final UsuarioRepository usuarioRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean habilitado;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Queue<Long> pendentes = new ConcurrentLinkedQueue<>();
+    private final ExecutorService atualizacoes = Executors.newSingleThreadExecutor(tarefa -> {
+        Thread thread = new Thread(tarefa, "indice-nomes");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private IndiceTrigramas indice = new IndiceTrigramas();
+    private boolean pronto;
+
+    /**
+     * Carga falhou: as alterações são descartadas em vez de acumular (só na thread do índice)
+     */
+    private boolean cargaFalhou;
+
+    public BuscaNomeService(
+            UsuarioRepository usuarioRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${connecta.busca.indice-nomes.habilitado:true}") boolean habilitado
+    ) {
+        this.usuarioRepository = usuarioRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.habilitado = habilitado;
+    }
+
+    /**
+     * Carrega o índice em segundo plano quando a aplicação sobe
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciarCarga() {
+        if (!habilitado) {
+            return;
+        }
+        atualizacoes.execute(this::carregar);
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        atualizacoes.shutdownNow();
+    }
+
+    /**
+     * Busca paginada por relevância; vazio quando o índice ainda não está disponível
+     */
+    public Optional<Page<UsuarioResponseDTO>> buscar(String nome, Pageable pageable) {
+        IndiceTrigramas.Resultado resultado;
+        lock.readLock().lock();
+        try {
+            if (!pronto) {
+                return Optional.empty();
+            }
+            resultado = indice.buscar(nome, (int) pageable.getOffset(), pageable.getPageSize());
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Long> ids = new ArrayList<>(resultado.ids().length);
+        for (long id : resultado.ids()) {
+            ids.add(id);
+        }
+
+        Map<Long, UsuarioResponseDTO> porId = new HashMap<>();
+        if (!ids.isEmpty()) {
+            usuarioRepository.buscarResumosPorIds(ids).forEach(usuario -> porId.put(usuario.getId(), usuario));
+        }
+
+        List<UsuarioResponseDTO> pagina = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            UsuarioResponseDTO usuario = porId.get(id);
+            if (usuario != null) {
+                pagina.add(usuario);
+            }
+        }
+        return Optional.of(new PageImpl<>(pagina, pageable, resultado.total()));
+    }
+
+    /**
+     * Mantém o índice atualizado com cadastros, alterações e desativações.
+     * Só enfileira: a releitura no banco acontece na thread do índice.
+     */
+    @EventListener
+    public void aoAlterarUsuarios(UsuariosAlteradosEvento evento) {
+        if (!habilitado) {
+            return;
+        }
+        pendentes.addAll(evento.ids());
+        try {
+            atualizacoes.execute(this::aplicarPendentes);
+        } catch (RejectedExecutionException e) {
+            log.debug("Índice de nomes encerrado; alteração ignorada");
+        }
+    }
+
+    /**
+     * Reindexa de uma vez tudo o que chegou até aqui; antes da carga os ids ficam
+     * na fila (a carga os aplica ao terminar)
+     */
+    private void aplicarPendentes() {
+        if (cargaFalhou) {
+            pendentes.clear();
+            return;
+        }
+        if (!pronto) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>();
+        for (Long id = pendentes.poll(); id != null; id = pendentes.poll()) {
+            ids.add(id);
+        }
+        try {
+            reindexar(ids);
+        } catch (Exception e) {
+            log.error("Erro ao atualizar o índice de nomes para {} usuários", ids.size(), e);
+        }
+    }
+
+    private void carregar() {
+        long inicio = System.nanoTime();
+        IndiceTrigramas novo = new IndiceTrigramas();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<UsuarioNomeDTO> usuarios = usuarioRepository.streamNomesAtivos()) {
+                    usuarios.forEach(usuario -> novo.adicionar(usuario.getId(), usuario.getNome()));
+                }
+            });
+        } catch (Exception e) {
+            log.error("Erro ao carregar o índice de nomes; buscas seguem pelo banco", e);
+            cargaFalhou = true;
+            pendentes.clear();
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            indice = novo;
+            pronto = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Índice de nomes carregado - {} usuários em {} ms",
+                novo.tamanho(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio));
+
+        // Alterações recebidas durante a carga
+        aplicarPendentes();
+    }
+
+    private void reindexar(List<Long> ids) {
+        for (int i = 0; i < ids.size(); i += LOTE_IN) {
+            List<Long> lote = ids.subList(i, Math.min(ids.size(), i + LOTE_IN));
+            List<UsuarioNomeDTO> usuarios = usuarioRepository.buscarNomesPorIds(lote);
+
+            lock.writeLock().lock();
+            try {
+                lote.forEach(indice::remover);
+                for (UsuarioNomeDTO usuario : usuarios) {
+                    if (Boolean.TRUE.equals(usuario.getAtivo())) {
+                        indice.adicionar(usuario.getId(), usuario.getNome());
+                    }
+                }
+                if (indice.precisaCompactar()) {
+                    indice = indice.compactar();
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+}
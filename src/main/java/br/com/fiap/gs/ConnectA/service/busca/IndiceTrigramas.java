@@ -0,0 +1,322 @@
+package br.com.fiap.gs.ConnectA.service.busca;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.regex.Pattern;
+
+/**
+ * Índice invertido de trigramas sobre nomes normalizados (sem acento, minúsculos).
+ * As listas de postings são arrays de int (docIds em ordem crescente).
+ * Não é thread-safe: o acesso concorrente é controlado por quem o utiliza.
+ */
+public class IndiceTrigramas {
+
+    private static final Pattern ACENTOS = Pattern.compile("\\p{M}+");
+    private static final int CAPACIDADE_INICIAL = 1024;
+
+    /**
+     * docId -> id do usuário
+     */
+    private long[] ids = new long[CAPACIDADE_INICIAL];
+
+    /**
+     * docId -> nome normalizado
+     */
+    private String[] nomes = new String[CAPACIDADE_INICIAL];
+
+    private final BitSet vivos = new BitSet();
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private final LongIntMap docPorUsuario = new LongIntMap(CAPACIDADE_INICIAL);
+
+    private int totalDocs;
+    private int docsMortos;
+
+    /**
+     * Remove acentos e normaliza para minúsculas
+     */
+    public static String normalizar(String texto) {
+        String semAcento = ACENTOS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return semAcento.toLowerCase(Locale.ROOT).trim();
+    }
+
+    /**
+     * Indexa (ou reindexa) o nome do usuário
+     */
+    public void adicionar(long usuarioId, String nome) {
+        remover(usuarioId);
+
+        String normalizado = normalizar(nome);
+        if (totalDocs == ids.length) {
+            int novaCapacidade = ids.length + (ids.length >> 1);
+            ids = Arrays.copyOf(ids, novaCapacidade);
+            nomes = Arrays.copyOf(nomes, novaCapacidade);
+        }
+
+        int docId = totalDocs++;
+        ids[docId] = usuarioId;
+        nomes[docId] = normalizado;
+        vivos.set(docId);
+        docPorUsuario.put(usuarioId, docId);
+
+        for (int i = 0; i + 3 <= normalizado.length(); i++) {
+            Postings lista = postings.computeIfAbsent(trigrama(normalizado, i), k -> new Postings());
+            lista.adicionar(docId);
+        }
+    }
+
+    /**
+     * Retira o usuário do índice (desativação ou troca de nome)
+     */
+    public void remover(long usuarioId) {
+        int docId = docPorUsuario.remove(usuarioId);
+        if (docId >= 0) {
+            vivos.clear(docId);
+            docsMortos++;
+        }
+    }
+
+    public int tamanho() {
+        return totalDocs - docsMortos;
+    }
+
+    /**
+     * Indica quando vale a pena reconstruir o índice para descartar documentos mortos
+     */
+    public boolean precisaCompactar() {
+        return docsMortos > 1_000 && docsMortos > tamanho() / 2;
+    }
+
+    /**
+     * Cria um novo índice apenas com os documentos vivos
+     */
+    public IndiceTrigramas compactar() {
+        IndiceTrigramas novo = new IndiceTrigramas();
+        for (int docId = vivos.nextSetBit(0); docId >= 0; docId = vivos.nextSetBit(docId + 1)) {
+            novo.adicionar(ids[docId], nomes[docId]);
+        }
+        return novo;
+    }
+
+    /**
+     * Busca por substring, ordenando por relevância: prefixo do nome,
+     * início de palavra e demais ocorrências; empates por nome e id.
+     */
+    public Resultado buscar(String termo, int offset, int limite) {
+        String consulta = normalizar(termo);
+        int[] candidatos = candidatos(consulta);
+
+        int limiteHeap = offset + limite;
+        Comparator<Integer> relevancia = Comparator
+                .<Integer>comparingInt(docId -> pontuacao(nomes[docId], consulta))
+                .thenComparing(docId -> nomes[docId])
+                .thenComparingLong(docId -> ids[docId]);
+        PriorityQueue<Integer> melhores = new PriorityQueue<>(Math.max(1, limiteHeap), relevancia.reversed());
+
+        int total = 0;
+        for (int docId : candidatos) {
+            if (!vivos.get(docId) || !nomes[docId].contains(consulta)) {
+                continue;
+            }
+            total++;
+            if (limiteHeap == 0) {
+                continue;
+            }
+            if (melhores.size() < limiteHeap) {
+                melhores.add(docId);
+            } else if (relevancia.compare(docId, melhores.peek()) < 0) {
+                melhores.poll();
+                melhores.add(docId);
+            }
+        }
+
+        // O heap devolve do pior para o melhor: preenche o ranking de trás para frente
+        int[] ranking = new int[melhores.size()];
+        for (int i = ranking.length - 1; i >= 0; i--) {
+            ranking[i] = melhores.poll();
+        }
+
+        long[] pagina = new long[Math.max(0, ranking.length - offset)];
+        for (int i = 0; i < pagina.length; i++) {
+            pagina[i] = ids[ranking[offset + i]];
+        }
+        return new Resultado(pagina, total);
+    }
+
+    /**
+     * Interseção das listas de postings dos trigramas da consulta.
+     * Consultas com menos de 3 caracteres percorrem todos os documentos.
+     */
+    private int[] candidatos(String consulta) {
+        if (consulta.length() < 3) {
+            int[] todos = new int[totalDocs];
+            for (int i = 0; i < totalDocs; i++) {
+                todos[i] = i;
+            }
+            return todos;
+        }
+
+        Postings[] listas = new Postings[consulta.length() - 2];
+        for (int i = 0; i < listas.length; i++) {
+            Postings lista = postings.get(trigrama(consulta, i));
+            if (lista == null) {
+                return new int[0];
+            }
+            listas[i] = lista;
+        }
+        Arrays.sort(listas, Comparator.comparingInt(lista -> lista.tamanho));
+
+        int[] resultado = Arrays.copyOf(listas[0].docs, listas[0].tamanho);
+        int tamanho = resultado.length;
+        for (int i = 1; i < listas.length && tamanho > 0; i++) {
+            tamanho = intersectar(resultado, tamanho, listas[i]);
+        }
+        return Arrays.copyOf(resultado, tamanho);
+    }
+
+    /**
+     * Interseção in-place de duas listas ordenadas
+     */
+    private static int intersectar(int[] atual, int tamanho, Postings outra) {
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < tamanho && j < outra.tamanho) {
+            int a = atual[i];
+            int b = outra.docs[j];
+            if (a == b) {
+                atual[k++] = a;
+                i++;
+                j++;
+            } else if (a < b) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return k;
+    }
+
+    private static int pontuacao(String nome, String consulta) {
+        int posicao = nome.indexOf(consulta);
+        if (posicao == 0) {
+            return 0;
+        }
+        return nome.charAt(posicao - 1) == ' ' ? 1 : 2;
+    }
+
+    private static long trigrama(String texto, int inicio) {
+        return ((long) texto.charAt(inicio) << 32)
+                | ((long) texto.charAt(inicio + 1) << 16)
+                | texto.charAt(inicio + 2);
+    }
+
+    /**
+     * Página de ids de usuário na ordem de relevância e o total de ocorrências
+     */
+    public record Resultado(long[] ids, int total) {
+    }
+
+    /**
+     * Lista de postings com crescimento amortizado
+     */
+    private static final class Postings {
+        private int[] docs = new int[4];
+        private int tamanho;
+
+        void adicionar(int docId) {
+            if (tamanho > 0 && docs[tamanho - 1] == docId) {
+                return; // trigrama repetido no mesmo nome
+            }
+            if (tamanho == docs.length) {
+                docs = Arrays.copyOf(docs, tamanho << 1);
+            }
+            docs[tamanho++] = docId;
+        }
+    }
+
+    /**
+     * Mapa long -> int com endereçamento aberto (sem boxing)
+     */
+    private static final class LongIntMap {
+        private static final long VAZIO = Long.MIN_VALUE;
+        private static final long REMOVIDO = Long.MIN_VALUE + 1;
+
+        private long[] chaves;
+        private int[] valores;
+        private int ocupados;
+
+        LongIntMap(int capacidade) {
+            int tamanho = Integer.highestOneBit(Math.max(16, capacidade) * 2);
+            chaves = new long[tamanho];
+            valores = new int[tamanho];
+            Arrays.fill(chaves, VAZIO);
+        }
+
+        void put(long chave, int valor) {
+            if ((ocupados + 1) * 2 > chaves.length) {
+                redimensionar();
+            }
+            int mascara = chaves.length - 1;
+            int i = indice(chave, mascara);
+            int primeiroRemovido = -1;
+            while (chaves[i] != VAZIO) {
+                if (chaves[i] == chave) {
+                    valores[i] = valor;
+                    return;
+                }
+                if (chaves[i] == REMOVIDO && primeiroRemovido < 0) {
+                    primeiroRemovido = i;
+                }
+                i = (i + 1) & mascara;
+            }
+            if (primeiroRemovido >= 0) {
+                i = primeiroRemovido;
+            } else {
+                ocupados++;
+            }
+            chaves[i] = chave;
+            valores[i] = valor;
+        }
+
+        /**
+         * Remove a chave e devolve o valor associado, ou -1
+         */
+        int remove(long chave) {
+            int mascara = chaves.length - 1;
+            int i = indice(chave, mascara);
+            while (chaves[i] != VAZIO) {
+                if (chaves[i] == chave) {
+                    chaves[i] = REMOVIDO;
+                    return valores[i];
+                }
+                i = (i + 1) & mascara;
+            }
+            return -1;
+        }
+
+        private void redimensionar() {
+            long[] chavesAntigas = chaves;
+            int[] valoresAntigos = valores;
+            chaves = new long[chavesAntigas.length * 2];
+            valores = new int[chavesAntigas.length * 2];
+            Arrays.fill(chaves, VAZIO);
+            ocupados = 0;
+            for (int i = 0; i < chavesAntigas.length; i++) {
+                if (chavesAntigas[i] != VAZIO && chavesAntigas[i] != REMOVIDO) {
+                    put(chavesAntigas[i], valoresAntigos[i]);
+                }
+            }
+        }
+
+        private static int indice(long chave, int mascara) {
+            long h = chave * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32)) & mascara;
+        }
+    }
+}
@@ -0,0 +1,319 @@
+package br.com.fiap.gs.ConnectA.service.mensageria;
+
+import br.com.fiap.gs.ConnectA.config.RabbitMQConfig;
+import br.com.fiap.gs.ConnectA.exception.PublicacaoException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publicação assíncrona no connecta.exchange.
+ * Quem publica só coloca o evento num buffer circular limitado (sem bloquear);
+ * threads de envio drenam o buffer em lotes num único canal e os publisher
+ * confirms são correlacionados de forma assíncrona. Sem confirmação, o evento
+ * volta ao buffer com backoff exponencial até o limite de tentativas.
+ * No encerramento, todo future ainda pendente (no buffer ou aguardando reenvio)
+ * falha com {@link PublicacaoException}.
+ */
+@Component
+@Slf4j
+public class PublicadorEventos {
+
+    /**
+     * O que fazer quando o buffer está cheio
+     */
+    public enum PoliticaOverflow {
+        /**
+         * Recusa o evento novo (o future falha na hora)
+         */
+        REJEITAR,
+        /**
+         * Descarta o evento mais antigo do buffer para abrir espaço
+         */
+        DESCARTAR_MAIS_ANTIGO
+    }
+
+    private final RabbitTemplate rabbitTemplate;
+    private final ArrayBlockingQueue<Envio> buffer;
+    private final PoliticaOverflow politicaOverflow;
+    private final int tamanhoLote;
+    private final int threads;
+    private final int maxTentativas;
+    private final Duration backoffInicial;
+    private final Duration backoffMaximo;
+    private final Duration confirmTimeout;
+
+    private final ScheduledExecutorService reenvios;
+    private final Set<Envio> aguardandoReenvio = ConcurrentHashMap.newKeySet();
+    private final List<Thread> enviadores = new ArrayList<>();
+    private volatile boolean ativo;
+
+    private final Counter publicados;
+    private final Counter reenviados;
+    private final Counter falhas;
+    private final Counter descartados;
+    private final DistributionSummary loteEnviado;
+    private final Timer latenciaConfirm;
+
+    public PublicadorEventos(
+            RabbitTemplate rabbitTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${connecta.mensageria.buffer:10000}") int capacidade,
+            @Value("${connecta.mensageria.overflow:REJEITAR}") PoliticaOverflow politicaOverflow,
+            @Value("${connecta.mensageria.lote:100}") int tamanhoLote,
+            @Value("${connecta.mensageria.threads:1}") int threads,
+            @Value("${connecta.mensageria.max-tentativas:5}") int maxTentativas,
+            @Value("${connecta.mensageria.backoff-inicial:PT0.2S}") Duration backoffInicial,
+            @Value("${connecta.mensageria.backoff-maximo:PT10S}") Duration backoffMaximo,
+            @Value("${connecta.mensageria.confirm-timeout:PT5S}") Duration confirmTimeout
+    ) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.buffer = new ArrayBlockingQueue<>(capacidade);
+        this.politicaOverflow = politicaOverflow;
+        this.tamanhoLote = Math.max(1, tamanhoLote);
+        this.threads = Math.max(1, threads);
+        this.maxTentativas = Math.max(1, maxTentativas);
+        this.backoffInicial = backoffInicial;
+        this.backoffMaximo = backoffMaximo;
+        this.confirmTimeout = confirmTimeout;
+        this.reenvios = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+            Thread thread = new Thread(tarefa, "publicador-reenvio");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("mensageria.buffer.ocupacao", buffer, ArrayBlockingQueue::size)
+                .description("Eventos aguardando envio no buffer")
+                .register(meterRegistry);
+        this.publicados = Counter.builder("mensageria.eventos")
+                .description("Eventos por resultado da publicação")
+                .tag("resultado", "confirmado")
+                .register(meterRegistry);
+        this.reenviados = Counter.builder("mensageria.eventos")
+                .description("Eventos por resultado da publicação")
+                .tag("resultado", "reenviado")
+                .register(meterRegistry);
+        this.falhas = Counter.builder("mensageria.eventos")
+                .description("Eventos por resultado da publicação")
+                .tag("resultado", "falha")
+                .register(meterRegistry);
+        this.descartados = Counter.builder("mensageria.eventos")
+                .description("Eventos por resultado da publicação")
+                .tag("resultado", "descartado")
+                .register(meterRegistry);
+        this.loteEnviado = DistributionSummary.builder("mensageria.lote.tamanho")
+                .description("Eventos enviados por lote")
+                .register(meterRegistry);
+        this.latenciaConfirm = Timer.builder("mensageria.confirm.latencia")
+                .description("Tempo entre o envio e o ack do broker")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        ativo = true;
+        for (int i = 1; i <= threads; i++) {
+            Thread thread = new Thread(this::enviarEnquantoAtivo, "publicador-eventos-" + i);
+            thread.setDaemon(true);
+            thread.start();
+            enviadores.add(thread);
+        }
+    }
+
+    /**
+     * Para de aceitar eventos, espera as threads esvaziarem o buffer e falha o que ficou pendente
+     */
+    @PreDestroy
+    public void encerrar() throws InterruptedException {
+        ativo = false;
+        for (Thread thread : enviadores) {
+            thread.join(confirmTimeout.toMillis());
+        }
+        reenvios.shutdownNow();
+        // Reenvios agendados que não vão mais rodar e o que as threads não chegaram a enviar
+        List<Envio> pendentes = new ArrayList<>(aguardandoReenvio);
+        aguardandoReenvio.clear();
+        buffer.drainTo(pendentes);
+        if (!pendentes.isEmpty()) {
+            log.warn("Publicador encerrado com {} eventos pendentes", pendentes.size());
+        }
+        pendentes.forEach(envio -> envio.resultado()
+                .completeExceptionally(new PublicacaoException("Publicador encerrado")));
+    }
+
+    /**
+     * Prazo máximo até o future de {@link #publicar} concluir: todas as tentativas
+     * esperando o confirm até o fim, mais os backoffs entre elas. Quem espera pelo
+     * resultado (ex.: relay do outbox) não deve desistir antes disso, ou o evento
+     * ainda seria reenviado depois de dado como falho.
+     */
+    public Duration prazoMaximoConfirmacao() {
+        Duration prazo = confirmTimeout.multipliedBy(maxTentativas);
+        for (int tentativa = 1; tentativa < maxTentativas; tentativa++) {
+            prazo = prazo.plusMillis(atrasoReenvio(tentativa));
+        }
+        return prazo;
+    }
+
+    /**
+     * Enfileira o evento sem bloquear
+     *
+     * @return concluído quando o broker confirmar; falha após esgotar as tentativas ou por overflow
+     */
+    public CompletableFuture<Void> publicar(String routingKey, Object payload) {
+        Envio envio = new Envio(routingKey, payload, new CompletableFuture<>(), 1);
+        if (!ativo) {
+            envio.resultado().completeExceptionally(new PublicacaoException("Publicador encerrado"));
+            return envio.resultado();
+        }
+        enfileirar(envio);
+        return envio.resultado();
+    }
+
+    private void enfileirar(Envio envio) {
+        if (buffer.offer(envio)) {
+            return;
+        }
+        if (politicaOverflow == PoliticaOverflow.DESCARTAR_MAIS_ANTIGO) {
+            Envio maisAntigo = buffer.poll();
+            if (maisAntigo != null) {
+                descartar(maisAntigo);
+            }
+            if (buffer.offer(envio)) {
+                return;
+            }
+        }
+        descartar(envio);
+    }
+
+    private void descartar(Envio envio) {
+        descartados.increment();
+        log.warn("Buffer de publicação cheio - evento {} descartado", envio.routingKey());
+        envio.resultado().completeExceptionally(new PublicacaoException("Buffer de publicação cheio"));
+    }
+
+    private void enviarEnquantoAtivo() {
+        List<Envio> lote = new ArrayList<>(tamanhoLote);
+        while (ativo || !buffer.isEmpty()) {
+            try {
+                Envio primeiro = buffer.poll(100, TimeUnit.MILLISECONDS);
+                if (primeiro == null) {
+                    continue;
+                }
+                lote.add(primeiro);
+                buffer.drainTo(lote, tamanhoLote - 1);
+                enviarLote(lote);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Erro inesperado no envio de eventos", e);
+            } finally {
+                lote.clear();
+            }
+        }
+    }
+
+    /**
+     * Envia o lote inteiro num único canal; os confirms chegam depois, na thread da conexão
+     */
+    private void enviarLote(List<Envio> lote) {
+        loteEnviado.record(lote.size());
+        int enviados = 0;
+        try {
+            enviados = rabbitTemplate.invoke(operacoes -> {
+                int quantidade = 0;
+                for (Envio envio : lote) {
+                    CorrelationData correlacao = new CorrelationData();
+                    long enviadoEm = System.nanoTime();
+                    operacoes.convertAndSend(RabbitMQConfig.EXCHANGE, envio.routingKey(), envio.payload(), correlacao);
+                    quantidade++;
+                    correlacao.getFuture()
+                            .orTimeout(confirmTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                            .whenComplete((confirm, erro) -> {
+                                if (erro == null && confirm.isAck() && correlacao.getReturned() == null) {
+                                    latenciaConfirm.record(System.nanoTime() - enviadoEm, TimeUnit.NANOSECONDS);
+                                    publicados.increment();
+                                    envio.resultado().complete(null);
+                                } else {
+                                    reenviar(envio, erro != null ? erro.toString()
+                                            : correlacao.getReturned() != null ? "mensagem sem rota" : confirm.getReason());
+                                }
+                            });
+                }
+                return quantidade;
+            });
+        } catch (Exception e) {
+            log.warn("Falha ao enviar lote de {} eventos: {}", lote.size(), e.getMessage());
+        }
+        // O que nem chegou a ser enviado volta para nova tentativa
+        for (int i = enviados; i < lote.size(); i++) {
+            reenviar(lote.get(i), "erro no envio");
+        }
+    }
+
+    private void reenviar(Envio envio, String motivo) {
+        if (envio.tentativa() >= maxTentativas || !ativo) {
+            falhar(envio, motivo);
+            return;
+        }
+        reenviados.increment();
+        aguardandoReenvio.add(envio);
+        try {
+            reenvios.schedule(() -> {
+                if (!aguardandoReenvio.remove(envio)) {
+                    return; // já falhado pelo encerramento
+                }
+                if (ativo) {
+                    enfileirar(envio.proximaTentativa());
+                } else {
+                    falhar(envio, "publicador encerrado");
+                }
+            }, atrasoReenvio(envio.tentativa()), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Encerramento entre a checagem e o agendamento
+            if (aguardandoReenvio.remove(envio)) {
+                falhar(envio, "publicador encerrado");
+            }
+        }
+    }
+
+    private void falhar(Envio envio, String motivo) {
+        falhas.increment();
+        log.error("Evento {} não confirmado após {} tentativas: {}", envio.routingKey(), envio.tentativa(), motivo);
+        envio.resultado().completeExceptionally(new PublicacaoException("Evento não confirmado: " + motivo));
+    }
+
+    private long atrasoReenvio(int tentativa) {
+        return Math.min(backoffMaximo.toMillis(), backoffInicial.toMillis() << Math.min(tentativa - 1, 20));
+    }
+
+    private record Envio(String routingKey, Object payload, CompletableFuture<Void> resultado, int tentativa) {
+
+        Envio proximaTentativa() {
+            return new Envio(routingKey, payload, resultado, tentativa + 1);
+        }
+    }
+}
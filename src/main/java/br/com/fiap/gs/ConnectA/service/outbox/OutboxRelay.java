@@ -0,0 +1,179 @@
+package br.com.fiap.gs.ConnectA.service.outbox;
+
+import br.com.fiap.gs.ConnectA.dto.evento.EventoJson;
+import br.com.fiap.gs.ConnectA.model.EventoOutbox;
+import br.com.fiap.gs.ConnectA.repository.EventoOutboxRepository;
+import br.com.fiap.gs.ConnectA.service.mensageria.PublicadorEventos;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drena o outbox em lotes para o connecta.exchange pelo {@link PublicadorEventos}.
+ * Entrega pelo menos uma vez: o evento só sai da tabela depois do ack do broker.
+ * Por agregado, no máximo um evento fica em voo por vez, o que preserva a ordem.
+ * <p>
+ * Cada lote passa por duas transações curtas: a primeira reserva os eventos
+ * (empurra a próxima tentativa para depois do prazo de confirmação, e outras
+ * réplicas deixam de vê-los); a segunda remove os confirmados e reagenda os
+ * demais. A publicação e a espera pelos confirms acontecem fora de transação,
+ * com um único prazo para o lote todo. Se a réplica cair no meio, a reserva
+ * vence e o lote volta a ser enviado.
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+
+    private static final Duration BACKOFF_MAXIMO = Duration.ofMinutes(5);
+
+    private final EventoOutboxRepository eventoOutboxRepository;
+    private final PublicadorEventos publicadorEventos;
+    private final TransactionTemplate transactionTemplate;
+    private final int tamanhoLote;
+    private final Duration confirmTimeout;
+    private final Duration reserva;
+
+    private final Counter publicados;
+    private final Counter falhas;
+
+    public OutboxRelay(
+            EventoOutboxRepository eventoOutboxRepository,
+            PublicadorEventos publicadorEventos,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${connecta.outbox.lote:200}") int tamanhoLote,
+            @Value("${connecta.outbox.folga-confirmacao:PT2S}") Duration folgaConfirmacao
+    ) {
+        this.eventoOutboxRepository = eventoOutboxRepository;
+        this.publicadorEventos = publicadorEventos;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tamanhoLote = Math.max(1, Math.min(tamanhoLote, 1000));
+        // Nunca desiste antes do publicador: senão o evento é reagendado e ainda reenviado por ele (duplicado)
+        this.confirmTimeout = publicadorEventos.prazoMaximoConfirmacao().plus(folgaConfirmacao);
+        // Folga sobre o prazo do lote para a transação de finalização gravar antes de a reserva vencer
+        this.reserva = this.confirmTimeout.multipliedBy(2);
+        this.publicados = Counter.builder("outbox.eventos.publicados")
+                .description("Eventos do outbox confirmados pelo broker")
+                .register(meterRegistry);
+        this.falhas = Counter.builder("outbox.eventos.falhas")
+                .description("Eventos do outbox não confirmados (serão reenviados)")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Publica lotes enquanto houver lote cheio pendente
+     */
+    @Scheduled(fixedDelayString = "${connecta.outbox.intervalo:PT1S}")
+    public void drenar() {
+        try {
+            while (publicarLote()) {
+                log.debug("Lote do outbox publicado; buscando o próximo");
+            }
+        } catch (Exception e) {
+            log.error("Erro ao drenar o outbox", e);
+        }
+    }
+
+    /**
+     * @return true quando o lote veio cheio e vale buscar outro em seguida
+     */
+    private boolean publicarLote() {
+        Lote lote = transactionTemplate.execute(status -> reservar());
+        if (lote == null || lote.eventos().isEmpty()) {
+            return false;
+        }
+
+        List<CompletableFuture<Void>> confirmacoes = new ArrayList<>(lote.eventos().size());
+        for (EventoOutbox evento : lote.eventos()) {
+            confirmacoes.add(publicadorEventos.publicar(
+                    evento.getRoutingKey(), new EventoJson(evento.getPayload(), evento.getVersaoSchema())));
+        }
+
+        // Um prazo para o lote inteiro: os confirms chegam em paralelo
+        long prazo = System.nanoTime() + confirmTimeout.toNanos();
+        List<Long> confirmados = new ArrayList<>();
+        Map<Long, Integer> naoConfirmados = new HashMap<>();
+        for (int i = 0; i < lote.eventos().size(); i++) {
+            EventoOutbox evento = lote.eventos().get(i);
+            if (confirmado(confirmacoes.get(i), prazo)) {
+                confirmados.add(evento.getId());
+            } else {
+                naoConfirmados.put(evento.getId(), evento.getTentativas());
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> finalizar(confirmados, naoConfirmados));
+        publicados.increment(confirmados.size());
+        falhas.increment(naoConfirmados.size());
+        return !confirmados.isEmpty() && lote.cheio();
+    }
+
+    /**
+     * Trava os eventos prontos (SKIP LOCKED) e os reserva para esta réplica até o fim do prazo
+     */
+    private Lote reservar() {
+        LocalDateTime agora = LocalDateTime.now();
+        List<Long> ids = eventoOutboxRepository.buscarIdsPendentes(agora, PageRequest.of(0, tamanhoLote));
+        if (ids.isEmpty()) {
+            return null;
+        }
+        List<EventoOutbox> eventos = eventoOutboxRepository.travarPorIds(ids, agora);
+        LocalDateTime reservadoAte = agora.plus(reserva);
+        eventos.forEach(evento -> evento.setProximaTentativa(reservadoAte));
+        return new Lote(eventos, ids.size() == tamanhoLote);
+    }
+
+    /**
+     * Remove os confirmados e reagenda os demais com backoff
+     */
+    private void finalizar(List<Long> confirmados, Map<Long, Integer> naoConfirmados) {
+        if (!confirmados.isEmpty()) {
+            eventoOutboxRepository.deleteAllByIdInBatch(confirmados);
+        }
+        if (naoConfirmados.isEmpty()) {
+            return;
+        }
+        LocalDateTime agora = LocalDateTime.now();
+        for (EventoOutbox evento : eventoOutboxRepository.findAllById(naoConfirmados.keySet())) {
+            agendarNovaTentativa(evento, naoConfirmados.get(evento.getId()), agora);
+        }
+    }
+
+    private boolean confirmado(CompletableFuture<Void> confirmacao, long prazo) {
+        try {
+            confirmacao.get(Math.max(0, prazo - System.nanoTime()), TimeUnit.NANOSECONDS);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private void agendarNovaTentativa(EventoOutbox evento, int tentativasAnteriores, LocalDateTime agora) {
+        int tentativas = tentativasAnteriores + 1;
+        long segundos = Math.min(BACKOFF_MAXIMO.toSeconds(), 1L << Math.min(tentativas, 16));
+        evento.setTentativas(tentativas);
+        evento.setProximaTentativa(agora.plusSeconds(segundos));
+        log.warn("Evento {} do outbox sem confirmação - tentativa {}, próxima em {}s", evento.getId(), tentativas, segundos);
+    }
+
+    private record Lote(List<EventoOutbox> eventos, boolean cheio) {
+    }
+}
@@ -0,0 +1,42 @@
+package br.com.fiap.gs.ConnectA.service.outbox;
+
+import br.com.fiap.gs.ConnectA.model.EventoOutbox;
+import br.com.fiap.gs.ConnectA.repository.EventoOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Grava eventos no outbox dentro da transação de quem chama.
+ * Se a transação for desfeita, o evento some junto.
+ */
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+
+    private final EventoOutboxRepository eventoOutboxRepository;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrar(String agregadoTipo, Long agregadoId, String routingKey, String payload, int versaoSchema) {
+        eventoOutboxRepository.save(novoEvento(agregadoTipo, agregadoId, routingKey, payload, versaoSchema));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrar(List<EventoOutbox> eventos) {
+        eventoOutboxRepository.saveAll(eventos);
+    }
+
+    public static EventoOutbox novoEvento(String agregadoTipo, Long agregadoId, String routingKey,
+                                          String payload, int versaoSchema) {
+        EventoOutbox evento = new EventoOutbox();
+        evento.setAgregadoTipo(agregadoTipo);
+        evento.setAgregadoId(agregadoId);
+        evento.setRoutingKey(routingKey);
+        evento.setPayload(payload);
+        evento.setVersaoSchema(versaoSchema);
+        return evento;
+    }
+}
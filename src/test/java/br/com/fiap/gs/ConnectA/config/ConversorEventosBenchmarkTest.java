@@ -0,0 +1,98 @@
+package br.com.fiap.gs.ConnectA.config;
+
+import br.com.fiap.gs.ConnectA.dto.evento.EventoJson;
+import br.com.fiap.gs.ConnectA.dto.evento.NovoUsuarioEvento;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Bytes por evento e custo de codificação/decodificação do evento de novo usuário:
+ * string JSON dentro de JSON (formato antigo), JSON tipado e CBOR tipado.
+ * Execução: mvn test -Dtest=ConversorEventosBenchmarkTest -Dbenchmark=true [-Dbenchmark.iteracoes=200000]
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ConversorEventosBenchmarkTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final NovoUsuarioEvento evento = new NovoUsuarioEvento(
+            123456L, "Maria Aparecida dos Santos", "maria.santos@connecta.com", "ALUNO", 1_760_000_000_000L);
+
+    @Test
+    void bytesENanossegundosPorEvento() throws Exception {
+        int iteracoes = Integer.getInteger("benchmark.iteracoes", 200_000);
+
+        // Formato antigo: HashMap serializado para string e a string serializada de novo pelo conversor
+        Jackson2JsonMessageConverter antigo = new Jackson2JsonMessageConverter(objectMapper);
+        Supplier<Object> mapaComoString = () -> {
+            Map<String, Object> mensagem = new HashMap<>();
+            mensagem.put("id", evento.id());
+            mensagem.put("nome", evento.nome());
+            mensagem.put("email", evento.email());
+            mensagem.put("tipoPerfil", evento.tipoPerfil());
+            mensagem.put("timestamp", evento.timestamp());
+            try {
+                return objectMapper.writeValueAsString(mensagem);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        };
+        medir("json-string (antigo)", iteracoes, antigo, mapaComoString, mensagem -> {
+            try {
+                return objectMapper.readValue((String) antigo.fromMessage(mensagem), NovoUsuarioEvento.class);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        ConversorEventos json = new ConversorEventos(objectMapper, ConversorEventos.Formato.JSON);
+        ConversorEventos cbor = new ConversorEventos(objectMapper, ConversorEventos.Formato.CBOR);
+        medir("json tipado", iteracoes, json, () -> evento, json::fromMessage);
+        medir("cbor tipado", iteracoes, cbor, () -> evento, cbor::fromMessage);
+
+        // Caminho do outbox: JSON gravado na tabela, enviado como está ou transcodificado
+        EventoJson doOutbox = new EventoJson(objectMapper.writeValueAsString(evento), NovoUsuarioEvento.VERSAO);
+        medir("outbox -> json", iteracoes, json, () -> doOutbox, mensagem -> json.fromMessage(mensagem, NovoUsuarioEvento.class));
+        medir("outbox -> cbor", iteracoes, cbor, () -> doOutbox, mensagem -> cbor.fromMessage(mensagem, NovoUsuarioEvento.class));
+    }
+
+    private void medir(String nome, int iteracoes, MessageConverter conversor,
+                       Supplier<Object> payload, Function<Message, Object> decodificar) {
+        Message mensagem = conversor.toMessage(payload.get(), new MessageProperties());
+        assertThat(decodificar.apply(mensagem)).isEqualTo(evento);
+
+        // Aquecimento
+        for (int i = 0; i < iteracoes / 10; i++) {
+            decodificar.apply(conversor.toMessage(payload.get(), new MessageProperties()));
+        }
+
+        long inicio = System.nanoTime();
+        for (int i = 0; i < iteracoes; i++) {
+            mensagem = conversor.toMessage(payload.get(), new MessageProperties());
+        }
+        long codificacao = (System.nanoTime() - inicio) / iteracoes;
+
+        inicio = System.nanoTime();
+        Object decodificado = null;
+        for (int i = 0; i < iteracoes; i++) {
+            decodificado = decodificar.apply(mensagem);
+        }
+        long decodificacao = (System.nanoTime() - inicio) / iteracoes;
+
+        assertThat(decodificado).isEqualTo(evento);
+        System.out.printf("%-22s bytes=%4d  codificar=%6d ns/op  decodificar=%6d ns/op  content-type=%s%n",
+                nome, mensagem.getBody().length, codificacao, decodificacao,
+                mensagem.getMessageProperties().getContentType());
+    }
+}
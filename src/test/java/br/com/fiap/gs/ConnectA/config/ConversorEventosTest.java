@@ -0,0 +1,102 @@
+package br.com.fiap.gs.ConnectA.config;
+
+import br.com.fiap.gs.ConnectA.dto.evento.EventoJson;
+import br.com.fiap.gs.ConnectA.dto.evento.NovoUsuarioEvento;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConversionException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConversorEventosTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ConversorEventos json = new ConversorEventos(objectMapper, ConversorEventos.Formato.JSON);
+    private final ConversorEventos cbor = new ConversorEventos(objectMapper, ConversorEventos.Formato.CBOR);
+    private final NovoUsuarioEvento evento = new NovoUsuarioEvento(
+            7L, "Júlia Gonçalves", "julia@connecta.com", "MENTOR", 1_760_000_000_000L);
+
+    @Test
+    void eventoTipadoIdaEVoltaEmJson() {
+        Message mensagem = json.toMessage(evento, new MessageProperties());
+
+        assertThat(mensagem.getMessageProperties().getContentType()).isEqualTo(MessageProperties.CONTENT_TYPE_JSON);
+        assertThat(ConversorEventos.versaoSchema(mensagem)).isEqualTo(NovoUsuarioEvento.VERSAO);
+        assertThat(json.fromMessage(mensagem)).isEqualTo(evento);
+        assertThat(json.fromMessage(mensagem, NovoUsuarioEvento.class)).isEqualTo(evento);
+    }
+
+    @Test
+    void eventoTipadoIdaEVoltaEmCbor() {
+        Message mensagem = cbor.toMessage(evento, new MessageProperties());
+
+        assertThat(mensagem.getMessageProperties().getContentType()).isEqualTo(ConversorEventos.CONTENT_TYPE_CBOR);
+        assertThat(mensagem.getMessageProperties().getContentLength()).isEqualTo(mensagem.getBody().length);
+        assertThat(ConversorEventos.versaoSchema(mensagem)).isEqualTo(NovoUsuarioEvento.VERSAO);
+        assertThat(cbor.fromMessage(mensagem)).isEqualTo(evento);
+        assertThat(cbor.fromMessage(mensagem, NovoUsuarioEvento.class)).isEqualTo(evento);
+    }
+
+    @Test
+    void consumidorDecodificaPeloContentTypeQualquerQueSejaOFormatoConfigurado() {
+        assertThat(json.fromMessage(cbor.toMessage(evento, new MessageProperties()))).isEqualTo(evento);
+        assertThat(cbor.fromMessage(json.toMessage(evento, new MessageProperties()))).isEqualTo(evento);
+    }
+
+    @Test
+    void eventoDoOutboxSaiComoEstaEmJson() throws Exception {
+        String gravado = objectMapper.writeValueAsString(evento);
+
+        Message mensagem = json.toMessage(new EventoJson(gravado, 3), new MessageProperties());
+
+        assertThat(new String(mensagem.getBody(), StandardCharsets.UTF_8)).isEqualTo(gravado);
+        assertThat(mensagem.getMessageProperties().getContentType()).isEqualTo(MessageProperties.CONTENT_TYPE_JSON);
+        assertThat(mensagem.getMessageProperties().getContentEncoding()).isEqualTo("UTF-8");
+        assertThat(ConversorEventos.versaoSchema(mensagem)).isEqualTo(3);
+        assertThat(json.fromMessage(mensagem, NovoUsuarioEvento.class)).isEqualTo(evento);
+    }
+
+    @Test
+    void eventoDoOutboxEhTranscodificadoParaCbor() throws Exception {
+        EventoJson doOutbox = new EventoJson(objectMapper.writeValueAsString(evento), NovoUsuarioEvento.VERSAO);
+
+        Message mensagem = cbor.toMessage(doOutbox, new MessageProperties());
+
+        assertThat(mensagem.getMessageProperties().getContentType()).isEqualTo(ConversorEventos.CONTENT_TYPE_CBOR);
+        assertThat(mensagem.getMessageProperties().getContentLength()).isEqualTo(mensagem.getBody().length);
+        assertThat(cbor.fromMessage(mensagem, NovoUsuarioEvento.class)).isEqualTo(evento);
+        assertThat(json.fromMessage(mensagem, NovoUsuarioEvento.class)).isEqualTo(evento);
+    }
+
+    @Test
+    void mensagemSemHeaderDeVersaoEhVersaoUm() {
+        Message mensagem = json.toMessage(Map.of("id", 1), new MessageProperties());
+
+        assertThat(mensagem.getMessageProperties().getHeaders()).doesNotContainKey(RabbitMQConfig.HEADER_VERSAO_SCHEMA);
+        assertThat(ConversorEventos.versaoSchema(mensagem)).isEqualTo(1);
+    }
+
+    @Test
+    void mensagemNaoVersionadaSegueEmJsonMesmoNoFormatoCbor() {
+        Message mensagem = cbor.toMessage(Map.of("id", 1), new MessageProperties());
+
+        assertThat(mensagem.getMessageProperties().getContentType()).isEqualTo(MessageProperties.CONTENT_TYPE_JSON);
+        assertThat(new String(mensagem.getBody(), StandardCharsets.UTF_8)).isEqualTo("{\"id\":1}");
+    }
+
+    @Test
+    void cborCorrompidoFalhaComoErroDeConversao() {
+        MessageProperties propriedades = new MessageProperties();
+        propriedades.setContentType(ConversorEventos.CONTENT_TYPE_CBOR);
+        Message mensagem = new Message(new byte[]{(byte) 0xBF, 0x61}, propriedades);
+
+        assertThatThrownBy(() -> cbor.fromMessage(mensagem, NovoUsuarioEvento.class))
+                .isInstanceOf(MessageConversionException.class);
+    }
+}
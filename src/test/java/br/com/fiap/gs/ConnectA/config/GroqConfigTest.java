@@ -0,0 +1,128 @@
+package br.com.fiap.gs.ConnectA.config;
+
+import org.apache.hc.client5.http.DnsResolver;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GroqConfigTest {
+
+    @Test
+    void urlHttpsSemPortaUsaAPortaPadraoNaRota() throws Exception {
+        HttpRoute rota = GroqConfig.rota("https://api.groq.com/openai/v1/chat/completions");
+
+        assertThat(rota.getTargetHost().getHostName()).isEqualTo("api.groq.com");
+        assertThat(rota.getTargetHost().getPort()).isEqualTo(443);
+        assertThat(rota.isSecure()).isTrue();
+        assertThat(GroqConfig.rota("http://localhost/v1").getTargetHost().getPort()).isEqualTo(80);
+    }
+
+    @Test
+    void preAquecimentoDeUrlHttpsSemPortaTentaConectarNoHost() {
+        List<String> resolvidos = new CopyOnWriteArrayList<>();
+        DnsResolver dns = new DnsResolver() {
+            @Override
+            public InetAddress[] resolve(String host) throws UnknownHostException {
+                resolvidos.add(host);
+                throw new UnknownHostException(host);
+            }
+
+            @Override
+            public String resolveCanonicalHostname(String host) {
+                return host;
+            }
+        };
+        try (PoolingHttpClientConnectionManager pool = PoolingHttpClientConnectionManagerBuilder.create()
+                .setDnsResolver(dns)
+                .build()) {
+
+            int abertas = GroqConfig.preAquecer(pool, "https://api.groq.com/openai/v1/chat/completions", 2,
+                    Duration.ofSeconds(1));
+
+            assertThat(abertas).isZero();
+            assertThat(resolvidos).contains("api.groq.com");
+            assertThat(pool.getTotalStats().getLeased()).isZero();
+        }
+    }
+
+    @Test
+    void preAquecimentoDeixaConexoesDisponiveisNoPool() throws Exception {
+        try (ServerSocket servidor = new ServerSocket(0, 10, InetAddress.getLoopbackAddress());
+             PoolingHttpClientConnectionManager pool = PoolingHttpClientConnectionManagerBuilder.create().build()) {
+            String url = "http://127.0.0.1:" + servidor.getLocalPort() + "/v1";
+
+            assertThat(GroqConfig.preAquecer(pool, url, 2, Duration.ofSeconds(2))).isEqualTo(2);
+
+            assertThat(pool.getStats(GroqConfig.rota(url)).getAvailable()).isEqualTo(2);
+            assertThat(pool.getTotalStats().getLeased()).isZero();
+        }
+    }
+
+    @Test
+    void respostaFechadaTiraOCancelamentoDaFila() throws Exception {
+        try (ServerSocket servidor = new ServerSocket(0, 10, InetAddress.getLoopbackAddress());
+             CloseableHttpClient cliente = HttpClients.createDefault()) {
+            Thread atendente = new Thread(() -> responderOk(servidor));
+            atendente.setDaemon(true);
+            atendente.start();
+            GroqConfig.PrazoTotalRequestFactory factory =
+                    new GroqConfig.PrazoTotalRequestFactory(cliente, Duration.ofMinutes(10));
+            int antes = GroqConfig.PrazoTotalRequestFactory.cancelamentosPendentes();
+
+            ClientHttpRequest request = factory.createRequest(
+                    URI.create("http://127.0.0.1:" + servidor.getLocalPort() + "/"), HttpMethod.GET);
+            assertThat(GroqConfig.PrazoTotalRequestFactory.cancelamentosPendentes()).isEqualTo(antes + 1);
+            try (ClientHttpResponse resposta = request.execute()) {
+                assertThat(resposta.getStatusCode().value()).isEqualTo(200);
+                assertThat(new String(resposta.getBody().readAllBytes(), StandardCharsets.US_ASCII)).isEqualTo("ok");
+            }
+
+            assertThat(GroqConfig.PrazoTotalRequestFactory.cancelamentosPendentes()).isEqualTo(antes);
+        }
+    }
+
+    private static void responderOk(ServerSocket servidor) {
+        try (Socket conexao = servidor.accept()) {
+            InputStream entrada = conexao.getInputStream();
+            // Lê o cabeçalho da requisição até a linha em branco
+            int anterior = 0;
+            int atual;
+            int quebras = 0;
+            while (quebras < 2 && (atual = entrada.read()) >= 0) {
+                if (atual == '\n') {
+                    quebras = anterior == '\r' || anterior == '\n' ? quebras + 1 : 1;
+                } else if (atual != '\r') {
+                    quebras = 0;
+                }
+                anterior = atual;
+            }
+            OutputStream saida = conexao.getOutputStream();
+            saida.write("HTTP/1.1 200 OK\r\nContent-Length: 2\r\nConnection: close\r\n\r\nok"
+                    .getBytes(StandardCharsets.US_ASCII));
+            saida.flush();
+        } catch (IOException e) {
+            // Teste falha pela asserção da resposta
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package br.com.fiap.gs.ConnectA.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MigracaoSequenciasTest {
+
+    @Test
+    void alinhaIncrementoSemRepetirIdsJaEmitidos() throws Exception {
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource("jdbc:h2:mem:sequencias;MODE=Oracle", true);
+        try {
+            JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+            jdbc.execute("CREATE SEQUENCE SEQ_USUARIO START WITH 1 INCREMENT BY 1");
+            Long ultimoEmitido = jdbc.queryForObject("SELECT NEXT VALUE FOR SEQ_USUARIO", Long.class);
+            MigracaoSequencias migracao = new MigracaoSequencias(dataSource);
+
+            assertThat(migracao.migrar(Map.of("SEQ_USUARIO", 50, "SEQ_INEXISTENTE", 50))).isEqualTo(1);
+            assertThat(migracao.migrar(Map.of("SEQ_USUARIO", 50))).isZero();
+
+            // Optimizer pooled: o próximo bloco é (valor - 49 .. valor), todo acima do último id emitido
+            Long topoBloco = jdbc.queryForObject("SELECT NEXT VALUE FOR SEQ_USUARIO", Long.class);
+            assertThat(topoBloco - 49).isGreaterThan(ultimoEmitido);
+        } finally {
+            dataSource.destroy();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package br.com.fiap.gs.ConnectA.config.security;
+
+import br.com.fiap.gs.ConnectA.exception.ServicoIndisponivelException;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CachingDaoAuthenticationProviderTest {
+
+    private final UserDetailsService userDetailsService = mock(UserDetailsService.class);
+    private final PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+
+    @Test
+    void poolSaturadoComUsuarioInexistenteViraServicoIndisponivel() {
+        when(userDetailsService.loadUserByUsername("ninguem@connecta.com"))
+                .thenThrow(new UsernameNotFoundException("ninguem@connecta.com"));
+        when(passwordEncoder.encode(any())).thenReturn("hash-falso");
+        when(passwordEncoder.matches(any(), anyString()))
+                .thenThrow(new ServicoIndisponivelException("Pool de hash de senha saturado"));
+
+        assertThatThrownBy(() -> provider().authenticate(
+                new UsernamePasswordAuthenticationToken("ninguem@connecta.com", "senha")))
+                .isInstanceOf(ServicoIndisponivelException.class);
+    }
+
+    @Test
+    void usuarioInexistenteContinuaCredencialInvalida() {
+        when(userDetailsService.loadUserByUsername("ninguem@connecta.com"))
+                .thenThrow(new UsernameNotFoundException("ninguem@connecta.com"));
+        when(passwordEncoder.encode(any())).thenReturn("hash-falso");
+
+        assertThatThrownBy(() -> provider().authenticate(
+                new UsernamePasswordAuthenticationToken("ninguem@connecta.com", "senha")))
+                .isInstanceOf(BadCredentialsException.class);
+    }
+
+    private CachingDaoAuthenticationProvider provider() {
+        CachingDaoAuthenticationProvider provider = new CachingDaoAuthenticationProvider(
+                new CredencialVerificadaCache(false, Duration.ofMinutes(5), 100));
+        provider.setUserDetailsService(userDetailsService);
+        provider.setPasswordEncoder(passwordEncoder);
+        return provider;
+    }
+}
@@ -0,0 +1,99 @@
+package br.com.fiap.gs.ConnectA.config.security;
+
+import br.com.fiap.gs.ConnectA.model.Usuario;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JwtAuthenticationFilterTest {
+
+    private final JwtService jwtService = JwtServiceTest.jwtService(60_000);
+    private final UserDetailsService userDetailsService = mock(UserDetailsService.class);
+    private final TokenVersionService tokenVersionService = mock(TokenVersionService.class);
+    private final TokenRevocationService tokenRevocationService = mock(TokenRevocationService.class);
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void modoStatelessMontaOPrincipalSemIrAoBanco() throws Exception {
+        String token = jwtService.generateToken(JwtServiceTest.usuario(7L, 1));
+        when(tokenVersionService.versaoAtual(7L)).thenReturn(1);
+
+        Authentication autenticacao = filtrar(filtro(true), token);
+
+        assertThat(autenticacao).isNotNull();
+        assertThat(autenticacao.getPrincipal()).isEqualTo(new UsuarioPrincipal(7L, "ana@connecta.com", Usuario.TipoPerfil.MENTOR));
+        assertThat(autenticacao.getAuthorities()).extracting(Object::toString).containsExactly("ROLE_MENTOR");
+        verify(userDetailsService, never()).loadUserByUsername(any());
+    }
+
+    @Test
+    void modoStatelessRecusaVersaoDesatualizada() throws Exception {
+        String token = jwtService.generateToken(JwtServiceTest.usuario(7L, 1));
+        when(tokenVersionService.versaoAtual(7L)).thenReturn(2);
+
+        assertThat(filtrar(filtro(true), token)).isNull();
+    }
+
+    @Test
+    void modoPadraoCarregaOUsuarioEConfereAVersaoGravada() throws Exception {
+        Usuario usuario = JwtServiceTest.usuario(7L, 1);
+        String token = jwtService.generateToken(usuario);
+        when(userDetailsService.loadUserByUsername("ana@connecta.com")).thenReturn(usuario);
+
+        assertThat(filtrar(filtro(false), token).getPrincipal()).isSameAs(usuario);
+
+        SecurityContextHolder.clearContext();
+        usuario.setTokenVersao(2);
+        assertThat(filtrar(filtro(false), token)).isNull();
+        verify(tokenVersionService, never()).versaoAtual(anyLong());
+    }
+
+    @Test
+    void tokenRevogadoNaoAutentica() throws Exception {
+        String token = jwtService.generateToken(JwtServiceTest.usuario(7L, 1));
+        when(tokenRevocationService.isRevoked(jwtService.extractAllClaims(token).getId())).thenReturn(true);
+        when(tokenVersionService.versaoAtual(7L)).thenReturn(1);
+
+        assertThat(filtrar(filtro(true), token)).isNull();
+    }
+
+    @Test
+    void tokenInvalidoSegueSemAutenticacao() throws Exception {
+        MockFilterChain cadeia = new MockFilterChain();
+
+        assertThat(filtrar(filtro(true), "nao-e-um-jwt", cadeia)).isNull();
+        assertThat(cadeia.getRequest()).isNotNull();
+    }
+
+    private JwtAuthenticationFilter filtro(boolean stateless) {
+        return new JwtAuthenticationFilter(jwtService, userDetailsService, tokenVersionService, tokenRevocationService, stateless);
+    }
+
+    private Authentication filtrar(JwtAuthenticationFilter filtro, String token) throws Exception {
+        return filtrar(filtro, token, new MockFilterChain());
+    }
+
+    private Authentication filtrar(JwtAuthenticationFilter filtro, String token, MockFilterChain cadeia) throws Exception {
+        MockHttpServletRequest requisicao = new MockHttpServletRequest("GET", "/api/v1/assistente/perfil");
+        requisicao.addHeader("Authorization", "Bearer " + token);
+        filtro.doFilter(requisicao, new MockHttpServletResponse(), cadeia);
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
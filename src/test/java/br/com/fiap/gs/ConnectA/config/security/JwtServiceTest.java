@@ -0,0 +1,85 @@
+package br.com.fiap.gs.ConnectA.config.security;
+
+import br.com.fiap.gs.ConnectA.model.Usuario;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtServiceTest {
+
+    static final String SEGREDO = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+
+    @Test
+    void tokenLevaIdPerfilEVersao() {
+        JwtService jwtService = jwtService(60_000);
+        Claims claims = jwtService.extractAllClaims(jwtService.generateToken(usuario(7L, 3)));
+
+        assertThat(claims.getSubject()).isEqualTo("ana@connecta.com");
+        assertThat(claims.get(JwtService.CLAIM_USUARIO_ID, Long.class)).isEqualTo(7L);
+        assertThat(claims.get(JwtService.CLAIM_TIPO_PERFIL, String.class)).isEqualTo("MENTOR");
+        assertThat(claims.get(JwtService.CLAIM_VERSAO, Integer.class)).isEqualTo(3);
+        assertThat(claims.getId()).isNotBlank();
+    }
+
+    @Test
+    void claimsVerificadasSaemDoCache() {
+        JwtService jwtService = jwtService(60_000);
+        String token = jwtService.generateToken(usuario(7L, 0));
+
+        assertThat(jwtService.extractAllClaims(token)).isSameAs(jwtService.extractAllClaims(token));
+    }
+
+    @Test
+    void tokenAdulteradoEhRecusado() {
+        JwtService jwtService = jwtService(60_000);
+        String token = jwtService.generateToken(usuario(7L, 0));
+        String[] partes = token.split("\\.");
+        String adulterado = partes[0] + "." + partes[1] + "." + new StringBuilder(partes[2]).reverse();
+
+        assertThatThrownBy(() -> jwtService.extractAllClaims(adulterado)).isInstanceOf(SignatureException.class);
+    }
+
+    @Test
+    void tokenExpiradoNaoEntraNoCache() {
+        JwtService jwtService = jwtService(-1_000);
+        String token = jwtService.generateToken(usuario(7L, 0));
+
+        assertThatThrownBy(() -> jwtService.extractAllClaims(token)).isInstanceOf(ExpiredJwtException.class);
+        assertThatThrownBy(() -> jwtService.extractAllClaims(token)).isInstanceOf(ExpiredJwtException.class);
+    }
+
+    @Test
+    void versaoDoTokenPrecisaSerAVigente() {
+        JwtService jwtService = jwtService(60_000);
+        Claims claims = jwtService.extractAllClaims(jwtService.generateToken(usuario(7L, 2)));
+
+        assertThat(jwtService.isVersionValid(claims, 2)).isTrue();
+        assertThat(jwtService.isVersionValid(claims, 3)).isFalse();
+        assertThat(jwtService.isVersionValid(claims, TokenVersionService.VERSAO_INVALIDA)).isFalse();
+    }
+
+    static JwtService jwtService(long expiracaoMillis) {
+        JwtService jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secretKey", SEGREDO);
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", expiracaoMillis);
+        ReflectionTestUtils.setField(jwtService, "claimsCacheMaxSize", 100L);
+        jwtService.init();
+        return jwtService;
+    }
+
+    static Usuario usuario(Long id, int versao) {
+        Usuario usuario = new Usuario();
+        usuario.setId(id);
+        usuario.setNome("Ana");
+        usuario.setEmail("ana@connecta.com");
+        usuario.setTipoPerfil(Usuario.TipoPerfil.MENTOR);
+        usuario.setTokenVersao(versao);
+        usuario.setAtivo(true);
+        return usuario;
+    }
+}
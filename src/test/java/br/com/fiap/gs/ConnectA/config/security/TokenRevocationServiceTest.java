@@ -0,0 +1,158 @@
+package br.com.fiap.gs.ConnectA.config.security;
+
+import br.com.fiap.gs.ConnectA.config.RabbitMQConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenRevocationServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final InMemoryBroker broker = new InMemoryBroker(objectMapper);
+
+    @TempDir
+    private Path diretorio;
+
+    @Test
+    void tokenRevogadoEhRecusadoAteExpirar() {
+        TokenRevocationService servico = servico("a");
+
+        servico.revogar("jti-1", emSegundos(60));
+        servico.revogar("jti-expirado", emSegundos(-1));
+
+        assertThat(servico.isRevoked("jti-1")).isTrue();
+        assertThat(servico.isRevoked("jti-2")).isFalse();
+        assertThat(servico.isRevoked("jti-expirado")).isFalse();
+    }
+
+    @Test
+    void tokenSemJtiNaoPodeSerRevogado() {
+        TokenRevocationService servico = servico("a");
+
+        assertThat(servico.revogar(null, emSegundos(60))).isFalse();
+        assertThat(servico.revogar("jti-sem-exp", null)).isFalse();
+        assertThat(servico.revogar("jti-1", emSegundos(60))).isTrue();
+        assertThat(servico.revogar("jti-1", emSegundos(60))).isTrue();
+        assertThat(servico.revogar("jti-expirado", emSegundos(-1))).isTrue();
+    }
+
+    @Test
+    void revogacaoEmUmNoValeNosDemais() {
+        TokenRevocationService noA = servico("a");
+        TokenRevocationService noB = servico("b");
+        broker.assinar(noA);
+        broker.assinar(noB);
+
+        noA.revogar("jti-1", emSegundos(60));
+        broker.entregar();
+
+        assertThat(noB.isRevoked("jti-1")).isTrue();
+        // O próprio evento volta para o nó A e é ignorado (publicado uma vez só)
+        assertThat(broker.publicadas).isEqualTo(1);
+    }
+
+    @Test
+    void revogacoesSobrevivemAoReinicio() {
+        TokenRevocationService antes = servico("a");
+        antes.revogar("jti-1", emSegundos(60));
+        antes.encerrar();
+
+        TokenRevocationService depois = servico("a");
+        depois.carregarSnapshot();
+
+        assertThat(depois.isRevoked("jti-1")).isTrue();
+    }
+
+    @Test
+    void limpezaRemoveSoOsExpirados() throws InterruptedException {
+        TokenRevocationService servico = servico("a");
+        servico.revogar("jti-curto", new Date(System.currentTimeMillis() + 50));
+        servico.revogar("jti-longo", emSegundos(60));
+        Thread.sleep(100);
+
+        servico.limparExpirados();
+
+        assertThat(servico.isRevoked("jti-curto")).isFalse();
+        assertThat(servico.isRevoked("jti-longo")).isTrue();
+        TokenRevocationService reiniciado = servico("a");
+        reiniciado.carregarSnapshot();
+        assertThat(reiniciado.isRevoked("jti-curto")).isFalse();
+        assertThat(reiniciado.isRevoked("jti-longo")).isTrue();
+    }
+
+    @Test
+    void revogacaoDuranteReconstrucaoDoFiltroNaoSePerde() {
+        TokenRevocationService servico = servico("a");
+        AtomicBoolean revogando = new AtomicBoolean(true);
+        CompletableFuture<Void> reconstrucoes = CompletableFuture.runAsync(() -> {
+            while (revogando.get()) {
+                servico.reconstruirFiltro();
+            }
+        });
+
+        Date expiracao = emSegundos(60);
+        for (int i = 0; i < 2_000; i++) {
+            servico.revogar("jti-" + i, expiracao);
+        }
+        revogando.set(false);
+        reconstrucoes.join();
+
+        for (int i = 0; i < 2_000; i++) {
+            assertThat(servico.isRevoked("jti-" + i)).as("jti-" + i).isTrue();
+        }
+    }
+
+    private TokenRevocationService servico(String no) {
+        return new TokenRevocationService(broker, objectMapper,
+                diretorio.resolve(no + ".snapshot").toString(), 1_000, 0.001);
+    }
+
+    private static Date emSegundos(long segundos) {
+        return new Date(System.currentTimeMillis() + segundos * 1000);
+    }
+
+    /**
+     * Substituto do broker: acumula as revogações publicadas e entrega em lote a todos os nós
+     */
+    private static class InMemoryBroker extends RabbitTemplate {
+
+        private final List<Message> pendentes = new ArrayList<>();
+        private final List<TokenRevocationService> assinantes = new ArrayList<>();
+        private int publicadas;
+
+        InMemoryBroker(ObjectMapper objectMapper) {
+            setMessageConverter(new Jackson2JsonMessageConverter(objectMapper));
+        }
+
+        void assinar(TokenRevocationService assinante) {
+            assinantes.add(assinante);
+        }
+
+        @Override
+        public void send(String exchange, String routingKey, Message message, CorrelationData correlationData) {
+            assertThat(exchange).isEqualTo(RabbitMQConfig.EXCHANGE);
+            assertThat(routingKey).isEqualTo(RabbitMQConfig.ROUTING_KEY_REVOGACAO_TOKEN);
+            pendentes.add(message);
+            publicadas++;
+        }
+
+        void entregar() {
+            List<Message> lote = List.copyOf(pendentes);
+            pendentes.clear();
+            assinantes.forEach(assinante -> assinante.receber(lote));
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package br.com.fiap.gs.ConnectA.config.security;
+
+import br.com.fiap.gs.ConnectA.model.Usuario;
+import br.com.fiap.gs.ConnectA.repository.UsuarioRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TokenVersionServiceTest {
+
+    private final UsuarioRepository usuarioRepository = mock(UsuarioRepository.class);
+    private final TokenVersionService servico = new TokenVersionService(usuarioRepository, 100, Duration.ofMinutes(5));
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void consultaOBancoSoNaPrimeiraVez() {
+        when(usuarioRepository.buscarTokenVersao(1L)).thenReturn(Optional.of(3));
+
+        assertThat(servico.versaoAtual(1L)).isEqualTo(3);
+        assertThat(servico.versaoAtual(1L)).isEqualTo(3);
+
+        verify(usuarioRepository, times(1)).buscarTokenVersao(1L);
+    }
+
+    @Test
+    void usuarioInexistenteTemVersaoInvalida() {
+        when(usuarioRepository.buscarTokenVersao(9L)).thenReturn(Optional.empty());
+
+        assertThat(servico.versaoAtual(9L)).isEqualTo(TokenVersionService.VERSAO_INVALIDA);
+    }
+
+    @Test
+    void semTransacaoIncrementaNaHora() {
+        when(usuarioRepository.buscarTokenVersao(1L)).thenReturn(Optional.of(0));
+        Usuario usuario = usuario(1L, 0, true);
+
+        servico.incrementar(usuario);
+
+        assertThat(usuario.getTokenVersao()).isEqualTo(1);
+        assertThat(servico.versaoAtual(1L)).isEqualTo(1);
+    }
+
+    @Test
+    void emTransacaoSoValeDepoisDoCommit() {
+        when(usuarioRepository.buscarTokenVersao(1L)).thenReturn(Optional.of(0));
+        TransactionSynchronizationManager.initSynchronization();
+
+        servico.incrementar(usuario(1L, 0, true));
+
+        assertThat(servico.versaoAtual(1L)).isEqualTo(0);
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(servico.versaoAtual(1L)).isEqualTo(1);
+    }
+
+    @Test
+    void rollbackMantemAVersaoAnterior() {
+        when(usuarioRepository.buscarTokenVersao(1L)).thenReturn(Optional.of(0));
+        TransactionSynchronizationManager.initSynchronization();
+
+        servico.incrementar(usuario(1L, 0, true));
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sincronizacao -> sincronizacao.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertThat(servico.versaoAtual(1L)).isEqualTo(0);
+    }
+
+    @Test
+    void usuarioDesativadoPerdeTodosOsTokens() {
+        servico.incrementar(usuario(1L, 2, false));
+
+        assertThat(servico.versaoAtual(1L)).isEqualTo(TokenVersionService.VERSAO_INVALIDA);
+    }
+
+    @Test
+    void invalidarForcaNovaLeitura() {
+        when(usuarioRepository.buscarTokenVersao(1L)).thenReturn(Optional.of(0), Optional.of(4));
+        servico.versaoAtual(1L);
+
+        servico.invalidar(1L);
+
+        assertThat(servico.versaoAtual(1L)).isEqualTo(4);
+    }
+
+    private static Usuario usuario(Long id, int versao, boolean ativo) {
+        Usuario usuario = new Usuario();
+        usuario.setId(id);
+        usuario.setEmail("ana@connecta.com");
+        usuario.setTipoPerfil(Usuario.TipoPerfil.MENTOR);
+        usuario.setTokenVersao(versao);
+        usuario.setAtivo(ativo);
+        return usuario;
+    }
+}
@@ -0,0 +1,71 @@
+package br.com.fiap.gs.ConnectA.repository;
+
+import br.com.fiap.gs.ConnectA.model.EventoOutbox;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+class EventoOutboxRepositoryTest {
+
+    @Autowired
+    private EventoOutboxRepository eventoOutboxRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void eventoEmBackoffNaoSeguraOsDeOutrosAgregados() {
+        LocalDateTime agora = LocalDateTime.now();
+        EventoOutbox emBackoff = gravar(1L, agora.plusMinutes(5));
+        EventoOutbox outroAgregado = gravar(2L, agora.minusSeconds(1));
+
+        List<Long> ids = eventoOutboxRepository.buscarIdsPendentes(agora, PageRequest.of(0, 1));
+
+        assertThat(ids).containsExactly(outroAgregado.getId());
+        assertThat(ids).doesNotContain(emBackoff.getId());
+    }
+
+    @Test
+    void soOMaisAntigoDeCadaAgregadoFicaPronto() {
+        LocalDateTime agora = LocalDateTime.now();
+        EventoOutbox primeiro = gravar(1L, agora.minusSeconds(2));
+        gravar(1L, agora.minusSeconds(1));
+        EventoOutbox outro = gravar(2L, agora.minusSeconds(1));
+
+        assertThat(eventoOutboxRepository.buscarIdsPendentes(agora, PageRequest.of(0, 10)))
+                .containsExactly(primeiro.getId(), outro.getId());
+    }
+
+    @Test
+    void eventoReservadoSeguraOsSeguintesDoMesmoAgregado() {
+        LocalDateTime agora = LocalDateTime.now();
+        gravar(1L, agora.plusSeconds(20));
+        gravar(1L, agora.minusSeconds(1));
+
+        assertThat(eventoOutboxRepository.buscarIdsPendentes(agora, PageRequest.of(0, 10))).isEmpty();
+    }
+
+    private EventoOutbox gravar(Long agregadoId, LocalDateTime proximaTentativa) {
+        EventoOutbox evento = new EventoOutbox();
+        evento.setAgregadoTipo("USUARIO");
+        evento.setAgregadoId(agregadoId);
+        evento.setRoutingKey("usuario.criado");
+        evento.setPayload("{}");
+        evento.setVersaoSchema(1);
+        evento.setProximaTentativa(proximaTentativa);
+        return entityManager.persistAndFlush(evento);
+    }
+}
@@ -0,0 +1,85 @@
+package br.com.fiap.gs.ConnectA.repository;
+
+import br.com.fiap.gs.ConnectA.dto.UsuarioResponseDTO;
+import br.com.fiap.gs.ConnectA.model.Usuario;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.TestPropertySource;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Bytes alocados por página: entidade + fromEntity (antes) versus projeção em DTO (depois).
+ * Execução: mvn test -Dtest=UsuarioRepositoryAlocacaoBenchmarkTest -Dbenchmark=true
+ */
+@DataJpaTest
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class UsuarioRepositoryAlocacaoBenchmarkTest {
+
+    private static final int USUARIOS = 5_000;
+    private static final int TAMANHO_PAGINA = 100;
+    private static final int AQUECIMENTO = 200;
+    private static final int MEDICOES = 1_000;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void projecaoAlocaMenosQueEntidade() {
+        for (int i = 0; i < USUARIOS; i++) {
+            Usuario usuario = new Usuario();
+            usuario.setNome("Usuário " + i);
+            usuario.setEmail("usuario" + i + "@connecta.com");
+            usuario.setTelefone("+5511999990000");
+            usuario.setSenha("$2a$10$abcdefghijklmnopqrstuuABCDEFGHIJKLMNOPQRSTUVWXYZ01234");
+            usuario.setTipoPerfil(i % 2 == 0 ? Usuario.TipoPerfil.MENTOR : Usuario.TipoPerfil.MENTORADO);
+            entityManager.persist(usuario);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        Pageable pagina = PageRequest.of(3, TAMANHO_PAGINA, Sort.by("nome"));
+        long antes = bytesPorPagina(() -> usuarioRepository.findByAtivoTrue(pagina).map(UsuarioResponseDTO::fromEntity));
+        long depois = bytesPorPagina(() -> usuarioRepository.listarResumosAtivos(pagina));
+
+        System.out.printf("entidade=%d bytes/página  projeção=%d bytes/página  (%.1f%%)%n",
+                antes, depois, 100.0 * depois / antes);
+        assertThat(depois).isLessThan(antes);
+    }
+
+    private long bytesPorPagina(Supplier<Page<UsuarioResponseDTO>> consulta) {
+        for (int i = 0; i < AQUECIMENTO; i++) {
+            consulta.get();
+            entityManager.clear();
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        long total = 0;
+        for (int i = 0; i < MEDICOES; i++) {
+            long inicio = threads.getThreadAllocatedBytes(thread);
+            Page<UsuarioResponseDTO> resultado = consulta.get();
+            total += threads.getThreadAllocatedBytes(thread) - inicio;
+            assertThat(resultado.getContent()).hasSize(TAMANHO_PAGINA);
+            // Cada requisição tem seu próprio contexto de persistência
+            entityManager.clear();
+        }
+        return total / MEDICOES;
+    }
+}
@@ -0,0 +1,178 @@
+package br.com.fiap.gs.ConnectA.service;
+
+import br.com.fiap.gs.ConnectA.config.GroqConfig;
+import br.com.fiap.gs.ConnectA.service.assistente.AnaliseCurriculo;
+import br.com.fiap.gs.ConnectA.service.assistente.AnalisesEmAndamento;
+import br.com.fiap.gs.ConnectA.service.assistente.CacheAnaliseCurriculo;
+import br.com.fiap.gs.ConnectA.service.assistente.LimitadorTaxaGroq;
+import br.com.fiap.gs.ConnectA.service.assistente.ResilienciaGroq;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AssistentePerfilServiceStreamTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private HttpServer servidor;
+    private AssistentePerfilService service;
+    private ResilienciaGroq resiliencia;
+
+    /**
+     * Fragmentos do conteúdo gerado, enviados um por evento SSE
+     */
+    private volatile List<String> fragmentos = List.of();
+    /**
+     * Depois de quantos fragmentos o stub espera a primeira skill chegar ao cliente
+     */
+    private volatile int pausarApos = Integer.MAX_VALUE;
+    private final CountDownLatch primeiraSkill = new CountDownLatch(1);
+    private volatile boolean skillAntesDoFim;
+    private volatile String corpoRecebido;
+    private volatile String acceptRecebido;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        servidor.createContext("/chat/completions", this::responderEmStreaming);
+        servidor.start();
+
+        resiliencia = new ResilienciaGroq(new SimpleMeterRegistry(), 4, 2, 50, 80, Duration.ofSeconds(10),
+                Duration.ofMinutes(1), 1, 5, Duration.ZERO, false, Duration.ofSeconds(2), 0.95);
+        GroqConfig groqConfig = new GroqConfig();
+        ReflectionTestUtils.setField(groqConfig, "apiUrl",
+                "http://127.0.0.1:" + servidor.getAddress().getPort() + "/chat/completions");
+        ReflectionTestUtils.setField(groqConfig, "apiKey", "chave-teste");
+        ReflectionTestUtils.setField(groqConfig, "model", "modelo-teste");
+        CacheAnaliseCurriculo semCache = new CacheAnaliseCurriculo(new ObjectMapper(), new SimpleMeterRegistry(),
+                false, 10, Path.of("nao-usado"), DataSize.ofMegabytes(1));
+        service = new AssistentePerfilService(new RestTemplate(), groqConfig, semCache,
+                new AnalisesEmAndamento(new SimpleMeterRegistry()),
+                new LimitadorTaxaGroq(new SimpleMeterRegistry(), 1000, 1_000_000, 1,
+                        Duration.ofMillis(10), Duration.ofMillis(10), Duration.ofSeconds(5)),
+                resiliencia);
+    }
+
+    @AfterEach
+    void tearDown() {
+        servidor.stop(0);
+    }
+
+    @Test
+    void entregaCadaSkillAntesDeOModeloTerminar() {
+        fragmentos = List.of(
+                "```json\n{\"sk", "ills\": [\"Ja", "va\", \"Spring",
+                " Boot\", \"Comunica\\u00e7", "\\u00e3o\"", "]}\n```"
+        );
+        pausarApos = 3;
+        List<String> recebidas = new CopyOnWriteArrayList<>();
+
+        List<String> skills = service.analisarCurriculoStream("Dev Java com Spring Boot", "pt-BR", skill -> {
+            recebidas.add(skill);
+            primeiraSkill.countDown();
+        }).skills();
+
+        assertThat(skillAntesDoFim).isTrue();
+        assertThat(recebidas).containsExactly("Java", "Spring Boot", "Comunicação");
+        assertThat(skills).containsExactly("Java", "Spring Boot", "Comunicação");
+        assertThat(corpoRecebido).contains("\"stream\":true").contains("\"model\":\"modelo-teste\"");
+        assertThat(acceptRecebido).isEqualTo("text/event-stream");
+    }
+
+    @Test
+    void ignoraCamposForaDoArrayDeSkills() {
+        fragmentos = List.of("{\"resumo\": \"Java\", \"skills\": [\"Docker\", ", "\"Kubernetes\"], \"extra\": [\"Scrum\"]}");
+
+        List<String> recebidas = new CopyOnWriteArrayList<>();
+        List<String> skills = service.analisarCurriculoStream("Dev", "pt-BR", recebidas::add).skills();
+
+        assertThat(recebidas).containsExactly("Docker", "Kubernetes");
+        assertThat(skills).containsExactly("Docker", "Kubernetes");
+    }
+
+    @Test
+    void respostaSemJsonCaiNoParsingPorVirgula() {
+        fragmentos = List.of("Java, Pyth", "on, Docker");
+
+        List<String> recebidas = new CopyOnWriteArrayList<>();
+        List<String> skills = service.analisarCurriculoStream("Dev", "es-ES", recebidas::add).skills();
+
+        assertThat(skills).containsExactly("Java", "Python", "Docker");
+        assertThat(recebidas).containsExactly("Java", "Python", "Docker");
+    }
+
+    @Test
+    void circuitoAbertoEntregaAnaliseDegradadaSemChamarOGroq() {
+        fragmentos = List.of("{\"skills\": [\"Nunca\"]}");
+        for (int i = 0; i < 2; i++) {
+            try {
+                resiliencia.executar(() -> {
+                    throw new ResourceAccessException("Groq fora");
+                });
+            } catch (ResourceAccessException esperado) {
+                // abre o circuito
+            }
+        }
+
+        List<String> recebidas = new CopyOnWriteArrayList<>();
+        AnaliseCurriculo analise = service.analisarCurriculoStream(
+                "Dev Java, Spring Boot e PostgreSQL; liderança de squad", "pt-BR", recebidas::add);
+
+        assertThat(analise.degradada()).isTrue();
+        assertThat(analise.skills()).containsExactly("Java", "Spring Boot", "PostgreSQL", "Liderança");
+        assertThat(recebidas).containsExactlyElementsOf(analise.skills());
+        assertThat(corpoRecebido).isNull();
+    }
+
+    /**
+     * Replica uma resposta chunked no formato do Groq: um evento "data:" por fragmento e [DONE] no fim
+     */
+    private void responderEmStreaming(HttpExchange troca) throws IOException {
+        corpoRecebido = new String(troca.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        acceptRecebido = troca.getRequestHeaders().getFirst("Accept");
+        troca.getResponseHeaders().set("Content-Type", "text/event-stream");
+        troca.sendResponseHeaders(200, 0);
+        try (OutputStream saida = troca.getResponseBody()) {
+            for (int i = 0; i < fragmentos.size(); i++) {
+                if (i == pausarApos) {
+                    skillAntesDoFim = aguardarPrimeiraSkill();
+                }
+                String chunk = objectMapper.writeValueAsString(
+                        Map.of("choices", List.of(Map.of("delta", Map.of("content", fragmentos.get(i))))));
+                saida.write(("data: " + chunk + "\n\n").getBytes(StandardCharsets.UTF_8));
+                saida.flush();
+            }
+            saida.write("data: [DONE]\n\n".getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private boolean aguardarPrimeiraSkill() {
+        try {
+            return primeiraSkill.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package br.com.fiap.gs.ConnectA.service;
+
+import br.com.fiap.gs.ConnectA.config.CacheConfig;
+import br.com.fiap.gs.ConnectA.config.RabbitMQConfig;
+import br.com.fiap.gs.ConnectA.config.security.TokenVersionService;
+import br.com.fiap.gs.ConnectA.dto.evento.UsuariosAlteradosEvento;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class CacheInvalidacaoServiceTest {
+
+    private InMemoryBroker broker;
+    private ConcurrentMapCacheManager cachesNoA;
+    private ConcurrentMapCacheManager cachesNoB;
+    private TokenVersionService versoesNoA;
+    private TokenVersionService versoesNoB;
+    private CacheInvalidacaoService noA;
+    private CacheInvalidacaoService noB;
+    private final List<Object> eventosNoB = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        broker = new InMemoryBroker(objectMapper);
+
+        cachesNoA = new ConcurrentMapCacheManager(
+                CacheConfig.USUARIOS, CacheConfig.USUARIOS_POR_EMAIL, CacheConfig.USUARIOS_INEXISTENTES);
+        cachesNoB = new ConcurrentMapCacheManager(
+                CacheConfig.USUARIOS, CacheConfig.USUARIOS_POR_EMAIL, CacheConfig.USUARIOS_INEXISTENTES);
+        versoesNoA = mock(TokenVersionService.class);
+        versoesNoB = mock(TokenVersionService.class);
+
+        noA = new CacheInvalidacaoService(broker, cachesNoA, versoesNoA, objectMapper,
+                new UsuarioNaoEncontradoCache(cachesNoA, new SimpleMeterRegistry()), evento -> { });
+        noB = new CacheInvalidacaoService(broker, cachesNoB, versoesNoB, objectMapper,
+                new UsuarioNaoEncontradoCache(cachesNoB, new SimpleMeterRegistry()), eventosNoB::add);
+        broker.assinar(noA);
+        broker.assinar(noB);
+    }
+
+    @Test
+    void invalidacaoEmUmNoRemoveOUsuarioDosCachesDosDemais() {
+        popular(cachesNoA, 1L, "ana@connecta.com");
+        popular(cachesNoB, 1L, "ana@connecta.com");
+
+        noA.invalidar(List.of(1L), List.of("ana@connecta.com"));
+        broker.entregar();
+
+        assertThat(cachesNoA.getCache(CacheConfig.USUARIOS).get(1L)).isNull();
+        assertThat(cachesNoB.getCache(CacheConfig.USUARIOS).get(1L)).isNull();
+        assertThat(cachesNoB.getCache(CacheConfig.USUARIOS_POR_EMAIL).get("ana@connecta.com")).isNull();
+        verify(versoesNoB).invalidar(1L);
+        verify(versoesNoA, never()).invalidar(1L);
+        assertThat(eventosNoB).containsExactly(new UsuariosAlteradosEvento(Set.of(1L)));
+    }
+
+    @Test
+    void loteDeEventosEhAplicadoDeUmaVezSoNoNoRemoto() {
+        popular(cachesNoB, 1L, "ana@connecta.com");
+        popular(cachesNoB, 2L, "bia@connecta.com");
+        popular(cachesNoB, 3L, "caio@connecta.com");
+
+        noA.invalidar(List.of(1L), List.of("ana@connecta.com"));
+        noA.invalidar(List.of(2L), List.of("bia@connecta.com"));
+        broker.entregar();
+
+        assertThat(cachesNoB.getCache(CacheConfig.USUARIOS).get(1L)).isNull();
+        assertThat(cachesNoB.getCache(CacheConfig.USUARIOS).get(2L)).isNull();
+        assertThat(cachesNoB.getCache(CacheConfig.USUARIOS).get(3L)).isNotNull();
+        assertThat(cachesNoB.getCache(CacheConfig.USUARIOS_POR_EMAIL).get("caio@connecta.com")).isNotNull();
+    }
+
+    @Test
+    void usuarioCriadoEmUmNoDeixaDeSerNegativoNosDemais() {
+        UsuarioNaoEncontradoCache negativoNoB = new UsuarioNaoEncontradoCache(cachesNoB, new SimpleMeterRegistry());
+        negativoNoB.registrarId(7L);
+        negativoNoB.registrarEmail("novo@connecta.com");
+
+        noA.invalidar(List.of(7L), List.of("novo@connecta.com"));
+        broker.entregar();
+
+        assertThat(negativoNoB.contemId(7L)).isFalse();
+        assertThat(negativoNoB.contemEmail("novo@connecta.com")).isFalse();
+    }
+
+    private void popular(ConcurrentMapCacheManager caches, Long id, String email) {
+        caches.getCache(CacheConfig.USUARIOS).put(id, "usuario-" + id);
+        caches.getCache(CacheConfig.USUARIOS_POR_EMAIL).put(email, "usuario-" + id);
+    }
+
+    /**
+     * Substituto do broker: acumula o que foi publicado no exchange e entrega
+     * em lote para todos os nós assinantes da routing key de invalidação
+     */
+    private static class InMemoryBroker extends RabbitTemplate {
+
+        private final List<Message> pendentes = new ArrayList<>();
+        private final List<CacheInvalidacaoService> assinantes = new ArrayList<>();
+
+        InMemoryBroker(ObjectMapper objectMapper) {
+            setMessageConverter(new Jackson2JsonMessageConverter(objectMapper));
+        }
+
+        void assinar(CacheInvalidacaoService assinante) {
+            assinantes.add(assinante);
+        }
+
+        @Override
+        public void send(String exchange, String routingKey, Message message, CorrelationData correlationData) {
+            assertThat(exchange).isEqualTo(RabbitMQConfig.EXCHANGE);
+            assertThat(routingKey).isEqualTo(RabbitMQConfig.ROUTING_KEY_INVALIDACAO_CACHE);
+            pendentes.add(message);
+        }
+
+        void entregar() {
+            List<Message> lote = List.copyOf(pendentes);
+            pendentes.clear();
+            assinantes.forEach(assinante -> assinante.receber(lote));
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package br.com.fiap.gs.ConnectA.service.assistente;
+
+import br.com.fiap.gs.ConnectA.exception.ServicoIndisponivelException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AnalisesEmAndamentoTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AnalisesEmAndamento analises = new AnalisesEmAndamento(registry);
+
+    @Test
+    void chamadasIdenticasSimultaneasExecutamUmaVez() throws Exception {
+        CountDownLatch liberar = new CountDownLatch(1);
+        AtomicInteger execucoes = new AtomicInteger();
+        ExecutorService threads = Executors.newFixedThreadPool(5);
+        try {
+            List<CompletableFuture<List<String>>> resultados = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                resultados.add(CompletableFuture.supplyAsync(() -> analises.executar("chave", () -> {
+                    execucoes.incrementAndGet();
+                    aguardar(liberar);
+                    return List.of("Java");
+                }), threads));
+            }
+            aguardarCoalescidas(4);
+            liberar.countDown();
+
+            for (CompletableFuture<List<String>> resultado : resultados) {
+                assertThat(resultado.get(5, TimeUnit.SECONDS)).containsExactly("Java");
+            }
+            assertThat(execucoes).hasValue(1);
+            assertThat(registry.get("assistente.analises.em.andamento").gauge().value()).isZero();
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    @Test
+    void interromperQuemAguardaNaoAfetaAExecucao() throws Exception {
+        CountDownLatch iniciou = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        CompletableFuture<List<String>> lider = CompletableFuture.supplyAsync(() -> analises.executar("chave", () -> {
+            iniciou.countDown();
+            aguardar(liberar);
+            return List.of("Docker");
+        }));
+        iniciou.await(5, TimeUnit.SECONDS);
+
+        AtomicReference<Throwable> erro = new AtomicReference<>();
+        Thread desistente = new Thread(() -> {
+            try {
+                analises.executar("chave", List::of);
+            } catch (Throwable e) {
+                erro.set(e);
+            }
+        });
+        desistente.start();
+        aguardarCoalescidas(1);
+        desistente.interrupt();
+        desistente.join(5_000);
+
+        assertThat(erro.get()).isInstanceOf(ServicoIndisponivelException.class);
+        assertThat(registry.get("assistente.analises.coalescidas.canceladas").counter().count()).isEqualTo(1);
+
+        liberar.countDown();
+        assertThat(lider.get(5, TimeUnit.SECONDS)).containsExactly("Docker");
+    }
+
+    @Test
+    void falhaDaExecucaoChegaATodosEAChaveELiberada() throws Exception {
+        CountDownLatch liberar = new CountDownLatch(1);
+        CompletableFuture<List<String>> lider = CompletableFuture.supplyAsync(() -> analises.executar("chave", () -> {
+            aguardar(liberar);
+            throw new IllegalStateException("Groq fora");
+        }));
+        CompletableFuture<List<String>> seguidor = CompletableFuture.supplyAsync(() -> {
+            aguardarInicio();
+            return analises.executar("chave", List::of);
+        });
+        aguardarCoalescidas(1);
+        liberar.countDown();
+
+        assertThatThrownBy(() -> seguidor.get(5, TimeUnit.SECONDS)).hasRootCauseMessage("Groq fora");
+        assertThatThrownBy(() -> lider.get(5, TimeUnit.SECONDS)).hasRootCauseMessage("Groq fora");
+        assertThat(analises.executar("chave", () -> List.of("Kotlin"))).containsExactly("Kotlin");
+    }
+
+    private void aguardarInicio() {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (registry.get("assistente.analises.em.andamento").gauge().value() == 0 && System.nanoTime() < limite) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private void aguardarCoalescidas(int esperadas) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (registry.get("assistente.analises.coalescidas").counter().count() < esperadas && System.nanoTime() < limite) {
+            Thread.sleep(5);
+        }
+        // Dá tempo de quem foi contado chegar ao get()
+        Thread.sleep(50);
+    }
+
+    private static void aguardar(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
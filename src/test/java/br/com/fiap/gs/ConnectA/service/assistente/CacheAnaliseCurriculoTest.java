@@ -0,0 +1,186 @@
+package br.com.fiap.gs.ConnectA.service.assistente;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CacheAnaliseCurriculoTest {
+
+    /**
+     * Tamanho, CRC32 e chave de cada registro
+     */
+    private static final int CABECALHO = Integer.BYTES + Long.BYTES + 32;
+
+    @TempDir
+    Path diretorio;
+
+    private final List<CacheAnaliseCurriculo> abertos = new ArrayList<>();
+    private final AtomicInteger analises = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() throws IOException {
+        for (CacheAnaliseCurriculo cache : abertos) {
+            cache.fechar();
+        }
+    }
+
+    @Test
+    void acertosSobrevivemAoReinicio() throws IOException {
+        CacheAnaliseCurriculo primeiro = abrir(DataSize.ofMegabytes(1));
+        assertThat(obter(primeiro, "Java e Spring")).containsExactly("Java", "Spring Boot");
+        primeiro.fechar();
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        CacheAnaliseCurriculo reaberto = abrir(DataSize.ofMegabytes(1), registry);
+
+        assertThat(obter(reaberto, "Java e Spring")).containsExactly("Java", "Spring Boot");
+        assertThat(obter(reaberto, "Java   e Spring ")).containsExactly("Java", "Spring Boot");
+        assertThat(analises).hasValue(1);
+        assertThat(registry.get("assistente.cache.consultas").tag("resultado", "disco").counter().count()).isEqualTo(1);
+        assertThat(registry.get("assistente.cache.consultas").tag("resultado", "memoria").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void caudaIncompletaEhDescartadaNaReabertura() throws IOException {
+        CacheAnaliseCurriculo primeiro = abrir(DataSize.ofMegabytes(1));
+        obter(primeiro, "curriculo 1");
+        obter(primeiro, "curriculo 2");
+        primeiro.fechar();
+        long integro = Files.size(arquivo());
+        // Queda no meio da escrita: só parte do cabeçalho do próximo registro chegou ao disco
+        Files.write(arquivo(), new byte[]{0, 0, 0, 9, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        CacheAnaliseCurriculo reaberto = abrir(DataSize.ofMegabytes(1));
+
+        assertThat(Files.size(arquivo())).isEqualTo(integro);
+        obter(reaberto, "curriculo 1");
+        obter(reaberto, "curriculo 2");
+        assertThat(analises).hasValue(2);
+
+        // Novos registros continuam no fim do trecho íntegro
+        obter(reaberto, "curriculo 3");
+        reaberto.fechar();
+        CacheAnaliseCurriculo terceiro = abrir(DataSize.ofMegabytes(1));
+        obter(terceiro, "curriculo 3");
+        assertThat(analises).hasValue(3);
+    }
+
+    @Test
+    void registroComCrcInvalidoFicaForaDoIndiceSemPerderOsSeguintes() throws IOException {
+        CacheAnaliseCurriculo primeiro = abrir(DataSize.ofMegabytes(1));
+        obter(primeiro, "curriculo 1");
+        obter(primeiro, "curriculo 2");
+        primeiro.fechar();
+        long tamanho = Files.size(arquivo());
+        corromperByte(CABECALHO + 3);
+
+        CacheAnaliseCurriculo reaberto = abrir(DataSize.ofMegabytes(1));
+
+        assertThat(Files.size(arquivo())).isEqualTo(tamanho);
+        obter(reaberto, "curriculo 2");
+        assertThat(analises).hasValue(2);
+        obter(reaberto, "curriculo 1");
+        assertThat(analises).hasValue(3);
+    }
+
+    @Test
+    void registroAlteradoDepoisDaCargaViraMiss() throws IOException {
+        CacheAnaliseCurriculo primeiro = abrir(DataSize.ofMegabytes(1));
+        obter(primeiro, "curriculo 1");
+        primeiro.fechar();
+        CacheAnaliseCurriculo reaberto = abrir(DataSize.ofMegabytes(1));
+        corromperByte(CABECALHO + 3);
+
+        assertThat(obter(reaberto, "curriculo 1")).containsExactly("Java", "Spring Boot");
+        assertThat(analises).hasValue(2);
+
+        // A nova análise foi regravada: a próxima subida a encontra íntegra
+        reaberto.fechar();
+        CacheAnaliseCurriculo terceiro = abrir(DataSize.ofMegabytes(1));
+        obter(terceiro, "curriculo 1");
+        assertThat(analises).hasValue(2);
+    }
+
+    @Test
+    void tamanhoDanificadoDepoisDaCargaViraMissSemAlocarOValor() throws IOException {
+        CacheAnaliseCurriculo primeiro = abrir(DataSize.ofMegabytes(1));
+        obter(primeiro, "curriculo 1");
+        primeiro.fechar();
+        CacheAnaliseCurriculo reaberto = abrir(DataSize.ofMegabytes(1));
+        try (FileChannel canal = FileChannel.open(arquivo(), StandardOpenOption.WRITE)) {
+            canal.write(ByteBuffer.allocate(Integer.BYTES).putInt(0, Integer.MAX_VALUE - 64), 0);
+        }
+
+        assertThat(obter(reaberto, "curriculo 1")).containsExactly("Java", "Spring Boot");
+        assertThat(analises).hasValue(2);
+    }
+
+    @Test
+    void arquivoCheioMantemNovasEntradasSoEmMemoria() throws IOException {
+        CacheAnaliseCurriculo primeiro = abrir(DataSize.ofBytes(CABECALHO + 40));
+        obter(primeiro, "curriculo 1");
+        long tamanho = Files.size(arquivo());
+        obter(primeiro, "curriculo 2");
+
+        assertThat(Files.size(arquivo())).isEqualTo(tamanho);
+        obter(primeiro, "curriculo 2");
+        assertThat(analises).hasValue(2);
+
+        primeiro.fechar();
+        CacheAnaliseCurriculo reaberto = abrir(DataSize.ofBytes(CABECALHO + 40));
+        obter(reaberto, "curriculo 1");
+        obter(reaberto, "curriculo 2");
+        assertThat(analises).hasValue(3);
+    }
+
+    private List<String> obter(CacheAnaliseCurriculo cache, String curriculo) {
+        Supplier<List<String>> analisar = () -> {
+            analises.incrementAndGet();
+            return List.of("Java", "Spring Boot");
+        };
+        return cache.obter(curriculo, "pt", "prompt", "modelo", analisar);
+    }
+
+    private CacheAnaliseCurriculo abrir(DataSize tamanhoMaximoArquivo) {
+        return abrir(tamanhoMaximoArquivo, new SimpleMeterRegistry());
+    }
+
+    private CacheAnaliseCurriculo abrir(DataSize tamanhoMaximoArquivo, SimpleMeterRegistry registry) {
+        CacheAnaliseCurriculo cache = new CacheAnaliseCurriculo(
+                new ObjectMapper(), registry, true, 100, arquivo(), tamanhoMaximoArquivo);
+        cache.abrir();
+        abertos.add(cache);
+        return cache;
+    }
+
+    private Path arquivo() {
+        return diretorio.resolve("analises.bin");
+    }
+
+    /**
+     * Troca uma letra dentro de uma string do JSON: o valor continua legível e só o CRC acusa
+     */
+    private void corromperByte(long posicao) throws IOException {
+        try (FileChannel canal = FileChannel.open(arquivo(), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer atual = ByteBuffer.allocate(1);
+            canal.read(atual, posicao);
+            canal.write(ByteBuffer.wrap(new byte[]{(byte) (atual.get(0) ^ 0x5A)}), posicao);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package br.com.fiap.gs.ConnectA.service.assistente;
+
+import br.com.fiap.gs.ConnectA.exception.GroqIndisponivelException;
+import br.com.fiap.gs.ConnectA.exception.ServicoIndisponivelException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LimitadorTaxaGroqTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void seguraAChamadaAteOBucketDeTokensReabastecer() {
+        // 6000 tokens/min = 100 por segundo
+        LimitadorTaxaGroq limitador = limitador(1000, 6000, 1);
+
+        limitador.executar(6000, Duration.ofSeconds(5), () -> "primeira");
+        long inicio = System.nanoTime();
+        limitador.executar(50, Duration.ofSeconds(5), () -> "segunda");
+        long esperaMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+
+        assertThat(esperaMs).isBetween(400L, 1500L);
+    }
+
+    @Test
+    void desisteNaHoraQuandoAVagaNaoCabeNoPrazo() {
+        LimitadorTaxaGroq limitador = limitador(1, 1_000_000, 1);
+        limitador.executar(1, Duration.ofSeconds(5), () -> "consome a única requisição do minuto");
+
+        long inicio = System.nanoTime();
+        assertThatThrownBy(() -> limitador.executar(1, Duration.ofSeconds(2), () -> "não chama"))
+                .isInstanceOf(ServicoIndisponivelException.class);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio)).isLessThan(500);
+    }
+
+    @Test
+    void verificacaoRecusaAntesDeEsperarPorVaga() {
+        LimitadorTaxaGroq limitador = limitador(1, 1_000_000, 1);
+        limitador.executar(1, Duration.ofSeconds(5), () -> "consome a única requisição do minuto");
+
+        long inicio = System.nanoTime();
+        assertThatThrownBy(() -> limitador.executar(1, Duration.ofSeconds(30),
+                () -> {
+                    throw new GroqIndisponivelException("Circuito do Groq aberto");
+                },
+                () -> "não chama"))
+                .isInstanceOf(GroqIndisponivelException.class);
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio)).isLessThan(500);
+    }
+
+    @Test
+    void chamadaRecusadaSemSairDevolveAVaga() {
+        LimitadorTaxaGroq limitador = limitador(1, 1_000_000, 1);
+
+        assertThatThrownBy(() -> limitador.executar(1, Duration.ofSeconds(5), () -> {
+            throw new GroqIndisponivelException("Limite de chamadas simultâneas ao Groq atingido");
+        })).isInstanceOf(GroqIndisponivelException.class);
+
+        // A única requisição do minuto continua disponível
+        assertThat(limitador.tentarAdquirir(1)).isTrue();
+    }
+
+    @Test
+    void repeteO429DepoisDoRetryAfter() {
+        LimitadorTaxaGroq limitador = limitador(1000, 1_000_000, 3);
+        AtomicInteger chamadas = new AtomicInteger();
+
+        long inicio = System.nanoTime();
+        String resposta = limitador.executar(10, Duration.ofSeconds(5), () -> {
+            if (chamadas.incrementAndGet() == 1) {
+                throw muitasRequisicoes("1");
+            }
+            return "ok";
+        });
+
+        assertThat(resposta).isEqualTo("ok");
+        assertThat(chamadas).hasValue(2);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio)).isGreaterThanOrEqualTo(1000);
+        assertThat(registry.get("assistente.groq.respostas.limitadas").counter().count()).isEqualTo(1);
+        assertThat(registry.get("assistente.groq.retentativas").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void esgotaAsTentativasComServicoIndisponivel() {
+        LimitadorTaxaGroq limitador = limitador(1000, 1_000_000, 2);
+        AtomicInteger chamadas = new AtomicInteger();
+
+        assertThatThrownBy(() -> limitador.executar(10, Duration.ofSeconds(5), () -> {
+            chamadas.incrementAndGet();
+            throw muitasRequisicoes(null);
+        })).isInstanceOf(ServicoIndisponivelException.class);
+        assertThat(chamadas).hasValue(2);
+    }
+
+    @Test
+    void interpretaRetryAfterEmSegundosEComoData() {
+        HttpHeaders segundos = new HttpHeaders();
+        segundos.set(HttpHeaders.RETRY_AFTER, "2.5");
+        assertThat(LimitadorTaxaGroq.retryAfterNanos(segundos)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(2500));
+
+        HttpHeaders data = new HttpHeaders();
+        data.set(HttpHeaders.RETRY_AFTER, "Wed, 21 Oct 2015 07:28:00 GMT");
+        assertThat(LimitadorTaxaGroq.retryAfterNanos(data)).isZero();
+
+        assertThat(LimitadorTaxaGroq.retryAfterNanos(new HttpHeaders())).isNull();
+    }
+
+    private LimitadorTaxaGroq limitador(int requisicoesPorMinuto, int tokensPorMinuto, int maxTentativas) {
+        return new LimitadorTaxaGroq(registry, requisicoesPorMinuto, tokensPorMinuto, maxTentativas,
+                Duration.ofMillis(20), Duration.ofMillis(100), Duration.ofSeconds(5));
+    }
+
+    private static HttpClientErrorException muitasRequisicoes(String retryAfter) {
+        HttpHeaders headers = new HttpHeaders();
+        if (retryAfter != null) {
+            headers.set(HttpHeaders.RETRY_AFTER, retryAfter);
+        }
+        return HttpClientErrorException.create(HttpStatus.TOO_MANY_REQUESTS, "Too Many Requests", headers, null, null);
+    }
+}
@@ -0,0 +1,230 @@
+package br.com.fiap.gs.ConnectA.service.assistente;
+
+import br.com.fiap.gs.ConnectA.exception.GroqIndisponivelException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ResilienciaGroqTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void abrePelaTaxaDeFalhasERecusaSemChamar() {
+        ResilienciaGroq resiliencia = resiliencia(Duration.ofMinutes(1), Duration.ofSeconds(10), 5, false);
+
+        falhar(resiliencia);
+        assertThat(resiliencia.executar(() -> "ok")).isEqualTo("ok");
+        assertThat(resiliencia.executar(() -> "ok")).isEqualTo("ok");
+        assertThat(resiliencia.getEstado()).isEqualTo(ResilienciaGroq.Estado.FECHADO);
+        falhar(resiliencia);
+
+        assertThat(resiliencia.getEstado()).isEqualTo(ResilienciaGroq.Estado.ABERTO);
+        AtomicInteger chamadas = new AtomicInteger();
+        assertThatThrownBy(() -> resiliencia.executar(chamadas::incrementAndGet))
+                .isInstanceOf(GroqIndisponivelException.class);
+        assertThat(chamadas).hasValue(0);
+        assertThat(contador("assistente.groq.chamadas", "resultado", "circuito_aberto")).isEqualTo(1);
+        assertThat(registry.get("assistente.groq.circuito.transicoes").tag("de", "fechado").tag("para", "aberto")
+                .counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void errosDoClienteNaoAbremOCircuito() {
+        ResilienciaGroq resiliencia = resiliencia(Duration.ofMinutes(1), Duration.ofSeconds(10), 5, false);
+
+        for (int i = 0; i < 10; i++) {
+            assertThatThrownBy(() -> resiliencia.executar(() -> {
+                throw HttpClientErrorException.create(HttpStatus.TOO_MANY_REQUESTS, "Too Many Requests", null, null, null);
+            })).isInstanceOf(HttpClientErrorException.class);
+        }
+
+        assertThat(resiliencia.getEstado()).isEqualTo(ResilienciaGroq.Estado.FECHADO);
+    }
+
+    @Test
+    void erroDoConsumidorNaoAbreOCircuito() {
+        ResilienciaGroq resiliencia = resiliencia(Duration.ofMinutes(1), Duration.ofSeconds(10), 5, false);
+
+        // Ex.: cliente do SSE desconectou enquanto as skills eram repassadas
+        for (int i = 0; i < 10; i++) {
+            assertThatThrownBy(() -> resiliencia.executar(() -> {
+                throw new UncheckedIOException(new IOException("Broken pipe"));
+            })).isInstanceOf(UncheckedIOException.class);
+        }
+
+        assertThat(resiliencia.getEstado()).isEqualTo(ResilienciaGroq.Estado.FECHADO);
+    }
+
+    @Test
+    void respostas5xxAbremOCircuito() {
+        ResilienciaGroq resiliencia = resiliencia(Duration.ofMinutes(1), Duration.ofSeconds(10), 5, false);
+
+        for (int i = 0; i < 4; i++) {
+            assertThatThrownBy(() -> resiliencia.executar(() -> {
+                throw HttpServerErrorException.create(HttpStatus.INTERNAL_SERVER_ERROR, "Internal Server Error", null, null, null);
+            })).isInstanceOf(HttpServerErrorException.class);
+        }
+
+        assertThat(resiliencia.getEstado()).isEqualTo(ResilienciaGroq.Estado.ABERTO);
+    }
+
+    @Test
+    void verificarCircuitoRecusaSemOcuparVagaDeTeste() throws InterruptedException {
+        ResilienciaGroq resiliencia = resiliencia(Duration.ofMillis(100), Duration.ofSeconds(10), 5, false);
+        resiliencia.verificarCircuito();
+        for (int i = 0; i < 4; i++) {
+            falhar(resiliencia);
+        }
+
+        assertThatThrownBy(resiliencia::verificarCircuito).isInstanceOf(GroqIndisponivelException.class);
+
+        Thread.sleep(150);
+        resiliencia.verificarCircuito();
+        resiliencia.verificarCircuito();
+        resiliencia.executar(() -> "teste 1");
+        resiliencia.executar(() -> "teste 2");
+        assertThat(resiliencia.getEstado()).isEqualTo(ResilienciaGroq.Estado.FECHADO);
+    }
+
+    @Test
+    void abrePelaTaxaDeChamadasLentas() {
+        ResilienciaGroq resiliencia = resiliencia(Duration.ofMinutes(1), Duration.ofMillis(20), 5, false);
+
+        for (int i = 0; i < 4; i++) {
+            resiliencia.executar(() -> dormir(40));
+        }
+
+        assertThat(resiliencia.getEstado()).isEqualTo(ResilienciaGroq.Estado.ABERTO);
+    }
+
+    @Test
+    void meioAbertoFechaDepoisDasChamadasDeTeste() throws InterruptedException {
+        ResilienciaGroq resiliencia = resiliencia(Duration.ofMillis(100), Duration.ofSeconds(10), 5, false);
+        for (int i = 0; i < 4; i++) {
+            falhar(resiliencia);
+        }
+        assertThat(resiliencia.getEstado()).isEqualTo(ResilienciaGroq.Estado.ABERTO);
+
+        Thread.sleep(150);
+        resiliencia.executar(() -> "teste 1");
+        assertThat(resiliencia.getEstado()).isEqualTo(ResilienciaGroq.Estado.MEIO_ABERTO);
+        resiliencia.executar(() -> "teste 2");
+
+        assertThat(resiliencia.getEstado()).isEqualTo(ResilienciaGroq.Estado.FECHADO);
+    }
+
+    @Test
+    void meioAbertoVoltaAAbrirSeOTesteFalhar() throws InterruptedException {
+        ResilienciaGroq resiliencia = resiliencia(Duration.ofMillis(100), Duration.ofSeconds(10), 5, false);
+        for (int i = 0; i < 4; i++) {
+            falhar(resiliencia);
+        }
+        Thread.sleep(150);
+
+        falhar(resiliencia);
+
+        assertThat(resiliencia.getEstado()).isEqualTo(ResilienciaGroq.Estado.ABERTO);
+        assertThatThrownBy(() -> resiliencia.executar(() -> "ok")).isInstanceOf(GroqIndisponivelException.class);
+    }
+
+    @Test
+    void bulkheadCheioRecusa() throws Exception {
+        ResilienciaGroq resiliencia = resiliencia(Duration.ofMinutes(1), Duration.ofSeconds(10), 1, false);
+        CountDownLatch ocupando = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        CompletableFuture<String> ocupada = CompletableFuture.supplyAsync(() -> resiliencia.executar(() -> {
+            ocupando.countDown();
+            aguardar(liberar);
+            return "ok";
+        }));
+        ocupando.await(5, TimeUnit.SECONDS);
+
+        assertThatThrownBy(() -> resiliencia.executar(() -> "não chama"))
+                .isInstanceOf(GroqIndisponivelException.class);
+        assertThat(contador("assistente.groq.chamadas", "resultado", "bulkhead_cheio")).isEqualTo(1);
+
+        liberar.countDown();
+        assertThat(ocupada.get(5, TimeUnit.SECONDS)).isEqualTo("ok");
+    }
+
+    @Test
+    void hedgeDisparaCopiaQuandoAChamadaPassaDoPercentil() {
+        ResilienciaGroq resiliencia = resiliencia(Duration.ofMinutes(1), Duration.ofSeconds(10), 5, true);
+        for (int i = 0; i < 20; i++) {
+            resiliencia.executar(() -> "rápida", () -> true);
+        }
+        AtomicInteger chamadas = new AtomicInteger();
+
+        long inicio = System.nanoTime();
+        String resposta = resiliencia.executar(() -> chamadas.incrementAndGet() == 1 ? dormir(2000) : "cópia", () -> true);
+
+        assertThat(resposta).isEqualTo("cópia");
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio)).isLessThan(1000);
+        assertThat(registry.get("assistente.groq.hedges").counter().count()).isEqualTo(1);
+        assertThat(registry.get("assistente.groq.hedges.vencedores").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void semCotaOHedgeNaoDispara() {
+        ResilienciaGroq resiliencia = resiliencia(Duration.ofMinutes(1), Duration.ofSeconds(10), 5, true);
+        for (int i = 0; i < 20; i++) {
+            resiliencia.executar(() -> "rápida", () -> true);
+        }
+
+        String resposta = resiliencia.executar(() -> dormir(200), () -> false);
+
+        assertThat(resposta).isEqualTo("lenta");
+        assertThat(registry.get("assistente.groq.hedges").counter().count()).isZero();
+    }
+
+    /**
+     * Janela de 4 chamadas (avaliada só quando cheia), abre com 50% de falhas ou 80% de lentas;
+     * 2 chamadas de teste no meio aberto
+     */
+    private ResilienciaGroq resiliencia(Duration esperaAberto, Duration limiarLentidao, int maxConcorrentes, boolean hedge) {
+        return new ResilienciaGroq(registry, 4, 4, 50, 80, limiarLentidao, esperaAberto, 2,
+                maxConcorrentes, Duration.ZERO, hedge, Duration.ofMillis(50), 0.95);
+    }
+
+    private void falhar(ResilienciaGroq resiliencia) {
+        assertThatThrownBy(() -> resiliencia.executar(() -> {
+            throw new ResourceAccessException("timeout");
+        })).isInstanceOf(ResourceAccessException.class);
+    }
+
+    private double contador(String nome, String tag, String valor) {
+        return registry.get(nome).tag(tag, valor).counter().count();
+    }
+
+    private static String dormir(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "lenta";
+    }
+
+    private static void aguardar(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package br.com.fiap.gs.ConnectA.service.busca;
+
+import br.com.fiap.gs.ConnectA.dto.UsuarioNomeDTO;
+import br.com.fiap.gs.ConnectA.dto.evento.UsuariosAlteradosEvento;
+import br.com.fiap.gs.ConnectA.repository.UsuarioRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BuscaNomeServiceTest {
+
+    private final UsuarioRepository usuarioRepository = mock(UsuarioRepository.class);
+    private final BuscaNomeService servico =
+            new BuscaNomeService(usuarioRepository, mock(PlatformTransactionManager.class), true);
+
+    @AfterEach
+    void tearDown() {
+        servico.encerrar();
+    }
+
+    @Test
+    void alteracaoEhRelidaNaThreadDoIndiceENaoEmQuemPublica() throws Exception {
+        when(usuarioRepository.streamNomesAtivos()).thenReturn(Stream.of(new UsuarioNomeDTO(1L, "Ana Lima", true)));
+        AtomicReference<String> threadDaReleitura = new AtomicReference<>();
+        when(usuarioRepository.buscarNomesPorIds(anyCollection())).thenAnswer(invocacao -> {
+            threadDaReleitura.set(Thread.currentThread().getName());
+            return List.of(new UsuarioNomeDTO(1L, "Ana Souza", true));
+        });
+        servico.iniciarCarga();
+        aguardarTotal("lima", 1);
+
+        servico.aoAlterarUsuarios(new UsuariosAlteradosEvento(List.of(1L)));
+
+        aguardarTotal("souza", 1);
+        assertThat(total("lima")).isZero();
+        assertThat(threadDaReleitura.get()).isEqualTo("indice-nomes");
+    }
+
+    @Test
+    void alteracaoRecebidaDuranteACargaEhAplicadaAoFinal() throws Exception {
+        CountDownLatch liberarCarga = new CountDownLatch(1);
+        when(usuarioRepository.streamNomesAtivos()).thenAnswer(invocacao -> {
+            liberarCarga.await(5, TimeUnit.SECONDS);
+            return Stream.of(new UsuarioNomeDTO(1L, "Ana Lima", true), new UsuarioNomeDTO(2L, "Bruno Costa", true));
+        });
+        when(usuarioRepository.buscarNomesPorIds(anyCollection()))
+                .thenReturn(List.of(new UsuarioNomeDTO(2L, "Bruno Costa", false)));
+        servico.iniciarCarga();
+
+        servico.aoAlterarUsuarios(new UsuariosAlteradosEvento(List.of(2L)));
+        verify(usuarioRepository, never()).buscarNomesPorIds(anyCollection());
+        assertThat(servico.buscar("costa", PageRequest.of(0, 10))).isEmpty();
+        liberarCarga.countDown();
+
+        aguardarTotal("lima", 1);
+        aguardarTotal("costa", 0);
+    }
+
+    private long total(String nome) {
+        return servico.buscar(nome, PageRequest.of(0, 10)).map(pagina -> pagina.getTotalElements()).orElse(-1L);
+    }
+
+    private void aguardarTotal(String nome, long esperado) throws InterruptedException {
+        long prazo = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (total(nome) != esperado && System.nanoTime() < prazo) {
+            Thread.sleep(10);
+        }
+        assertThat(total(nome)).isEqualTo(esperado);
+    }
+}
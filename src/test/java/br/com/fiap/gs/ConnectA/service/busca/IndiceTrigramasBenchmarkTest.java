@@ -0,0 +1,121 @@
+package br.com.fiap.gs.ConnectA.service.busca;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compara a busca LIKE + COUNT do repositório com o índice de trigramas.
+ * Execução: mvn test -Dtest=IndiceTrigramasBenchmarkTest -Dbenchmark=true [-Dbenchmark.linhas=2000000]
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class IndiceTrigramasBenchmarkTest {
+
+    private static final String[] PRIMEIROS = {
+            "Ana", "Bruno", "Carla", "Daniel", "Élida", "Fábio", "Gustavo", "Helena", "Igor", "Júlia",
+            "Lucas", "Marina", "Nícolas", "Otávio", "Paula", "Rafael", "Sofia", "Thiago", "Valéria", "Yasmin"
+    };
+    private static final String[] SOBRENOMES = {
+            "Silva", "Santos", "Oliveira", "Souza", "Lima", "Pereira", "Ferreira", "Costa", "Rodrigues",
+            "Almeida", "Nascimento", "Araújo", "Gonçalves", "Ribeiro", "Carvalho", "Gomes", "Martins", "Rocha"
+    };
+    private static final String[] CONSULTAS = {"silva", "julia", "mar", "gonçalves rocha", "zzz"};
+    private static final int REPETICOES = 20;
+
+    private static Connection conexao;
+    private static IndiceTrigramas indice;
+
+    @BeforeAll
+    static void popular() throws SQLException {
+        int linhas = Integer.getInteger("benchmark.linhas", 2_000_000);
+        conexao = DriverManager.getConnection("jdbc:h2:mem:benchmark;MODE=Oracle");
+        try (Statement ddl = conexao.createStatement()) {
+            ddl.execute("CREATE TABLE TB_USUARIO (ID NUMBER PRIMARY KEY, NOME VARCHAR2(100), ATIVO NUMBER(1))");
+        }
+
+        indice = new IndiceTrigramas();
+        Random random = new Random(42);
+        conexao.setAutoCommit(false);
+        try (PreparedStatement insert = conexao.prepareStatement("INSERT INTO TB_USUARIO VALUES (?, ?, 1)")) {
+            for (int id = 1; id <= linhas; id++) {
+                String nome = PRIMEIROS[random.nextInt(PRIMEIROS.length)] + " "
+                        + SOBRENOMES[random.nextInt(SOBRENOMES.length)] + " "
+                        + SOBRENOMES[random.nextInt(SOBRENOMES.length)] + " " + id;
+                insert.setLong(1, id);
+                insert.setString(2, nome);
+                insert.addBatch();
+                indice.adicionar(id, nome);
+                if (id % 10_000 == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        conexao.commit();
+    }
+
+    @AfterAll
+    static void fechar() throws SQLException {
+        if (conexao != null) {
+            conexao.close();
+        }
+    }
+
+    @Test
+    void likeNoBancoVersusIndiceDeTrigramas() throws SQLException {
+        for (String consulta : CONSULTAS) {
+            long inicioLike = System.nanoTime();
+            int totalLike = 0;
+            for (int i = 0; i < REPETICOES; i++) {
+                totalLike = buscarPorLike(consulta);
+            }
+            long mediaLike = (System.nanoTime() - inicioLike) / REPETICOES;
+
+            long inicioIndice = System.nanoTime();
+            int totalIndice = 0;
+            for (int i = 0; i < REPETICOES; i++) {
+                totalIndice = indice.buscar(consulta, 0, 20).total();
+            }
+            long mediaIndice = (System.nanoTime() - inicioIndice) / REPETICOES;
+
+            System.out.printf("consulta=%-18s like=%8.2f ms  indice=%8.2f ms  ocorrencias=%d%n",
+                    consulta, mediaLike / 1e6, mediaIndice / 1e6, totalIndice);
+            // O LIKE não ignora acentos: o índice encontra ao menos o mesmo que ele
+            assertThat(totalIndice).isGreaterThanOrEqualTo(totalLike);
+        }
+    }
+
+    /**
+     * Mesmo par de consultas que o Spring Data gera para a página: conteúdo + COUNT
+     */
+    private int buscarPorLike(String nome) throws SQLException {
+        String filtro = "LOWER(NOME) LIKE LOWER('%' || ? || '%') AND ATIVO = 1";
+        try (PreparedStatement pagina = conexao.prepareStatement(
+                "SELECT ID FROM TB_USUARIO WHERE " + filtro + " ORDER BY NOME FETCH FIRST 20 ROWS ONLY");
+             PreparedStatement contagem = conexao.prepareStatement(
+                     "SELECT COUNT(*) FROM TB_USUARIO WHERE " + filtro)) {
+            pagina.setString(1, nome);
+            try (ResultSet rs = pagina.executeQuery()) {
+                while (rs.next()) {
+                    rs.getLong(1);
+                }
+            }
+            contagem.setString(1, nome);
+            try (ResultSet rs = contagem.executeQuery()) {
+                rs.next();
+                return rs.getInt(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package br.com.fiap.gs.ConnectA.service.busca;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IndiceTrigramasTest {
+
+    @Test
+    void ordenaPorPrefixoInicioDePalavraEDemaisOcorrencias() {
+        IndiceTrigramas indice = new IndiceTrigramas();
+        indice.adicionar(1L, "Carla Marina");
+        indice.adicionar(2L, "Marina Souza");
+        indice.adicionar(3L, "Ana Amarina");
+        indice.adicionar(4L, "Marina Alves");
+        indice.adicionar(5L, "Bruno Lima");
+
+        IndiceTrigramas.Resultado resultado = indice.buscar("marina", 0, 10);
+
+        // Prefixo (empate pelo nome), início de palavra, meio de palavra
+        assertThat(resultado.ids()).containsExactly(4L, 2L, 1L, 3L);
+        assertThat(resultado.total()).isEqualTo(4);
+    }
+
+    @Test
+    void paginaComOffsetMantemOTotal() {
+        IndiceTrigramas indice = new IndiceTrigramas();
+        for (long id = 1; id <= 5; id++) {
+            indice.adicionar(id, "Silva " + id);
+        }
+
+        IndiceTrigramas.Resultado resultado = indice.buscar("silva", 2, 2);
+
+        assertThat(resultado.ids()).containsExactly(3L, 4L);
+        assertThat(resultado.total()).isEqualTo(5);
+        assertThat(indice.buscar("silva", 10, 2).ids()).isEmpty();
+        assertThat(indice.buscar("silva", 0, 0).total()).isEqualTo(5);
+    }
+
+    @Test
+    void ignoraAcentosEMaiusculas() {
+        IndiceTrigramas indice = new IndiceTrigramas();
+        indice.adicionar(1L, "Júlia Gonçalves");
+        indice.adicionar(2L, "JULIANA ARAÚJO");
+
+        assertThat(indice.buscar("JULIA", 0, 10).ids()).containsExactly(1L, 2L);
+        assertThat(indice.buscar("goncalves", 0, 10).ids()).containsExactly(1L);
+        assertThat(indice.buscar("Araújo", 0, 10).ids()).containsExactly(2L);
+        assertThat(IndiceTrigramas.normalizar("  Élida Fábio ")).isEqualTo("elida fabio");
+    }
+
+    @Test
+    void consultaCurtaPercorreTodosOsDocumentos() {
+        IndiceTrigramas indice = new IndiceTrigramas();
+        indice.adicionar(1L, "Ana Lima");
+        indice.adicionar(2L, "Bruno Costa");
+        indice.adicionar(3L, "Luana Rocha");
+
+        assertThat(indice.buscar("an", 0, 10).ids()).containsExactly(1L, 3L);
+        assertThat(indice.buscar("a", 0, 10).total()).isEqualTo(3);
+        assertThat(indice.buscar("", 0, 10).total()).isEqualTo(3);
+        assertThat(indice.buscar("zzz", 0, 10).total()).isZero();
+    }
+
+    @Test
+    void removidosEReindexadosNaoAparecemComONomeAntigo() {
+        IndiceTrigramas indice = new IndiceTrigramas();
+        indice.adicionar(1L, "Paula Gomes");
+        indice.adicionar(2L, "Paulo Gomes");
+
+        indice.remover(2L);
+        indice.adicionar(1L, "Paula Martins");
+
+        assertThat(indice.buscar("gomes", 0, 10).total()).isZero();
+        assertThat(indice.buscar("martins", 0, 10).ids()).containsExactly(1L);
+        assertThat(indice.tamanho()).isEqualTo(1);
+        indice.remover(99L);
+        assertThat(indice.tamanho()).isEqualTo(1);
+    }
+
+    @Test
+    void compactarDescartaDocumentosMortos() {
+        IndiceTrigramas indice = new IndiceTrigramas();
+        for (long id = 1; id <= 3_000; id++) {
+            indice.adicionar(id, "Usuario " + id);
+        }
+        for (long id = 1; id <= 2_000; id++) {
+            indice.remover(id);
+        }
+        assertThat(indice.precisaCompactar()).isTrue();
+
+        IndiceTrigramas compactado = indice.compactar();
+
+        assertThat(compactado.precisaCompactar()).isFalse();
+        assertThat(compactado.tamanho()).isEqualTo(1_000);
+        assertThat(compactado.buscar("usuario", 0, 0).total()).isEqualTo(1_000);
+        assertThat(compactado.buscar("usuario 2500", 0, 10).ids()).containsExactly(2500L);
+        assertThat(compactado.buscar("usuario 15", 0, 10).total()).isZero();
+
+        compactado.remover(2500L);
+        assertThat(compactado.buscar("usuario 2500", 0, 10).total()).isZero();
+    }
+}
@@ -0,0 +1,186 @@
+package br.com.fiap.gs.ConnectA.service.mensageria;
+
+import br.com.fiap.gs.ConnectA.exception.PublicacaoException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PublicadorEventosTest {
+
+    private final RabbitTemplate rabbitTemplate = mock(RabbitTemplate.class);
+    private final List<CorrelationData> enviados = new CopyOnWriteArrayList<>();
+    private final CountDownLatch liberarBroker = new CountDownLatch(1);
+    private PublicadorEventos publicador;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        liberarBroker.countDown();
+        if (publicador != null) {
+            publicador.encerrar();
+        }
+    }
+
+    @Test
+    void eventoConfirmadoConcluiOFuture() throws Exception {
+        broker(correlacao -> correlacao.getFuture().complete(new CorrelationData.Confirm(true, null)));
+        publicador = publicador(10, PublicadorEventos.PoliticaOverflow.REJEITAR, 3, Duration.ofSeconds(1));
+        publicador.iniciar();
+
+        publicador.publicar("usuario.criado", "{}").get(2, TimeUnit.SECONDS);
+
+        assertThat(enviados).hasSize(1);
+    }
+
+    @Test
+    void nackEReenviadoAteConfirmar() throws Exception {
+        broker(correlacao -> correlacao.getFuture().complete(new CorrelationData.Confirm(enviados.size() > 1, "nack")));
+        publicador = publicador(10, PublicadorEventos.PoliticaOverflow.REJEITAR, 3, Duration.ofSeconds(1));
+        publicador.iniciar();
+
+        publicador.publicar("usuario.criado", "{}").get(2, TimeUnit.SECONDS);
+
+        assertThat(enviados).hasSize(2);
+    }
+
+    @Test
+    void falhaAposEsgotarAsTentativas() {
+        broker(correlacao -> correlacao.getFuture().complete(new CorrelationData.Confirm(false, "nack")));
+        publicador = publicador(10, PublicadorEventos.PoliticaOverflow.REJEITAR, 3, Duration.ofSeconds(1));
+        publicador.iniciar();
+
+        CompletableFuture<Void> resultado = publicador.publicar("usuario.criado", "{}");
+
+        assertThatThrownBy(() -> resultado.get(2, TimeUnit.SECONDS)).hasCauseInstanceOf(PublicacaoException.class);
+        assertThat(enviados).hasSize(3);
+    }
+
+    @Test
+    void confirmQueNaoChegaContaComoFalhaDentroDoPrazoMaximo() {
+        broker(correlacao -> { });
+        publicador = publicador(10, PublicadorEventos.PoliticaOverflow.REJEITAR, 2, Duration.ofMillis(50));
+        publicador.iniciar();
+
+        long inicio = System.nanoTime();
+        CompletableFuture<Void> resultado = publicador.publicar("usuario.criado", "{}");
+
+        assertThatThrownBy(() -> resultado.get(2, TimeUnit.SECONDS)).hasCauseInstanceOf(PublicacaoException.class);
+        assertThat(enviados).hasSize(2);
+        // Folga para o agendamento e a thread de envio
+        assertThat(Duration.ofNanos(System.nanoTime() - inicio))
+                .isLessThan(publicador.prazoMaximoConfirmacao().plusMillis(500));
+    }
+
+    @Test
+    void bufferCheioRejeitaOEventoNovo() throws Exception {
+        CompletableFuture<Void> segundo = ocuparEnvioEBuffer(PublicadorEventos.PoliticaOverflow.REJEITAR);
+
+        CompletableFuture<Void> terceiro = publicador.publicar("usuario.criado", "{}");
+
+        assertThat(segundo).isNotDone();
+        assertThatThrownBy(terceiro::join).hasCauseInstanceOf(PublicacaoException.class);
+    }
+
+    @Test
+    void bufferCheioDescartaOMaisAntigo() throws Exception {
+        CompletableFuture<Void> segundo = ocuparEnvioEBuffer(PublicadorEventos.PoliticaOverflow.DESCARTAR_MAIS_ANTIGO);
+
+        CompletableFuture<Void> terceiro = publicador.publicar("usuario.criado", "{}");
+
+        assertThatThrownBy(segundo::join).hasCauseInstanceOf(PublicacaoException.class);
+        assertThat(terceiro).isNotDone();
+    }
+
+    @Test
+    void encerrarFalhaOsReenviosAgendados() throws Exception {
+        broker(correlacao -> correlacao.getFuture().complete(new CorrelationData.Confirm(false, "nack")));
+        publicador = new PublicadorEventos(rabbitTemplate, new SimpleMeterRegistry(), 10,
+                PublicadorEventos.PoliticaOverflow.REJEITAR, 10, 1, 3,
+                Duration.ofMinutes(1), Duration.ofMinutes(1), Duration.ofSeconds(1));
+        publicador.iniciar();
+        CompletableFuture<Void> resultado = publicador.publicar("usuario.criado", "{}");
+        aguardarEnvios(1);
+
+        publicador.encerrar();
+
+        assertThatThrownBy(() -> resultado.get(1, TimeUnit.SECONDS)).hasCauseInstanceOf(PublicacaoException.class);
+    }
+
+    @Test
+    void prazoMaximoSomaTodasAsTentativasEBackoffs() {
+        publicador = new PublicadorEventos(rabbitTemplate, new SimpleMeterRegistry(), 10,
+                PublicadorEventos.PoliticaOverflow.REJEITAR, 10, 1, 5,
+                Duration.ofMillis(200), Duration.ofSeconds(10), Duration.ofSeconds(5));
+
+        // 5 x 5s de confirm + 200 + 400 + 800 + 1600 ms de backoff
+        assertThat(publicador.prazoMaximoConfirmacao()).isEqualTo(Duration.ofMillis(28_000));
+    }
+
+    /**
+     * Cada envio passa a correlação para o comportamento do broker simulado
+     */
+    @SuppressWarnings("unchecked")
+    private void broker(Consumer<CorrelationData> confirmar) {
+        RabbitOperations operacoes = mock(RabbitOperations.class);
+        doAnswer(invocacao -> {
+            CorrelationData correlacao = invocacao.getArgument(3);
+            enviados.add(correlacao);
+            confirmar.accept(correlacao);
+            return null;
+        }).when(operacoes).convertAndSend(anyString(), anyString(), any(Object.class), any(CorrelationData.class));
+        when(rabbitTemplate.invoke(any(RabbitOperations.OperationsCallback.class))).thenAnswer(invocacao ->
+                ((RabbitOperations.OperationsCallback<Object>) invocacao.getArgument(0)).doInRabbit(operacoes));
+    }
+
+    private PublicadorEventos publicador(int capacidade, PublicadorEventos.PoliticaOverflow overflow,
+                                         int maxTentativas, Duration confirmTimeout) {
+        return new PublicadorEventos(rabbitTemplate, new SimpleMeterRegistry(), capacidade, overflow, 10, 1,
+                maxTentativas, Duration.ofMillis(10), Duration.ofMillis(50), confirmTimeout);
+    }
+
+    /**
+     * Prende a thread de envio no primeiro evento e enche o buffer (capacidade 1) com o segundo
+     */
+    private CompletableFuture<Void> ocuparEnvioEBuffer(PublicadorEventos.PoliticaOverflow overflow) throws Exception {
+        broker(correlacao -> aguardar(liberarBroker));
+        publicador = publicador(1, overflow, 3, Duration.ofSeconds(1));
+        publicador.iniciar();
+        publicador.publicar("usuario.criado", "{}");
+        aguardarEnvios(1);
+        return publicador.publicar("usuario.criado", "{}");
+    }
+
+    private static void aguardar(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void aguardarEnvios(int quantidade) throws InterruptedException {
+        long prazo = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (enviados.size() < quantidade && System.nanoTime() < prazo) {
+            Thread.sleep(5);
+        }
+        assertThat(enviados).hasSizeGreaterThanOrEqualTo(quantidade);
+    }
+}